@@ -0,0 +1,67 @@
+package com.bookingbus.bookingbus.benchmark;
+
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.impl.InMemoryTripCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded availability scan of the segment inventory against the legacy array scan for
+ * different bus sizes. Half of the seats are sold on the first segment before measuring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilityBenchmark {
+    @Param({"40", "400", "4000"})
+    private int seatCount;
+
+    private SeatInventory inventory;
+    private LegacyArrayScanInventory legacyInventory;
+    private long segmentMask;
+    private int[] seats;
+
+    @Setup
+    public void setUp() {
+        final SeatLayout seatLayout = new SeatLayout(4, seatCount / 4);
+        inventory = new InMemoryTripCatalog().addTrip("BENCH", "ABCD", LocalDateTime.now(), seatLayout).getInventory();
+        legacyInventory = new LegacyArrayScanInventory(4, seatCount / 4);
+        final int[] claimed = new int[seatCount / 2];
+        inventory.claimSeats(inventory.segmentMask(0, 1), claimed, claimed.length);
+        legacyInventory.reserve('A', 'B', seatCount / 2);
+        segmentMask = inventory.segmentMask(0, 2);
+        seats = new int[seatCount];
+    }
+
+    @Benchmark
+    public int segmentCount() {
+        return inventory.countAvailableSeats(segmentMask);
+    }
+
+    @Benchmark
+    public int segmentFind() {
+        return inventory.findAvailableSeats(segmentMask, seats, seats.length);
+    }
+
+    @Benchmark
+    public void legacyArrayScan(Blackhole blackhole) {
+        blackhole.consume(legacyInventory.getAvailableSeats('A', 'C'));
+    }
+}
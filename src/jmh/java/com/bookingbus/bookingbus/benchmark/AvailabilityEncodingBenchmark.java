@@ -0,0 +1,93 @@
+package com.bookingbus.bookingbus.benchmark;
+
+import com.bookingbus.bookingbus.availability.AvailabilityQuote;
+import com.bookingbus.bookingbus.availability.AvailabilitySnapshot;
+import com.bookingbus.bookingbus.availability.impl.CachingAvailabilityResponseEncoder;
+import com.bookingbus.bookingbus.availability.impl.IncrementalAvailabilityCache;
+import com.bookingbus.bookingbus.dto.AvailabilityAndPriceResponseDTO;
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.Trip;
+import com.bookingbus.bookingbus.trip.impl.InMemoryTripCatalog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of producing the availability and price response body for an unchanged route. {@code jsonDto} is
+ * the original path serialising the response DTO with Jackson on every request; the other benchmarks
+ * return the bodies stored on the availability snapshot. {@code binaryFirstEncode} rebuilds the snapshot
+ * on every call to show the cost of encoding the binary body once per availability change. A third of the
+ * seats are sold before measuring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilityEncodingBenchmark {
+    @Param({"40", "400"})
+    private int seatCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CachingAvailabilityResponseEncoder encoder;
+    private IncrementalAvailabilityCache availabilityCache;
+    private Trip trip;
+    private AvailabilityQuote quote;
+
+    @Setup
+    public void setUp() {
+        encoder = new CachingAvailabilityResponseEncoder(objectMapper);
+        availabilityCache = new IncrementalAvailabilityCache();
+        trip = new InMemoryTripCatalog().addTrip("BENCH", "ABCD", LocalDateTime.now(), new SeatLayout(10, seatCount / 10));
+        final SeatInventory inventory = trip.getInventory();
+        for (int seat = 0; seat < seatCount; seat += 3) {
+            inventory.claimSeat(seat, inventory.segmentMask(0, 2));
+        }
+        quote = new AvailabilityQuote(trip, 2, 20_000, 200.0, availabilityCache.getAvailability(trip, 0, 3));
+    }
+
+    @Benchmark
+    public byte[] jsonDto() throws JsonProcessingException {
+        final AvailabilitySnapshot snapshot = quote.getSnapshot();
+        return objectMapper.writeValueAsBytes(new AvailabilityAndPriceResponseDTO(snapshot.getAvailableSeatCount(),
+                snapshot.getSeatNumbers(), quote.getTotalPrice()));
+    }
+
+    @Benchmark
+    public byte[] jsonCached() {
+        return encoder.encodeJson(quote, false);
+    }
+
+    @Benchmark
+    public byte[] jsonCountOnlyCached() {
+        return encoder.encodeJson(quote, true);
+    }
+
+    @Benchmark
+    public byte[] binaryCached() {
+        return encoder.encodeBinary(quote, false);
+    }
+
+    @Benchmark
+    public byte[] binaryFirstEncode() {
+        final SeatInventory inventory = trip.getInventory();
+        inventory.releaseSeat(0, inventory.segmentMask(0, 2));
+        inventory.claimSeat(0, inventory.segmentMask(0, 2));
+        return encoder.encodeBinary(new AvailabilityQuote(trip, 2, 20_000, 200.0, availabilityCache.getAvailability(trip, 0, 3)), false);
+    }
+}
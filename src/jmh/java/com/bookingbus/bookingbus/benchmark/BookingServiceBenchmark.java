@@ -0,0 +1,79 @@
+package com.bookingbus.bookingbus.benchmark;
+
+import com.bookingbus.bookingbus.allocation.impl.RowGroupingSeatAllocationStrategy;
+import com.bookingbus.bookingbus.audit.impl.NoOpBookingAuditTrail;
+import com.bookingbus.bookingbus.availability.impl.IncrementalAvailabilityCache;
+import com.bookingbus.bookingbus.cluster.impl.SingleNodeClusterMembership;
+import com.bookingbus.bookingbus.dto.TicketReservationRequestDTO;
+import com.bookingbus.bookingbus.hold.impl.TimerWheelSeatHoldManager;
+import com.bookingbus.bookingbus.journal.impl.NoOpReservationJournal;
+import com.bookingbus.bookingbus.metrics.impl.MicrometerBookingMetrics;
+import com.bookingbus.bookingbus.pricing.PricingEngine;
+import com.bookingbus.bookingbus.pricing.impl.FareMatrixPricingEngine;
+import com.bookingbus.bookingbus.service.impl.BookingServiceImpl;
+import com.bookingbus.bookingbus.ticket.impl.ChunkedTicketIndex;
+import com.bookingbus.bookingbus.trip.impl.InMemoryTripCatalog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end service calls on the default trips, including validation, pricing and response
+ * mapping. The reservation benchmark books one seat per call and swaps in a fresh service when the
+ * trip sells out.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+    private PricingEngine pricingEngine;
+    private BookingServiceImpl bookingService;
+    private TicketReservationRequestDTO reservationRequest;
+
+    @Setup
+    public void setUp() {
+        pricingEngine = new FareMatrixPricingEngine(new ClassPathResource("fares.csv"), 80, 20);
+        bookingService = newBookingService();
+        reservationRequest = new TicketReservationRequestDTO(null, 1, 'A', 'C', true);
+    }
+
+    @Benchmark
+    public Object checkAvailabilityAndPrice() {
+        return bookingService.checkAvailabilityAndPrice(2, 'A', 'C');
+    }
+
+    @Benchmark
+    public Object reserveTickets() {
+        try {
+            return bookingService.reserveTickets(reservationRequest);
+        } catch (IllegalArgumentException soldOut) {
+            bookingService = newBookingService();
+            return bookingService.reserveTickets(reservationRequest);
+        }
+    }
+
+    private BookingServiceImpl newBookingService() {
+        InMemoryTripCatalog tripCatalog = new InMemoryTripCatalog();
+        IncrementalAvailabilityCache availabilityCache = new IncrementalAvailabilityCache();
+        return new BookingServiceImpl(tripCatalog, pricingEngine, new NoOpReservationJournal(), availabilityCache,
+                new MicrometerBookingMetrics(new SimpleMeterRegistry(), tripCatalog, availabilityCache, false),
+                new NoOpBookingAuditTrail(), new TimerWheelSeatHoldManager(Duration.ofMinutes(10), Duration.ofMillis(100)),
+                new RowGroupingSeatAllocationStrategy(), new ChunkedTicketIndex(),
+                new SingleNodeClusterMembership());
+    }
+}
@@ -0,0 +1,115 @@
+package com.bookingbus.bookingbus.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Copy of the seat scan and reader/writer monitor that BookingServiceImpl used before the segment
+ * inventory, kept only as a baseline for the benchmarks.
+ */
+public class LegacyArrayScanInventory {
+    private final Reservation[][] journey;
+    private final AtomicBoolean isWriting = new AtomicBoolean(false);
+    private final AtomicBoolean isReading = new AtomicBoolean(false);
+    private final AtomicInteger ticketNumberCounter = new AtomicInteger(0);
+    private final Object lock = new Object();
+
+    public LegacyArrayScanInventory(int rows, int seatsPerRow) {
+        journey = new Reservation[rows][seatsPerRow];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < seatsPerRow; j++) {
+                journey[i][j] = new Reservation(0, (char) ('A' + i) + String.valueOf(j + 1), ' ', ' ');
+            }
+        }
+    }
+
+    public List<Reservation> getAvailableSeats(char origin, char destination) {
+        waitExecution(isWriting);
+        isReading.set(true);
+        final List<Reservation> availableSeats = new ArrayList<>();
+        for (Reservation[] seat : journey) {
+            for (final Reservation reservation : seat) {
+                if (reservation.ticketNumber > 0) {
+                    if (origin < destination) {
+                        if (reservation.destination <= origin) {
+                            availableSeats.add(reservation);
+                        }
+                    } else {
+                        if (origin <= reservation.destination) {
+                            availableSeats.add(reservation);
+                        }
+                    }
+                } else {
+                    availableSeats.add(reservation);
+                }
+            }
+        }
+        isReading.set(false);
+        notifyExecution();
+        return availableSeats;
+    }
+
+    public int reserve(char origin, char destination, int passengerCount) {
+        final List<Reservation> availableSeats = getAvailableSeats(origin, destination);
+        if (availableSeats.size() < passengerCount) {
+            return 0;
+        }
+        waitExecution(isReading);
+        isWriting.set(true);
+        for (int i = 0; i < passengerCount; i++) {
+            Reservation seat = availableSeats.get(i);
+            seat.ticketNumber = ticketNumberCounter.addAndGet(1);
+            seat.origin = origin;
+            seat.destination = destination;
+        }
+        isWriting.set(false);
+        notifyExecution();
+        return passengerCount;
+    }
+
+    public void reset() {
+        for (Reservation[] seat : journey) {
+            for (Reservation reservation : seat) {
+                reservation.ticketNumber = 0;
+            }
+        }
+    }
+
+    private void waitExecution(AtomicBoolean flag) {
+        synchronized (lock) {
+            if (flag.get()) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+    }
+
+    private void notifyExecution() {
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+    }
+
+    public static class Reservation {
+        private int ticketNumber;
+        private final String seatNumber;
+        private char origin;
+        private char destination;
+
+        Reservation(int ticketNumber, String seatNumber, char origin, char destination) {
+            this.ticketNumber = ticketNumber;
+            this.seatNumber = seatNumber;
+            this.origin = origin;
+            this.destination = destination;
+        }
+
+        public String getSeatNumber() {
+            return seatNumber;
+        }
+    }
+}
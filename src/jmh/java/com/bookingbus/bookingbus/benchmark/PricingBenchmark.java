@@ -0,0 +1,57 @@
+package com.bookingbus.bookingbus.benchmark;
+
+import com.bookingbus.bookingbus.pricing.PricingEngine;
+import com.bookingbus.bookingbus.pricing.impl.FareMatrixPricingEngine;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.Trip;
+import com.bookingbus.bookingbus.trip.impl.InMemoryTripCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fare matrix lookups with and without a load based surcharge.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PricingBenchmark {
+    private PricingEngine pricingEngine;
+    private PricingEngine surchargePricingEngine;
+    private Trip trip;
+    private int originStop;
+    private int destinationStop;
+
+    @Setup
+    public void setUp() {
+        pricingEngine = new FareMatrixPricingEngine(new ClassPathResource("fares.csv"), 80, 0);
+        surchargePricingEngine = new FareMatrixPricingEngine(new ClassPathResource("fares.csv"), 80, 20);
+        trip = new InMemoryTripCatalog().addTrip("BENCH", "ABCD", LocalDateTime.now(), new SeatLayout(4, 10));
+        originStop = 1;
+        destinationStop = 3;
+    }
+
+    @Benchmark
+    public long calculateFare() {
+        return pricingEngine.calculateFare(trip, originStop, destinationStop, 3, 20);
+    }
+
+    @Benchmark
+    public long calculateFareWithSurcharge() {
+        return surchargePricingEngine.calculateFare(trip, originStop, destinationStop, 3, 4);
+    }
+}
@@ -0,0 +1,137 @@
+package com.bookingbus.bookingbus.benchmark;
+
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.impl.InMemoryTripCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contended seat claiming on one shared trip. Every claim is released again so the inventory stays
+ * in a steady state; the legacy baseline is reset each iteration instead. The grouped benchmarks mix
+ * availability reads and reservations at 1:1 and 7:1 ratios.
+ */
+@State(Scope.Group)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationBenchmark {
+    private static final String STOPS = "ABCD";
+
+    @Param({"40", "400"})
+    private int seatCount;
+
+    @Param({"1", "4"})
+    private int passengerCount;
+
+    private SeatInventory inventory;
+    private LegacyArrayScanInventory legacyInventory;
+
+    @Setup
+    public void setUp() {
+        final SeatLayout seatLayout = new SeatLayout(4, seatCount / 4);
+        inventory = new InMemoryTripCatalog().addTrip("BENCH", STOPS, LocalDateTime.now(), seatLayout).getInventory();
+        legacyInventory = new LegacyArrayScanInventory(4, seatCount / 4);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetLegacy() {
+        legacyInventory.reset();
+    }
+
+    @State(Scope.Thread)
+    public static class Claim {
+        private int[] seats;
+
+        @Setup
+        public void setUp(ReservationBenchmark benchmark) {
+            seats = new int[benchmark.passengerCount];
+        }
+    }
+
+    @Benchmark
+    @Group("claimRelease")
+    @GroupThreads(8)
+    public boolean claimRelease(Claim claim) {
+        return claimAndRelease(claim.seats);
+    }
+
+    @Benchmark
+    @Group("mixedEven")
+    @GroupThreads(4)
+    public int mixedEvenRead() {
+        return inventory.countAvailableSeats(randomSegmentMask());
+    }
+
+    @Benchmark
+    @Group("mixedEven")
+    @GroupThreads(4)
+    public boolean mixedEvenWrite(Claim claim) {
+        return claimAndRelease(claim.seats);
+    }
+
+    @Benchmark
+    @Group("mixedReadHeavy")
+    @GroupThreads(7)
+    public int mixedReadHeavyRead() {
+        return inventory.countAvailableSeats(randomSegmentMask());
+    }
+
+    @Benchmark
+    @Group("mixedReadHeavy")
+    @GroupThreads(1)
+    public boolean mixedReadHeavyWrite(Claim claim) {
+        return claimAndRelease(claim.seats);
+    }
+
+    @Benchmark
+    @Group("legacyMixedReadHeavy")
+    @GroupThreads(7)
+    public void legacyMixedReadHeavyRead(Blackhole blackhole) {
+        blackhole.consume(legacyInventory.getAvailableSeats('A', 'C'));
+    }
+
+    @Benchmark
+    @Group("legacyMixedReadHeavy")
+    @GroupThreads(1)
+    public int legacyMixedReadHeavyWrite() {
+        return legacyInventory.reserve('A', 'B', passengerCount);
+    }
+
+    private boolean claimAndRelease(int[] seats) {
+        final long segmentMask = randomSegmentMask();
+        if (!inventory.claimSeats(segmentMask, seats, seats.length)) {
+            return false;
+        }
+        for (int seat : seats) {
+            inventory.releaseSeat(seat, segmentMask);
+        }
+        return true;
+    }
+
+    private long randomSegmentMask() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int origin = random.nextInt(STOPS.length() - 1);
+        final int destination = origin + 1 + random.nextInt(STOPS.length() - 1 - origin);
+        return inventory.segmentMask(origin, destination);
+    }
+}
@@ -0,0 +1,78 @@
+package com.bookingbus.bookingbus.benchmark;
+
+import com.bookingbus.bookingbus.allocation.SeatAllocationStrategy;
+import com.bookingbus.bookingbus.allocation.impl.BestFitSeatAllocationStrategy;
+import com.bookingbus.bookingbus.allocation.impl.FirstFitSeatAllocationStrategy;
+import com.bookingbus.bookingbus.allocation.impl.RowGroupingSeatAllocationStrategy;
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.impl.InMemoryTripCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of choosing seats with each allocation strategy on a fragmented bus of eight stops, where about
+ * two thirds of the seats are sold on a random stretch of the route. The score is the time to select a
+ * whole group, so the cost per seat is the score divided by the group size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatAllocationBenchmark {
+    @Param({"first-fit", "best-fit", "row-group"})
+    private String strategyName;
+
+    @Param({"40", "400"})
+    private int seatCount;
+
+    @Param({"1", "4"})
+    private int groupSize;
+
+    private SeatAllocationStrategy strategy;
+    private SeatLayout seatLayout;
+    private SeatInventory inventory;
+    private long segmentMask;
+    private int[] seats;
+
+    @Setup
+    public void setUp() {
+        strategy = switch (strategyName) {
+            case "first-fit" -> new FirstFitSeatAllocationStrategy();
+            case "best-fit" -> new BestFitSeatAllocationStrategy();
+            default -> new RowGroupingSeatAllocationStrategy();
+        };
+        seatLayout = new SeatLayout(10, seatCount / 10);
+        inventory = new InMemoryTripCatalog().addTrip("BENCH", "ABCDEFGH", LocalDateTime.now(), seatLayout).getInventory();
+        final SplittableRandom random = new SplittableRandom(42);
+        for (int seat = 0; seat < seatCount; seat++) {
+            if (random.nextInt(3) > 0) {
+                int origin = random.nextInt(inventory.getSegmentCount());
+                int destination = origin + 1 + random.nextInt(inventory.getSegmentCount() - origin);
+                inventory.claimSeat(seat, inventory.segmentMask(origin, destination));
+            }
+        }
+        segmentMask = inventory.segmentMask(2, 5);
+        seats = new int[groupSize];
+    }
+
+    @Benchmark
+    public int selectSeats() {
+        return strategy.selectSeats(inventory, seatLayout, segmentMask, seats, groupSize);
+    }
+}
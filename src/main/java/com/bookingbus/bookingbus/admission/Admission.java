@@ -0,0 +1,60 @@
+package com.bookingbus.bookingbus.admission;
+
+import lombok.Getter;
+
+/**
+ * Outcome of asking admission control to let a request through. An admitted request must be released
+ * exactly once when it completes, so the next request waiting for its trip can go ahead; a rejected request
+ * carries the number of seconds the client should wait before retrying.
+ */
+public class Admission {
+    private static final Admission ADMITTED = new Admission(true, 0, null, () -> {
+    });
+    @Getter
+    private final boolean admitted;
+    @Getter
+    private final long retryAfterSeconds;
+    @Getter
+    private final String message;
+    private final Runnable release;
+
+    private Admission(boolean admitted, long retryAfterSeconds, String message, Runnable release) {
+        this.admitted = admitted;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.message = message;
+        this.release = release;
+    }
+
+    /**
+     * @return admission of a request which does not hold any slot
+     */
+    public static Admission admitted() {
+        return ADMITTED;
+    }
+
+    /**
+     * @param release called when the admitted request completes
+     * @return admission of a request holding a slot until it is released
+     */
+    public static Admission admitted(Runnable release) {
+        return new Admission(true, 0, null, release);
+    }
+
+    /**
+     * @param retryAfterSeconds seconds the client should wait before retrying
+     * @param message           reason given to the client
+     * @return rejection of a request
+     */
+    public static Admission rejected(long retryAfterSeconds, String message) {
+        return new Admission(false, retryAfterSeconds, message, null);
+    }
+
+    /**
+     * Give the slot of an admitted request back once the request completed
+     */
+    public void release() {
+        if (release != null) {
+            release.run();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.bookingbus.bookingbus.admission;
+
+import com.bookingbus.bookingbus.trip.Trip;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AdmissionController {
+    /**
+     * Admit a read of the seats available between two stops of a trip. Reads are answered from the
+     * availability cache and never wait; only a read for a sold-out journey is turned away.
+     *
+     * @param trip            trip to travel on
+     * @param originStop      ordinal of the origin stop on the trip
+     * @param destinationStop ordinal of the destination stop on the trip
+     * @return admission of the read, to release once it completes
+     */
+    Admission admitRead(Trip trip, int originStop, int destinationStop);
+
+    /**
+     * Admit a booking between two stops of a trip. A booking for a sold-out journey is turned away at once.
+     * Otherwise it is admitted if one of the booking slots of the trip is free, or else waits its turn in the
+     * waiting room of the trip without holding a thread, and is turned away if the waiting room is full or
+     * its turn does not come in time.
+     *
+     * @param trip            trip to travel on
+     * @param originStop      ordinal of the origin stop on the trip
+     * @param destinationStop ordinal of the destination stop on the trip
+     * @return admission of the booking, completed once the booking is admitted or turned away
+     */
+    CompletableFuture<Admission> admitBooking(Trip trip, int originStop, int destinationStop);
+}
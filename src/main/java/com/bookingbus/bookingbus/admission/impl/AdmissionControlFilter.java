@@ -0,0 +1,190 @@
+package com.bookingbus.bookingbus.admission.impl;
+
+import com.bookingbus.bookingbus.admission.Admission;
+import com.bookingbus.bookingbus.admission.AdmissionController;
+import com.bookingbus.bookingbus.trip.Trip;
+import com.bookingbus.bookingbus.trip.TripCatalog;
+import com.bookingbus.bookingbus.web.BookingRequestTarget;
+import com.bookingbus.bookingbus.web.CachedBodyRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Puts admission control in front of the availability and booking endpoints. A request which is turned
+ * away gets {@code 429 Too Many Requests} with a {@code Retry-After} header without reaching the booking
+ * service, so a sold-out journey or a crowded trip costs a cache lookup rather than a request thread
+ * blocked in the service. A booking waiting its turn is switched to asynchronous processing, so it holds
+ * no request thread while it waits, and is dispatched to its controller once admitted. An admitted booking
+ * keeps its slot until the request completes, which is after the filter chain returns for asynchronous
+ * requests. Requests whose trip or journey cannot be resolved
+ * are let through for the service to reject. In a cluster this runs after the routing filter, so requests
+ * are admitted on the node holding their trip.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(value = "booking.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private static final Set<String> READ_PATHS = Set.of("/booking/availability-and-price", "/reactive/booking/availability-and-price");
+    private static final Set<String> BOOKING_PATHS = Set.of("/booking/tickets", "/booking/tickets/batch", "/booking/holds",
+            "/reactive/booking/tickets");
+    private final AdmissionController admissionController;
+    private final TripCatalog tripCatalog;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public AdmissionControlFilter(AdmissionController admissionController, TripCatalog tripCatalog, ObjectMapper objectMapper) {
+        this.admissionController = admissionController;
+        this.tripCatalog = tripCatalog;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        final String path = request.getRequestURI().substring(request.getContextPath().length());
+        return "GET".equals(request.getMethod()) ? !READ_PATHS.contains(path)
+                : !"POST".equals(request.getMethod()) || !BOOKING_PATHS.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        final CachedBodyRequest admittedRequest = CachedBodyRequest.of(request);
+        final BookingRequestTarget target = BookingRequestTarget.of(admittedRequest, objectMapper);
+        final Trip trip = target.hasJourney() ? tripCatalog.getTrip(target.getTripId()) : null;
+        final int originStop = trip == null ? -1 : trip.stopOrdinal(target.getOrigin());
+        final int destinationStop = trip == null ? -1 : trip.stopOrdinal(target.getDestination());
+        if (originStop < 0 || destinationStop <= originStop) {
+            filterChain.doFilter(admittedRequest, response);
+            return;
+        }
+        if ("GET".equals(request.getMethod())) {
+            final Admission admission = admissionController.admitRead(trip, originStop, destinationStop);
+            if (admission.isAdmitted()) {
+                filterChain.doFilter(admittedRequest, response);
+            } else {
+                reject(response, admission);
+            }
+            return;
+        }
+        final CompletableFuture<Admission> pendingAdmission = admissionController.admitBooking(trip, originStop, destinationStop);
+        if (pendingAdmission.isDone()) {
+            serveAdmitted(admittedRequest, response, filterChain, pendingAdmission.join());
+            return;
+        }
+        final AsyncContext asyncContext = admittedRequest.startAsync(admittedRequest, response);
+        final ReleaseListener releaseListener = new ReleaseListener(null);
+        asyncContext.addListener(releaseListener);
+        pendingAdmission.thenAccept(admission -> resume(asyncContext, releaseListener, admission));
+    }
+
+    private void serveAdmitted(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                               Admission admission) throws ServletException, IOException {
+        if (!admission.isAdmitted()) {
+            reject(response, admission);
+            return;
+        }
+        boolean releaseOnCompletion = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseListener(admission));
+                releaseOnCompletion = true;
+            }
+        } finally {
+            if (!releaseOnCompletion) {
+                admission.release();
+            }
+        }
+    }
+
+    /**
+     * Continues a booking which waited for its turn: an admitted booking is dispatched to its controller and
+     * keeps its slot until the request completes, a rejected one is answered here
+     */
+    private static void resume(AsyncContext asyncContext, ReleaseListener releaseListener, Admission admission) {
+        try {
+            if (admission.isAdmitted()) {
+                releaseListener.hold(admission);
+                asyncContext.dispatch();
+            } else {
+                reject((HttpServletResponse) asyncContext.getResponse(), admission);
+                asyncContext.complete();
+            }
+        } catch (IOException | IllegalStateException exception) {
+            // The request already ended, such as when the client went away while waiting
+            log.debug("Unable to resume waiting booking: {}", exception.getMessage());
+            releaseListener.release();
+        }
+    }
+
+    private static void reject(HttpServletResponse response, Admission admission) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(admission.getRetryAfterSeconds()));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getOutputStream().write(admission.getMessage().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Releases the slot of a booking when its request completes. The listener registers itself again when
+     * the controller starts another asynchronous cycle, as the container drops listeners on every cycle.
+     */
+    private static class ReleaseListener implements AsyncListener {
+        private final AtomicReference<Admission> admission;
+
+        ReleaseListener(Admission admission) {
+            this.admission = new AtomicReference<>(admission);
+        }
+
+        void hold(Admission heldAdmission) {
+            admission.set(heldAdmission);
+        }
+
+        void release() {
+            final Admission heldAdmission = admission.getAndSet(null);
+            if (heldAdmission != null) {
+                heldAdmission.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
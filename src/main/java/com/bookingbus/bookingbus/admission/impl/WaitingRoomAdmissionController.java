@@ -0,0 +1,197 @@
+package com.bookingbus.bookingbus.admission.impl;
+
+import com.bookingbus.bookingbus.admission.Admission;
+import com.bookingbus.bookingbus.admission.AdmissionController;
+import com.bookingbus.bookingbus.availability.AvailabilityCache;
+import com.bookingbus.bookingbus.metrics.BookingMetrics;
+import com.bookingbus.bookingbus.trip.Trip;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control giving every trip a virtual waiting room. A trip lets a fixed number of bookings run
+ * at once, and the bookings beyond that wait their turn in arrival order as pending admissions, not as
+ * parked threads, so a flash sale on one trip neither piles request threads onto its inventory nor uses up
+ * the thread pool serving the other trips. A booking leaving its slot hands it straight to the first
+ * booking waiting. The waiting room is bounded: a booking arriving when it is full, or whose turn does not
+ * come within the maximum wait, is turned away with an estimate of when the room will have drained, based
+ * on the average time a booking holds its slot. A journey without a free seat is turned away before it
+ * waits at all, with a longer retry hint, since only a cancellation or an expired hold can free a seat.
+ * A waiting room is removed once its last booking leaves, so trips no longer booked do not keep one.
+ */
+@Service
+@ConditionalOnProperty(value = "booking.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class WaitingRoomAdmissionController implements AdmissionController {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final String SOLD_OUT_MESSAGE = "Sorry! No seats available";
+    private final AvailabilityCache availabilityCache;
+    private final BookingMetrics bookingMetrics;
+    private final int concurrentBookings;
+    private final int waitingRoomCapacity;
+    private final Executor expiryExecutor;
+    private final long soldOutRetryAfterSeconds;
+    private final ConcurrentMap<String, WaitingRoom> waitingRooms = new ConcurrentHashMap<>();
+
+    @Autowired
+    public WaitingRoomAdmissionController(AvailabilityCache availabilityCache, BookingMetrics bookingMetrics,
+                                          @Value("${booking.admission.concurrent-bookings-per-trip:8}") int concurrentBookings,
+                                          @Value("${booking.admission.waiting-room-capacity:256}") int waitingRoomCapacity,
+                                          @Value("${booking.admission.max-wait:2s}") Duration maxWait,
+                                          @Value("${booking.admission.sold-out-retry-after:30s}") Duration soldOutRetryAfter) {
+        if (concurrentBookings <= 0) {
+            throw new IllegalArgumentException("Concurrent bookings per trip must be greater than zero");
+        }
+        if (waitingRoomCapacity < 0) {
+            throw new IllegalArgumentException("Waiting room capacity must not be negative");
+        }
+        this.availabilityCache = availabilityCache;
+        this.bookingMetrics = bookingMetrics;
+        this.concurrentBookings = concurrentBookings;
+        this.waitingRoomCapacity = waitingRoomCapacity;
+        this.expiryExecutor = CompletableFuture.delayedExecutor(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        this.soldOutRetryAfterSeconds = Math.max(1, soldOutRetryAfter.toSeconds());
+    }
+
+    @Override
+    public Admission admitRead(Trip trip, int originStop, int destinationStop) {
+        return isSoldOut(trip, originStop, destinationStop) ? rejectSoldOut() : Admission.admitted();
+    }
+
+    @Override
+    public CompletableFuture<Admission> admitBooking(Trip trip, int originStop, int destinationStop) {
+        if (isSoldOut(trip, originStop, destinationStop)) {
+            return CompletableFuture.completedFuture(rejectSoldOut());
+        }
+        final WaitingRoom waitingRoom = waitingRooms.computeIfAbsent(trip.getTripId(), WaitingRoom::new);
+        final CompletableFuture<Admission> admission = new CompletableFuture<>();
+        final boolean removed;
+        final boolean full;
+        synchronized (waitingRoom) {
+            removed = waitingRoom.removed;
+            if (!removed && waitingRoom.running < concurrentBookings) {
+                waitingRoom.running++;
+                return CompletableFuture.completedFuture(admit(waitingRoom));
+            }
+            full = waitingRoom.waiting.size() >= waitingRoomCapacity;
+            if (!removed && !full) {
+                waitingRoom.waiting.add(admission);
+            }
+        }
+        if (removed) {
+            // The last booking left and removed the room after it was looked up, so join its replacement
+            return admitBooking(trip, originStop, destinationStop);
+        }
+        if (full) {
+            return CompletableFuture.completedFuture(rejectOverloaded(trip, waitingRoom));
+        }
+        expiryExecutor.execute(() -> expire(trip, waitingRoom, admission));
+        return admission;
+    }
+
+    /**
+     * Get the number of bookings of a trip running or waiting their turn
+     *
+     * @param tripId trip id
+     * @return bookings in the waiting room of the trip
+     */
+    public int getOccupancy(String tripId) {
+        final WaitingRoom waitingRoom = waitingRooms.get(tripId);
+        return waitingRoom == null ? 0 : waitingRoom.getOccupancy();
+    }
+
+    int getWaitingRoomCount() {
+        return waitingRooms.size();
+    }
+
+    private boolean isSoldOut(Trip trip, int originStop, int destinationStop) {
+        return availabilityCache.getAvailableSeatCount(trip, originStop, destinationStop) == 0;
+    }
+
+    private Admission admit(WaitingRoom waitingRoom) {
+        final long admittedNanos = System.nanoTime();
+        return Admission.admitted(() -> leave(waitingRoom, System.nanoTime() - admittedNanos));
+    }
+
+    /**
+     * Hands the slot of a completed booking to the first booking waiting, or frees it if none is waiting.
+     * The waiting booking is admitted outside the lock, as admitting it resumes its request. Bookings only
+     * wait while every slot is taken, so a room without running bookings is empty and is removed.
+     */
+    private void leave(WaitingRoom waitingRoom, long bookingNanos) {
+        final CompletableFuture<Admission> next;
+        synchronized (waitingRoom) {
+            waitingRoom.averageBookingNanos += (bookingNanos - waitingRoom.averageBookingNanos) / 8;
+            next = waitingRoom.waiting.poll();
+            if (next == null) {
+                if (--waitingRoom.running == 0) {
+                    waitingRoom.removed = true;
+                    waitingRooms.remove(waitingRoom.tripId, waitingRoom);
+                }
+                return;
+            }
+        }
+        next.complete(admit(waitingRoom));
+    }
+
+    /**
+     * Turns a booking away if it is still waiting once the maximum wait has passed
+     */
+    private void expire(Trip trip, WaitingRoom waitingRoom, CompletableFuture<Admission> admission) {
+        final boolean waiting;
+        synchronized (waitingRoom) {
+            waiting = waitingRoom.waiting.remove(admission);
+        }
+        if (waiting) {
+            admission.complete(rejectOverloaded(trip, waitingRoom));
+        }
+    }
+
+    private Admission rejectSoldOut() {
+        bookingMetrics.recordAdmissionRejection(true);
+        return Admission.rejected(soldOutRetryAfterSeconds, SOLD_OUT_MESSAGE);
+    }
+
+    /**
+     * Turns a booking away with the time the bookings ahead of it need to drain through the slots of the trip
+     */
+    private Admission rejectOverloaded(Trip trip, WaitingRoom waitingRoom) {
+        bookingMetrics.recordAdmissionRejection(false);
+        final long drainNanos;
+        synchronized (waitingRoom) {
+            drainNanos = waitingRoom.getOccupancy() * waitingRoom.averageBookingNanos / concurrentBookings;
+        }
+        final long retryAfterSeconds = Math.max(1, (drainNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+        return Admission.rejected(retryAfterSeconds, "Too many bookings waiting for trip " + trip.getTripId() + ", please retry");
+    }
+
+    /**
+     * Booking slots of a trip and the bookings waiting for one, guarded by the waiting room itself
+     */
+    private static class WaitingRoom {
+        private final String tripId;
+        private final Queue<CompletableFuture<Admission>> waiting = new ArrayDeque<>();
+        private int running;
+        private boolean removed;
+        // Moving average of the time a booking holds its slot
+        private long averageBookingNanos;
+
+        WaitingRoom(String tripId) {
+            this.tripId = tripId;
+        }
+
+        synchronized int getOccupancy() {
+            return running + waiting.size();
+        }
+    }
+}
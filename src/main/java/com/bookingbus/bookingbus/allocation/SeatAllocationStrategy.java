@@ -0,0 +1,19 @@
+package com.bookingbus.bookingbus.allocation;
+
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+
+public interface SeatAllocationStrategy {
+    /**
+     * Choose the seats to claim for a booking. The seats are only selected, claiming them is left to the
+     * caller, so a selected seat may be taken by a concurrent booking before it is claimed.
+     *
+     * @param inventory   seat inventory of the trip
+     * @param seatLayout  seat arrangement of the trip
+     * @param segmentMask segments to be travelled
+     * @param seats       destination array for the selected seat indexes
+     * @param count       number of seats to select
+     * @return number of seat indexes written to the array, less than the count if not enough seats are free
+     */
+    int selectSeats(SeatInventory inventory, SeatLayout seatLayout, long segmentMask, int[] seats, int count);
+}
@@ -0,0 +1,82 @@
+package com.bookingbus.bookingbus.allocation.impl;
+
+import com.bookingbus.bookingbus.allocation.SeatAllocationStrategy;
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Selects the free seats whose free stretch of segments around the requested segments is the shortest.
+ * The waste of a seat is the number of free segments directly before and after the requested ones, which
+ * would be left over as a gap once the seat is sold. Seats with zero waste close a gap exactly, while
+ * completely empty seats are used last so they stay available for long journeys. Seats are bucketed by
+ * waste in one pass and selected in a second pass, without sorting.
+ */
+@Service
+@ConditionalOnProperty(value = "booking.allocation.strategy", havingValue = "best-fit")
+public class BestFitSeatAllocationStrategy implements SeatAllocationStrategy {
+
+    @Override
+    public int selectSeats(SeatInventory inventory, SeatLayout seatLayout, long segmentMask, int[] seats, int count) {
+        final int seatCount = inventory.getSeatCount();
+        final int segmentCount = inventory.getSegmentCount();
+        final int originStop = originStop(segmentMask);
+        final int destinationStop = destinationStop(segmentMask);
+        final int[] seatsByWaste = new int[Long.SIZE];
+        int selected = 0;
+        for (int seat = 0; seat < seatCount; seat++) {
+            final long occupied = inventory.getOccupiedSegments(seat);
+            if ((occupied & segmentMask) == 0) {
+                final int waste = waste(occupied, originStop, destinationStop, segmentCount);
+                if (waste == 0) {
+                    seats[selected++] = seat;
+                    if (selected == count) {
+                        return selected;
+                    }
+                }
+                seatsByWaste[waste]++;
+            }
+        }
+        int maxWaste = 0;
+        int below = 0;
+        while (maxWaste < Long.SIZE - 1 && below + seatsByWaste[maxWaste] < count) {
+            below += seatsByWaste[maxWaste++];
+        }
+        if (below + seatsByWaste[maxWaste] < count) {
+            return inventory.findAvailableSeats(segmentMask, seats, count);
+        }
+        int atMaxWaste = count - below;
+        for (int seat = 0; seat < seatCount && selected < count; seat++) {
+            final long occupied = inventory.getOccupiedSegments(seat);
+            if ((occupied & segmentMask) != 0) {
+                continue;
+            }
+            final int waste = waste(occupied, originStop, destinationStop, segmentCount);
+            if ((waste > 0 && waste < maxWaste) || (waste == maxWaste && atMaxWaste-- > 0)) {
+                seats[selected++] = seat;
+            }
+        }
+        return selected;
+    }
+
+    static int originStop(long segmentMask) {
+        return Long.numberOfTrailingZeros(segmentMask);
+    }
+
+    static int destinationStop(long segmentMask) {
+        return Long.SIZE - Long.numberOfLeadingZeros(segmentMask);
+    }
+
+    /**
+     * Count the free segments directly before the origin stop and after the destination stop of a seat
+     * which is free between the two stops
+     */
+    static int waste(long occupied, int originStop, int destinationStop, int segmentCount) {
+        final long occupiedBefore = occupied & ((1L << originStop) - 1);
+        final int freeBefore = occupiedBefore == 0 ? originStop : originStop - (Long.SIZE - Long.numberOfLeadingZeros(occupiedBefore));
+        final long occupiedAfter = occupied >>> destinationStop;
+        final int freeAfter = occupiedAfter == 0 ? segmentCount - destinationStop : Long.numberOfTrailingZeros(occupiedAfter);
+        return freeBefore + freeAfter;
+    }
+}
@@ -0,0 +1,20 @@
+package com.bookingbus.bookingbus.allocation.impl;
+
+import com.bookingbus.bookingbus.allocation.SeatAllocationStrategy;
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Selects the free seats with the lowest seat indexes, filling the bus from A1 onwards.
+ */
+@Service
+@ConditionalOnProperty(value = "booking.allocation.strategy", havingValue = "first-fit")
+public class FirstFitSeatAllocationStrategy implements SeatAllocationStrategy {
+
+    @Override
+    public int selectSeats(SeatInventory inventory, SeatLayout seatLayout, long segmentMask, int[] seats, int count) {
+        return inventory.findAvailableSeats(segmentMask, seats, count);
+    }
+}
@@ -0,0 +1,62 @@
+package com.bookingbus.bookingbus.allocation.impl;
+
+import com.bookingbus.bookingbus.allocation.SeatAllocationStrategy;
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Seats a group next to each other in one row when possible. Every run of adjacent free seats of the
+ * group size is scored by the best fit waste of its seats and the tightest run wins, so groups also
+ * fill segment gaps first. Single passengers and groups which fit in no row fall back to best fit
+ * selection across the whole bus.
+ */
+@Service
+@ConditionalOnProperty(value = "booking.allocation.strategy", havingValue = "row-group", matchIfMissing = true)
+public class RowGroupingSeatAllocationStrategy implements SeatAllocationStrategy {
+    private final BestFitSeatAllocationStrategy bestFitStrategy = new BestFitSeatAllocationStrategy();
+
+    @Override
+    public int selectSeats(SeatInventory inventory, SeatLayout seatLayout, long segmentMask, int[] seats, int count) {
+        final int seatsPerRow = seatLayout.getSeatsPerRow();
+        if (count == 1 || count > seatsPerRow) {
+            return bestFitStrategy.selectSeats(inventory, seatLayout, segmentMask, seats, count);
+        }
+        final int segmentCount = inventory.getSegmentCount();
+        final int originStop = BestFitSeatAllocationStrategy.originStop(segmentMask);
+        final int destinationStop = BestFitSeatAllocationStrategy.destinationStop(segmentMask);
+        int bestFirstSeat = -1;
+        int bestWaste = Integer.MAX_VALUE;
+        for (int row = 0; row < seatLayout.getRows() && bestWaste > 0; row++) {
+            final int rowStart = row * seatsPerRow;
+            int run = 0;
+            int runWaste = 0;
+            for (int seat = rowStart; seat < rowStart + seatsPerRow; seat++) {
+                final long occupied = inventory.getOccupiedSegments(seat);
+                if ((occupied & segmentMask) != 0) {
+                    run = 0;
+                    runWaste = 0;
+                    continue;
+                }
+                runWaste += BestFitSeatAllocationStrategy.waste(occupied, originStop, destinationStop, segmentCount);
+                if (++run > count) {
+                    runWaste -= BestFitSeatAllocationStrategy.waste(inventory.getOccupiedSegments(seat - count),
+                            originStop, destinationStop, segmentCount);
+                    run = count;
+                }
+                if (run == count && runWaste < bestWaste) {
+                    bestWaste = runWaste;
+                    bestFirstSeat = seat - count + 1;
+                }
+            }
+        }
+        if (bestFirstSeat < 0) {
+            return bestFitStrategy.selectSeats(inventory, seatLayout, segmentMask, seats, count);
+        }
+        for (int i = 0; i < count; i++) {
+            seats[i] = bestFirstSeat + i;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,26 @@
+package com.bookingbus.bookingbus.audit;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingAuditEvent {
+    public static final String RESERVED = "RESERVED";
+    public static final String REJECTED = "REJECTED";
+    public static final String CANCELLED = "CANCELLED";
+    private final String type;
+    private final long timestamp;
+    private final String tripId;
+    private final Character origin;
+    private final Character destination;
+    private final Integer passengerCount;
+    private final List<Integer> ticketNumbers;
+    private final List<String> seatNumbers;
+    private final Double totalPrice;
+    private final String reason;
+}
@@ -0,0 +1,29 @@
+package com.bookingbus.bookingbus.audit;
+
+import com.bookingbus.bookingbus.dto.TicketCancellationResponseDTO;
+import com.bookingbus.bookingbus.dto.TicketReservationRequestDTO;
+import com.bookingbus.bookingbus.dto.TicketReservationResponseDTO;
+
+public interface BookingAuditTrail {
+    /**
+     * Publish an audit event for issued tickets. The event is written off the calling thread.
+     *
+     * @param reservation issued tickets
+     */
+    void recordReservation(TicketReservationResponseDTO reservation);
+
+    /**
+     * Publish an audit event for a rejected reservation. The event is written off the calling thread.
+     *
+     * @param request rejected reservation request
+     * @param reason  reason of the rejection
+     */
+    void recordRejection(TicketReservationRequestDTO request, String reason);
+
+    /**
+     * Publish an audit event for a cancelled ticket. The event is written off the calling thread.
+     *
+     * @param cancellation cancelled ticket and its refund
+     */
+    void recordCancellation(TicketCancellationResponseDTO cancellation);
+}
@@ -0,0 +1,134 @@
+package com.bookingbus.bookingbus.audit.impl;
+
+import com.bookingbus.bookingbus.audit.BookingAuditEvent;
+import com.bookingbus.bookingbus.audit.BookingAuditTrail;
+import com.bookingbus.bookingbus.dto.TicketCancellationResponseDTO;
+import com.bookingbus.bookingbus.dto.TicketReservationRequestDTO;
+import com.bookingbus.bookingbus.dto.TicketReservationResponseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Audit trail handing booking events to a single writer thread through a bounded queue. The request
+ * thread only allocates the event and offers it to the queue; serialising the event to a JSON line and
+ * writing it to the {@code booking.audit} logger happen on the writer thread. When the writer falls
+ * behind and the queue is full the event is dropped and counted rather than blocking the booking.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(value = "booking.audit.enabled", havingValue = "true")
+public class AsyncBookingAuditTrail implements BookingAuditTrail {
+    private static final Logger AUDIT_LOG = LoggerFactory.getLogger("booking.audit");
+    private static final int WRITE_BATCH_SIZE = 256;
+    private final BlockingQueue<BookingAuditEvent> events;
+    private final ObjectMapper objectMapper;
+    private final Consumer<String> sink;
+    private final Thread writer;
+    private final LongAdder droppedEventCount = new LongAdder();
+    private volatile boolean closed;
+
+    @Autowired
+    public AsyncBookingAuditTrail(@Value("${booking.audit.queue-capacity:8192}") int queueCapacity, ObjectMapper objectMapper) {
+        this(queueCapacity, objectMapper, AUDIT_LOG::info);
+    }
+
+    AsyncBookingAuditTrail(int queueCapacity, ObjectMapper objectMapper, Consumer<String> sink) {
+        this.events = new ArrayBlockingQueue<>(queueCapacity);
+        this.objectMapper = objectMapper;
+        this.sink = sink;
+        this.writer = new Thread(this::writeEvents, "booking-audit");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void recordReservation(TicketReservationResponseDTO reservation) {
+        publish(new BookingAuditEvent(BookingAuditEvent.RESERVED, System.currentTimeMillis(), reservation.getTripId(),
+                reservation.getOrigin(), reservation.getDestination(), reservation.getTicketNumbers().size(),
+                reservation.getTicketNumbers(), reservation.getSeatNumbers(), reservation.getTotalPrice(), null));
+    }
+
+    @Override
+    public void recordRejection(TicketReservationRequestDTO request, String reason) {
+        if (request == null) {
+            publish(new BookingAuditEvent(BookingAuditEvent.REJECTED, System.currentTimeMillis(),
+                    null, null, null, null, null, null, null, reason));
+            return;
+        }
+        publish(new BookingAuditEvent(BookingAuditEvent.REJECTED, System.currentTimeMillis(), request.getTripId(),
+                request.getOrigin(), request.getDestination(), request.getPassengerCount(), null, null, null, reason));
+    }
+
+    @Override
+    public void recordCancellation(TicketCancellationResponseDTO cancellation) {
+        publish(new BookingAuditEvent(BookingAuditEvent.CANCELLED, System.currentTimeMillis(), cancellation.getTripId(),
+                cancellation.getOrigin(), cancellation.getDestination(), 1, List.of(cancellation.getTicketNumber()),
+                List.of(cancellation.getSeatNumber()), cancellation.getRefundAmount(), null));
+    }
+
+    /**
+     * Get the number of events dropped because the queue was full
+     *
+     * @return dropped event count
+     */
+    public long getDroppedEventCount() {
+        return droppedEventCount.sum();
+    }
+
+    @PreDestroy
+    public void close() {
+        closed = true;
+        writer.interrupt();
+        try {
+            writer.join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        final List<BookingAuditEvent> remaining = new ArrayList<>();
+        events.drainTo(remaining);
+        remaining.forEach(this::write);
+    }
+
+    private void publish(BookingAuditEvent event) {
+        if (closed || !events.offer(event)) {
+            droppedEventCount.increment();
+        }
+    }
+
+    private void writeEvents() {
+        final List<BookingAuditEvent> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+        while (!closed) {
+            try {
+                batch.add(events.take());
+            } catch (InterruptedException exception) {
+                return;
+            }
+            events.drainTo(batch, WRITE_BATCH_SIZE - 1);
+            batch.forEach(this::write);
+            batch.clear();
+        }
+    }
+
+    private void write(BookingAuditEvent event) {
+        try {
+            sink.accept(objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException | RuntimeException exception) {
+            log.warn("Unable to write audit event {}: {}", event.getType(), exception.getMessage());
+        }
+    }
+}
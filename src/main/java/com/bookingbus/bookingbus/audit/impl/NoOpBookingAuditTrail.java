@@ -0,0 +1,25 @@
+package com.bookingbus.bookingbus.audit.impl;
+
+import com.bookingbus.bookingbus.audit.BookingAuditTrail;
+import com.bookingbus.bookingbus.dto.TicketCancellationResponseDTO;
+import com.bookingbus.bookingbus.dto.TicketReservationRequestDTO;
+import com.bookingbus.bookingbus.dto.TicketReservationResponseDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+@Service
+@ConditionalOnProperty(value = "booking.audit.enabled", havingValue = "false", matchIfMissing = true)
+public class NoOpBookingAuditTrail implements BookingAuditTrail {
+
+    @Override
+    public void recordReservation(TicketReservationResponseDTO reservation) {
+    }
+
+    @Override
+    public void recordRejection(TicketReservationRequestDTO request, String reason) {
+    }
+
+    @Override
+    public void recordCancellation(TicketCancellationResponseDTO cancellation) {
+    }
+}
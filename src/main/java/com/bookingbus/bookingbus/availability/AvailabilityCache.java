@@ -0,0 +1,79 @@
+package com.bookingbus.bookingbus.availability;
+
+import com.bookingbus.bookingbus.trip.Trip;
+
+import java.util.List;
+
+public interface AvailabilityCache {
+    /**
+     * Get the seats available between two stops of a trip
+     *
+     * @param trip            trip to travel on
+     * @param originStop      ordinal of the origin stop on the trip
+     * @param destinationStop ordinal of the destination stop on the trip
+     * @return unmodifiable list of available seat numbers, shared between callers
+     */
+    List<String> getAvailableSeats(Trip trip, int originStop, int destinationStop);
+
+    /**
+     * Get a snapshot of the seats available between two stops of a trip
+     *
+     * @param trip            trip to travel on
+     * @param originStop      ordinal of the origin stop on the trip
+     * @param destinationStop ordinal of the destination stop on the trip
+     * @return snapshot of the available seats, shared between callers until the availability changes
+     */
+    AvailabilitySnapshot getAvailability(Trip trip, int originStop, int destinationStop);
+
+    /**
+     * Count the seats available between two stops of a trip without building a snapshot, so frequent
+     * checks do not rebuild the seat list after every seat change
+     *
+     * @param trip            trip to travel on
+     * @param originStop      ordinal of the origin stop on the trip
+     * @param destinationStop ordinal of the destination stop on the trip
+     * @return number of available seats
+     */
+    int getAvailableSeatCount(Trip trip, int originStop, int destinationStop);
+
+    /**
+     * Watch the seats available between two stops of a trip. The listener is called after every change of
+     * the availability and once more when the trip is evicted. It runs on the thread which claimed or released
+     * the seat, so it should only signal the change and read the availability elsewhere.
+     *
+     * @param trip            trip to travel on
+     * @param originStop      ordinal of the origin stop on the trip
+     * @param destinationStop ordinal of the destination stop on the trip
+     * @param listener        listener to call on changes
+     * @return action which stops calling the listener
+     */
+    Runnable watchAvailability(Trip trip, int originStop, int destinationStop, Runnable listener);
+
+    /**
+     * Drop the cached seat lists of a trip removed from the catalog
+     *
+     * @param trip removed trip
+     */
+    void evict(Trip trip);
+
+    /**
+     * Get the number of reads served from the cached seat lists
+     *
+     * @return hit count
+     */
+    long getHitCount();
+
+    /**
+     * Get the number of reads which had to rebuild a seat list
+     *
+     * @return miss count
+     */
+    long getMissCount();
+
+    /**
+     * Get the number of seats scanned while rebuilding seat lists
+     *
+     * @return scanned seat count
+     */
+    long getScannedSeatCount();
+}
@@ -0,0 +1,18 @@
+package com.bookingbus.bookingbus.availability;
+
+import com.bookingbus.bookingbus.trip.Trip;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Available seats between two stops of a trip and the fare of a group of passengers travelling there.
+ */
+@Getter
+@AllArgsConstructor
+public class AvailabilityQuote {
+    private final Trip trip;
+    private final int passengerCount;
+    private final long totalFare;
+    private final double totalPrice;
+    private final AvailabilitySnapshot snapshot;
+}
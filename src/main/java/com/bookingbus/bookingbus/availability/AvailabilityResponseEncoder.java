@@ -0,0 +1,26 @@
+package com.bookingbus.bookingbus.availability;
+
+public interface AvailabilityResponseEncoder {
+    /**
+     * Media type of the binary availability response
+     */
+    String BINARY_MEDIA_TYPE = "application/x-bookingbus-availability";
+
+    /**
+     * Encode an availability quote as the JSON body of the availability and price response
+     *
+     * @param quote     availability quote
+     * @param countOnly true to leave out the available seat numbers
+     * @return JSON body, shared between callers and not to be modified
+     */
+    byte[] encodeJson(AvailabilityQuote quote, boolean countOnly);
+
+    /**
+     * Encode an availability quote in the compact binary format
+     *
+     * @param quote     availability quote
+     * @param countOnly true to leave out the seat bitmap
+     * @return binary body, shared between callers and not to be modified
+     */
+    byte[] encodeBinary(AvailabilityQuote quote, boolean countOnly);
+}
@@ -0,0 +1,74 @@
+package com.bookingbus.bookingbus.availability;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Seats available between two stops of a trip at one version of the availability. A snapshot never changes
+ * once built and is shared between readers until a seat change produces a newer one, so encoded responses
+ * derived from it can be kept on the snapshot and dropped together with it.
+ */
+public class AvailabilitySnapshot {
+    @Getter
+    private final long version;
+    @Getter
+    private final List<String> seatNumbers;
+    private final long[] seatBitmap;
+    private final ConcurrentMap<Integer, EncodedResponse> encodedResponses = new ConcurrentHashMap<>();
+
+    public AvailabilitySnapshot(long version, List<String> seatNumbers, long[] seatBitmap) {
+        this.version = version;
+        this.seatNumbers = seatNumbers;
+        this.seatBitmap = seatBitmap;
+    }
+
+    public int getAvailableSeatCount() {
+        return seatNumbers.size();
+    }
+
+    /**
+     * Check whether a seat is available in this snapshot
+     *
+     * @param seat seat index
+     * @return true if the seat is available
+     */
+    public boolean isAvailable(int seat) {
+        return (seatBitmap[seat >>> 6] & (1L << seat)) != 0;
+    }
+
+    /**
+     * Get a response body previously encoded from this snapshot
+     *
+     * @param key       encoding of the body, such as the format and passenger count
+     * @param totalFare fare the body must have been encoded with
+     * @return the encoded body, or null if none was stored for the key and fare
+     */
+    public byte[] getEncodedResponse(int key, long totalFare) {
+        final EncodedResponse encodedResponse = encodedResponses.get(key);
+        return encodedResponse != null && encodedResponse.totalFare == totalFare ? encodedResponse.body : null;
+    }
+
+    /**
+     * Store a response body encoded from this snapshot, replacing any body stored for the key
+     *
+     * @param key       encoding of the body, such as the format and passenger count
+     * @param totalFare fare the body was encoded with
+     * @param body      encoded body, must not be modified afterwards
+     */
+    public void putEncodedResponse(int key, long totalFare, byte[] body) {
+        encodedResponses.put(key, new EncodedResponse(totalFare, body));
+    }
+
+    private static class EncodedResponse {
+        private final long totalFare;
+        private final byte[] body;
+
+        private EncodedResponse(long totalFare, byte[] body) {
+            this.totalFare = totalFare;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.bookingbus.bookingbus.availability.impl;
+
+import com.bookingbus.bookingbus.availability.AvailabilityQuote;
+import com.bookingbus.bookingbus.availability.AvailabilityResponseEncoder;
+import com.bookingbus.bookingbus.availability.AvailabilitySnapshot;
+import com.bookingbus.bookingbus.dto.AvailabilityAndPriceResponseDTO;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Response encoder keeping every encoded body on the availability snapshot it was built from, keyed by
+ * format and passenger count. Polling an unchanged route returns the stored bytes without touching
+ * Jackson, and the bodies are dropped with the snapshot once a seat changes. A stored body is only reused
+ * when it was encoded with the same fare, so a fare override is picked up without a seat change.
+ * <p>
+ * The binary format is big-endian: a format version byte, a flags byte, the available seat count as an
+ * int and the total fare in minor currency units as a long. Unless only the count was requested, flag
+ * bit 0 is set and the seat layout follows as a row count byte and a seats per row int, then
+ * a bitmap with one bit per seat in seat number order (A1, A2, ... B1, ...), least significant bit first,
+ * where a set bit marks an available seat.
+ */
+@Service
+public class CachingAvailabilityResponseEncoder implements AvailabilityResponseEncoder {
+    static final byte FORMAT_VERSION = 2;
+    static final byte SEAT_BITMAP_FLAG = 1;
+    private static final int HEADER_SIZE = 1 + 1 + 4 + 8;
+    private static final int LAYOUT_SIZE = 1 + 4;
+    private static final int BINARY_KEY = 2;
+    private static final int COUNT_ONLY_KEY = 1;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public CachingAvailabilityResponseEncoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte[] encodeJson(AvailabilityQuote quote, boolean countOnly) {
+        final AvailabilitySnapshot snapshot = quote.getSnapshot();
+        final int key = key(quote, false, countOnly);
+        byte[] body = snapshot.getEncodedResponse(key, quote.getTotalFare());
+        if (body == null) {
+            try {
+                body = objectMapper.writeValueAsBytes(new AvailabilityAndPriceResponseDTO(snapshot.getAvailableSeatCount(),
+                        countOnly ? null : snapshot.getSeatNumbers(), quote.getTotalPrice()));
+            } catch (JsonProcessingException exception) {
+                throw new IllegalStateException("Unable to encode availability response", exception);
+            }
+            snapshot.putEncodedResponse(key, quote.getTotalFare(), body);
+        }
+        return body;
+    }
+
+    @Override
+    public byte[] encodeBinary(AvailabilityQuote quote, boolean countOnly) {
+        final AvailabilitySnapshot snapshot = quote.getSnapshot();
+        final int key = key(quote, true, countOnly);
+        byte[] body = snapshot.getEncodedResponse(key, quote.getTotalFare());
+        if (body == null) {
+            final SeatLayout seatLayout = quote.getTrip().getSeatLayout();
+            final int seatCount = seatLayout.getSeatCount();
+            final ByteBuffer buffer = ByteBuffer.allocate(countOnly ? HEADER_SIZE : HEADER_SIZE + LAYOUT_SIZE + (seatCount + 7) / 8);
+            buffer.put(FORMAT_VERSION).put(countOnly ? 0 : SEAT_BITMAP_FLAG);
+            buffer.putInt(snapshot.getAvailableSeatCount()).putLong(quote.getTotalFare());
+            if (!countOnly) {
+                buffer.put((byte) seatLayout.getRows()).putInt(seatLayout.getSeatsPerRow());
+                final byte[] seatBitmap = new byte[(seatCount + 7) / 8];
+                for (int seat = 0; seat < seatCount; seat++) {
+                    if (snapshot.isAvailable(seat)) {
+                        seatBitmap[seat >>> 3] |= (byte) (1 << (seat & 7));
+                    }
+                }
+                buffer.put(seatBitmap);
+            }
+            body = buffer.array();
+            snapshot.putEncodedResponse(key, quote.getTotalFare(), body);
+        }
+        return body;
+    }
+
+    private static int key(AvailabilityQuote quote, boolean binary, boolean countOnly) {
+        return quote.getPassengerCount() << 2 | (binary ? BINARY_KEY : 0) | (countOnly ? COUNT_ONLY_KEY : 0);
+    }
+}
@@ -0,0 +1,225 @@
+package com.bookingbus.bookingbus.availability.impl;
+
+import com.bookingbus.bookingbus.availability.AvailabilityCache;
+import com.bookingbus.bookingbus.availability.AvailabilitySnapshot;
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import com.bookingbus.bookingbus.trip.Trip;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Availability read model keeping one bitset of available seats per origin and destination pair of a
+ * trip. The view of a trip is built on its first read and then registers itself as the seat change
+ * listener of the trip inventory, so every claim and release flips only the bits of the changed seat
+ * instead of rescanning the inventory. Each pair caches its last snapshot, holding the seat number list
+ * and a copy of the bitset, together with a version, and readers reuse that snapshot without locking
+ * until a seat change bumps the version. Listeners watching a pair are called whenever one of its bits
+ * flips, so watchers are pushed changes instead of polling the snapshot.
+ */
+@Slf4j
+@Service
+public class IncrementalAvailabilityCache implements AvailabilityCache {
+    private final ConcurrentMap<Trip, TripAvailability> tripAvailabilities = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder scannedSeatCount = new LongAdder();
+
+    @Override
+    public List<String> getAvailableSeats(Trip trip, int originStop, int destinationStop) {
+        return getAvailability(trip, originStop, destinationStop).getSeatNumbers();
+    }
+
+    @Override
+    public AvailabilitySnapshot getAvailability(Trip trip, int originStop, int destinationStop) {
+        final long segmentMask = trip.getInventory().segmentMask(originStop, destinationStop);
+        final RouteAvailability routeAvailability = routeAvailability(trip, originStop, destinationStop);
+        final long version = routeAvailability.version.get();
+        final AvailabilitySnapshot snapshot = routeAvailability.snapshot;
+        if (snapshot != null && snapshot.getVersion() == version) {
+            hitCount.increment();
+            return snapshot;
+        }
+        missCount.increment();
+        scannedSeatCount.add(trip.getInventory().getSeatCount());
+        if (log.isDebugEnabled()) {
+            log.debug("Rebuilding available seats of trip {} for segments {}", trip.getTripId(), Long.toBinaryString(segmentMask));
+        }
+        final AvailabilitySnapshot rebuilt = routeAvailability.buildSnapshot(version, trip.getInventory());
+        routeAvailability.snapshot = rebuilt;
+        return rebuilt;
+    }
+
+    @Override
+    public int getAvailableSeatCount(Trip trip, int originStop, int destinationStop) {
+        // Rejects invalid stops the same way as a snapshot read
+        trip.getInventory().segmentMask(originStop, destinationStop);
+        final RouteAvailability routeAvailability = routeAvailability(trip, originStop, destinationStop);
+        final AvailabilitySnapshot snapshot = routeAvailability.snapshot;
+        if (snapshot != null && snapshot.getVersion() == routeAvailability.version.get()) {
+            return snapshot.getAvailableSeatCount();
+        }
+        return routeAvailability.countAvailableSeats();
+    }
+
+    @Override
+    public Runnable watchAvailability(Trip trip, int originStop, int destinationStop, Runnable listener) {
+        // Rejects invalid stops the same way as a snapshot read
+        trip.getInventory().segmentMask(originStop, destinationStop);
+        final RouteAvailability routeAvailability = routeAvailability(trip, originStop, destinationStop);
+        routeAvailability.listeners.add(listener);
+        return () -> routeAvailability.listeners.remove(listener);
+    }
+
+    @Override
+    public void evict(Trip trip) {
+        final TripAvailability tripAvailability = tripAvailabilities.remove(trip);
+        if (tripAvailability != null) {
+            trip.getInventory().setSeatChangeListener(null);
+            for (RouteAvailability routeAvailability : tripAvailability.routeAvailabilities) {
+                if (routeAvailability != null) {
+                    routeAvailability.notifyListeners();
+                }
+            }
+        }
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public long getScannedSeatCount() {
+        return scannedSeatCount.sum();
+    }
+
+    private RouteAvailability routeAvailability(Trip trip, int originStop, int destinationStop) {
+        TripAvailability tripAvailability = tripAvailabilities.get(trip);
+        if (tripAvailability == null) {
+            tripAvailability = tripAvailabilities.computeIfAbsent(trip, TripAvailability::new);
+        }
+        return tripAvailability.routeAvailability(originStop, destinationStop);
+    }
+
+    private static class TripAvailability {
+        private final SeatInventory inventory;
+        private final int stopCount;
+        private final RouteAvailability[] routeAvailabilities;
+
+        private TripAvailability(Trip trip) {
+            this.inventory = trip.getInventory();
+            this.stopCount = inventory.getSegmentCount() + 1;
+            this.routeAvailabilities = new RouteAvailability[stopCount * stopCount];
+            for (int origin = 0; origin < stopCount; origin++) {
+                for (int destination = origin + 1; destination < stopCount; destination++) {
+                    routeAvailabilities[origin * stopCount + destination] =
+                            new RouteAvailability(inventory.segmentMask(origin, destination), inventory.getSeatCount());
+                }
+            }
+            // Register before the initial fill so a seat changed while filling is refreshed again by its listener call
+            inventory.setSeatChangeListener(this::refreshSeat);
+            for (int seat = 0; seat < inventory.getSeatCount(); seat++) {
+                refreshSeat(seat);
+            }
+        }
+
+        private RouteAvailability routeAvailability(int originStop, int destinationStop) {
+            return routeAvailabilities[originStop * stopCount + destinationStop];
+        }
+
+        /**
+         * Recomputes the bits of one seat from its occupied segments, repeating until the occupied
+         * segments stay unchanged across the update so a racing older refresh cannot leave stale bits.
+         */
+        private void refreshSeat(int seat) {
+            long occupied = inventory.getOccupiedSegments(seat);
+            while (true) {
+                for (RouteAvailability routeAvailability : routeAvailabilities) {
+                    if (routeAvailability != null && routeAvailability.setAvailable(seat, (occupied & routeAvailability.segmentMask) == 0)) {
+                        routeAvailability.notifyListeners();
+                    }
+                }
+                final long current = inventory.getOccupiedSegments(seat);
+                if (current == occupied) {
+                    return;
+                }
+                occupied = current;
+            }
+        }
+    }
+
+    private static class RouteAvailability {
+        private final long segmentMask;
+        private final AtomicLongArray availableSeats;
+        private final AtomicLong version = new AtomicLong();
+        private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+        private volatile AvailabilitySnapshot snapshot;
+
+        private RouteAvailability(long segmentMask, int seatCount) {
+            this.segmentMask = segmentMask;
+            this.availableSeats = new AtomicLongArray((seatCount + Long.SIZE - 1) / Long.SIZE);
+        }
+
+        /**
+         * Sets the bit of a seat, returning true if it flipped
+         */
+        private boolean setAvailable(int seat, boolean available) {
+            final int word = seat >>> 6;
+            final long bit = 1L << seat;
+            long bits = availableSeats.get(word);
+            while (((bits & bit) != 0) != available) {
+                final long witness = availableSeats.compareAndExchange(word, bits, available ? bits | bit : bits & ~bit);
+                if (witness == bits) {
+                    version.incrementAndGet();
+                    return true;
+                }
+                bits = witness;
+            }
+            return false;
+        }
+
+        private void notifyListeners() {
+            for (Runnable listener : listeners) {
+                listener.run();
+            }
+        }
+
+        private int countAvailableSeats() {
+            int count = 0;
+            for (int word = 0; word < availableSeats.length(); word++) {
+                count += Long.bitCount(availableSeats.get(word));
+            }
+            return count;
+        }
+
+        private AvailabilitySnapshot buildSnapshot(long version, SeatInventory inventory) {
+            final String[] seatNumbers = new String[inventory.getSeatCount()];
+            final long[] seatBitmap = new long[availableSeats.length()];
+            int count = 0;
+            for (int word = 0; word < availableSeats.length(); word++) {
+                long bits = availableSeats.get(word);
+                seatBitmap[word] = bits;
+                while (bits != 0) {
+                    seatNumbers[count++] = inventory.getSeatNumber(word * Long.SIZE + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+            return new AvailabilitySnapshot(version, Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(seatNumbers, count))), seatBitmap);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.bookingbus.bookingbus.cluster;
+
+import com.bookingbus.bookingbus.dto.ClusterViewDTO;
+
+public interface ClusterMembership {
+    /**
+     * Highest number of nodes in a cluster, bounded by the ticket number range every node issues from
+     */
+    int MAX_NODES = 16;
+
+    /**
+     * Size of the ticket number range of a node. Node {@code i} issues ticket numbers from
+     * {@code i * TICKET_NUMBERS_PER_NODE + 1}, so ticket numbers stay unique when tickets move between nodes.
+     */
+    int TICKET_NUMBERS_PER_NODE = (int) ((Integer.MAX_VALUE + 1L) / MAX_NODES);
+
+    /**
+     * Get the node this application runs as
+     *
+     * @return local node
+     */
+    ClusterNode getLocalNode();
+
+    /**
+     * Find the node owning a trip under the current membership
+     *
+     * @param tripId trip id
+     * @return owning node, the local node when clustering is disabled
+     */
+    ClusterNode getOwner(String tripId);
+
+    /**
+     * Find a member by node index
+     *
+     * @param nodeIndex node index
+     * @return the member, or null if no member with the index has joined
+     */
+    ClusterNode getNode(int nodeIndex);
+
+    /**
+     * Check whether a member answered its last heartbeat within the failure timeout
+     *
+     * @param node member
+     * @return true if the member is reachable
+     */
+    boolean isUp(ClusterNode node);
+
+    /**
+     * Check whether every member is up and has handed over the trips this node owns, so an owned trip which
+     * is not held here is not held anywhere and may be created
+     *
+     * @return true when the placement of trips is settled
+     */
+    boolean isSettled();
+
+    /**
+     * Get the membership as seen by this node
+     *
+     * @return view of every known member
+     */
+    ClusterViewDTO getView();
+
+    /**
+     * Merge the membership seen by another node into this view. Listeners are notified before this returns
+     * when the owners of trips change, so trips owned by a joining node are handed over before it gets the
+     * answer to its first heartbeat.
+     *
+     * @param view membership seen by the sender
+     * @return the merged view of this node
+     */
+    ClusterViewDTO merge(ClusterViewDTO view);
+
+    /**
+     * Register a listener called after the owners of trips changed and after every heartbeat round
+     *
+     * @param listener listener to call
+     */
+    void addMembershipListener(Runnable listener);
+
+    /**
+     * Leave the cluster. Listeners are called once this node no longer owns any trip, so they can hand its
+     * trips over, before the other members are told.
+     */
+    void leave();
+}
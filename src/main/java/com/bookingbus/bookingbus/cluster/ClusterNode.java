@@ -0,0 +1,15 @@
+package com.bookingbus.bookingbus.cluster;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A booking node of the cluster, identified by its configured node index and reached through the base
+ * URL of its API, such as {@code http://localhost:8081/api/v1/bus}.
+ */
+@Getter
+@AllArgsConstructor
+public class ClusterNode {
+    private final int index;
+    private final String url;
+}
@@ -0,0 +1,71 @@
+package com.bookingbus.bookingbus.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Consistent hash ring placing every node at a number of points derived from its node index. A key belongs
+ * to the node of the first point at or after the hash of the key, so adding or removing a node only moves
+ * the keys of the ring arcs that node gains or loses, and every node computes the same owner from the same
+ * set of node indexes without talking to the others. The ring is immutable and a lookup is a binary search
+ * over a sorted array of points.
+ */
+public final class ConsistentHashRing {
+    private final long[] points;
+    private final int[] nodeIndexes;
+
+    public ConsistentHashRing(Collection<Integer> nodes, int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Virtual node count must be positive");
+        }
+        final long[][] entries = new long[nodes.size() * virtualNodes][];
+        int entry = 0;
+        for (int node : nodes) {
+            for (int virtualNode = 0; virtualNode < virtualNodes; virtualNode++) {
+                entries[entry++] = new long[]{hash("node-" + node + "#" + virtualNode), node};
+            }
+        }
+        Arrays.sort(entries, (first, second) -> first[0] != second[0]
+                ? Long.compare(first[0], second[0]) : Long.compare(first[1], second[1]));
+        this.points = new long[entries.length];
+        this.nodeIndexes = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            points[i] = entries[i][0];
+            nodeIndexes[i] = (int) entries[i][1];
+        }
+    }
+
+    /**
+     * Find the node owning a key
+     *
+     * @param key key such as a trip id
+     * @return index of the owning node, or -1 if the ring has no nodes
+     */
+    public int owner(String key) {
+        if (points.length == 0) {
+            return -1;
+        }
+        final int position = Arrays.binarySearch(points, hash(key));
+        final int point = position >= 0 ? position : -position - 1;
+        return nodeIndexes[point == points.length ? 0 : point];
+    }
+
+    public boolean isEmpty() {
+        return points.length == 0;
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes followed by the MurmurHash3 finalizer, so keys differing in one
+     * character land far apart on the ring
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte value : key.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (value & 0xff)) * 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+}
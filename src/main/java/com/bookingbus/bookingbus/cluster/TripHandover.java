@@ -0,0 +1,33 @@
+package com.bookingbus.bookingbus.cluster;
+
+import com.bookingbus.bookingbus.dto.TripTransferDTO;
+
+import java.util.concurrent.locks.StampedLock;
+
+public interface TripHandover {
+    /**
+     * Get the lock of a trip held by this node. Requests served locally hold its read lock until they
+     * complete, and handing the trip over or receiving it takes its write lock, so no booking is made on a
+     * trip while its state is copied. The lock is not owned by a thread, so asynchronous requests can release
+     * it when they complete.
+     *
+     * @param tripId trip id
+     * @return lock of the trip
+     */
+    StampedLock getTripLock(String tripId);
+
+    /**
+     * Recreate a trip handed over by another node with its sold seats and tickets
+     *
+     * @param transfer trip with its sold seats and tickets
+     * @throws IllegalStateException    if this node already holds the trip
+     * @throws IllegalArgumentException if the transfer is invalid or this node is leaving the cluster
+     */
+    void acceptTrip(TripTransferDTO transfer);
+
+    /**
+     * Hand every trip held by this node over to its owner when the owner is another node which is up, then
+     * create the default trips owned by this node once the placement is settled
+     */
+    void rebalance();
+}
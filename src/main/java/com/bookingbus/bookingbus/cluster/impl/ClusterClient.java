@@ -0,0 +1,120 @@
+package com.bookingbus.bookingbus.cluster.impl;
+
+import com.bookingbus.bookingbus.dto.ClusterViewDTO;
+import com.bookingbus.bookingbus.dto.TripTransferDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * HTTP client for the calls between cluster nodes: membership heartbeats, trip handovers and requests
+ * forwarded to the node holding a trip. One JDK client is shared, so connections to every peer are kept
+ * alive between calls.
+ */
+@Service
+@ConditionalOnProperty(value = "booking.cluster.enabled", havingValue = "true")
+public class ClusterClient {
+    /**
+     * Number of times a request was forwarded between nodes, so a node never forwards it again past the limit
+     */
+    public static final String FORWARDED_HEADER = "X-Booking-Forwarded";
+    private static final String CONTENT_TYPE_HEADER = "Content-Type";
+    private static final String ACCEPT_HEADER = "Accept";
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Duration requestTimeout;
+
+    @Autowired
+    public ClusterClient(ObjectMapper objectMapper, @Value("${booking.cluster.request-timeout:5s}") Duration requestTimeout) {
+        this.objectMapper = objectMapper;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(requestTimeout)
+                .build();
+    }
+
+    /**
+     * Send the membership seen by this node to another node and get the membership seen by that node back
+     *
+     * @param baseUrl base URL of the other node
+     * @param view    membership seen by this node
+     * @return membership seen by the other node
+     * @throws IOException if the node cannot be reached or rejects the heartbeat
+     */
+    public ClusterViewDTO exchangeView(String baseUrl, ClusterViewDTO view) throws IOException {
+        final HttpResponse<byte[]> response = send(jsonRequest(baseUrl + "/cluster/heartbeat", view));
+        if (response.statusCode() != 200) {
+            throw new IOException("Heartbeat to " + baseUrl + " failed with status " + response.statusCode());
+        }
+        return objectMapper.readValue(response.body(), ClusterViewDTO.class);
+    }
+
+    /**
+     * Hand a trip over to another node
+     *
+     * @param baseUrl  base URL of the receiving node
+     * @param transfer trip with its sold seats and tickets
+     * @return HTTP status of the answer
+     * @throws IOException if the node cannot be reached
+     */
+    public int transferTrip(String baseUrl, TripTransferDTO transfer) throws IOException {
+        return send(jsonRequest(baseUrl + "/cluster/trips", transfer)).statusCode();
+    }
+
+    /**
+     * Replay a client request on another node
+     *
+     * @param baseUrl     base URL of the node
+     * @param method      HTTP method
+     * @param pathAndQuery path within the application, with the query string if any
+     * @param contentType content type of the body, may be null
+     * @param accept      accepted media types, may be null
+     * @param body        request body, empty if none
+     * @param forwarded   number of times the request has been forwarded including this time
+     * @return answer of the node
+     * @throws IOException if the node cannot be reached
+     */
+    public HttpResponse<byte[]> forward(String baseUrl, String method, String pathAndQuery, String contentType, String accept,
+                                        byte[] body, int forwarded) throws IOException {
+        final HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery))
+                .timeout(requestTimeout)
+                .header(FORWARDED_HEADER, Integer.toString(forwarded))
+                .method(method, body.length == 0 ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(body));
+        if (contentType != null) {
+            builder.header(CONTENT_TYPE_HEADER, contentType);
+        }
+        if (accept != null) {
+            builder.header(ACCEPT_HEADER, accept);
+        }
+        return send(builder.build());
+    }
+
+    private HttpRequest jsonRequest(String url, Object body) throws IOException {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header(CONTENT_TYPE_HEADER, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while calling " + request.uri());
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.bookingbus.bookingbus.cluster.impl;
+
+import com.bookingbus.bookingbus.cluster.ClusterMembership;
+import com.bookingbus.bookingbus.cluster.ClusterNode;
+import com.bookingbus.bookingbus.cluster.TripHandover;
+import com.bookingbus.bookingbus.ticket.TicketIndex;
+import com.bookingbus.bookingbus.ticket.TicketRecord;
+import com.bookingbus.bookingbus.trip.TripCatalog;
+import com.bookingbus.bookingbus.web.BookingRequestTarget;
+import com.bookingbus.bookingbus.web.CachedBodyRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Routes every booking request to the node holding its trip. The trip is found from the trip id, hold id
+ * or ticket number of the request, or from the direction of travel for the default trips. A request for a
+ * trip held here runs under the read lock of the trip, so it cannot be handed over in the middle of a
+ * booking; a request for a trip owned by another node is replayed on that node and its answer copied back,
+ * and the availability stream is redirected instead, as it never completes. A trip owned here which is not
+ * held yet may still be on its way from another node, so such requests are refused with a retry hint until
+ * the placement is settled. Routing runs before admission control, so requests are admitted on the node
+ * holding their trip.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@ConditionalOnProperty(value = "booking.cluster.enabled", havingValue = "true")
+public class ClusterRoutingFilter extends OncePerRequestFilter {
+    private static final int MAX_FORWARDS = 2;
+    private static final String RETRY_AFTER_SECONDS = "1";
+    private static final String TICKETS_PATH = "/booking/tickets/";
+    private static final String TRIPS_PATH = "/trips";
+    private static final String STREAM_PATH = "/reactive/booking/availability/stream";
+    private final ClusterMembership clusterMembership;
+    private final TripHandover tripHandover;
+    private final TripCatalog tripCatalog;
+    private final TicketIndex ticketIndex;
+    private final ClusterClient clusterClient;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ClusterRoutingFilter(ClusterMembership clusterMembership, TripHandover tripHandover, TripCatalog tripCatalog,
+                                TicketIndex ticketIndex, ClusterClient clusterClient, ObjectMapper objectMapper) {
+        this.clusterMembership = clusterMembership;
+        this.tripHandover = tripHandover;
+        this.tripCatalog = tripCatalog;
+        this.ticketIndex = ticketIndex;
+        this.clusterClient = clusterClient;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        final String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith("/booking/") && !path.startsWith("/reactive/booking/")
+                && !path.equals(TRIPS_PATH) && !path.startsWith(TRIPS_PATH + "/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        final CachedBodyRequest routedRequest = CachedBodyRequest.of(request);
+        final String path = routedRequest.getPath();
+        final byte[] body = routedRequest.getBody();
+        final int forwards = forwards(request);
+        final String tripId;
+        if ("DELETE".equals(request.getMethod()) && path.startsWith(TICKETS_PATH)) {
+            final Integer ticketNumber = parseTicketNumber(path.substring(TICKETS_PATH.length()));
+            final TicketRecord ticket = ticketNumber == null ? null : ticketIndex.getTicket(ticketNumber);
+            if (ticket == null) {
+                final ClusterNode issuer = ticketNumber == null ? null : clusterMembership.getNode(ticketNumber / ClusterMembership.TICKET_NUMBERS_PER_NODE);
+                if (issuer != null && !isLocal(issuer) && forwards < MAX_FORWARDS) {
+                    forward(routedRequest, response, issuer, path, body, forwards);
+                } else {
+                    filterChain.doFilter(routedRequest, response);
+                }
+                return;
+            }
+            tripId = ticket.getTripId();
+        } else {
+            tripId = BookingRequestTarget.of(routedRequest, objectMapper).getTripId();
+        }
+        if (tripId == null) {
+            filterChain.doFilter(routedRequest, response);
+            return;
+        }
+        if (path.equals(STREAM_PATH)) {
+            streamAvailability(routedRequest, response, filterChain, tripId, path);
+            return;
+        }
+        if (tripCatalog.getTrip(tripId) != null && serveHeldTrip(routedRequest, response, filterChain, tripId)) {
+            return;
+        }
+        final ClusterNode owner = clusterMembership.getOwner(tripId);
+        if (owner != null && !isLocal(owner) && forwards < MAX_FORWARDS) {
+            forward(routedRequest, response, owner, path, body, forwards);
+        } else if (owner != null && isLocal(owner) && !clusterMembership.isSettled()) {
+            retryLater(response, "Trip " + tripId + " is being moved, please retry");
+        } else {
+            filterChain.doFilter(routedRequest, response);
+        }
+    }
+
+    /**
+     * Serves a request for a trip held here under the read lock of the trip. The lock is released when the
+     * request completes, which is after the filter chain returns for asynchronous requests.
+     *
+     * @return false if the trip was handed over before the lock was taken
+     */
+    private boolean serveHeldTrip(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                                  String tripId) throws ServletException, IOException {
+        final StampedLock lock = tripHandover.getTripLock(tripId);
+        final long stamp = lock.readLock();
+        boolean unlockOnCompletion = false;
+        try {
+            if (tripCatalog.getTrip(tripId) == null) {
+                return false;
+            }
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new UnlockListener(lock, stamp));
+                unlockOnCompletion = true;
+            }
+            return true;
+        } finally {
+            if (!unlockOnCompletion) {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    private void streamAvailability(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                                    String tripId, String path) throws ServletException, IOException {
+        final ClusterNode owner = clusterMembership.getOwner(tripId);
+        if (tripCatalog.getTrip(tripId) == null && owner != null && !isLocal(owner)) {
+            response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            response.setHeader(HttpHeaders.LOCATION, owner.getUrl() + pathAndQuery(request, path));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void forward(HttpServletRequest request, HttpServletResponse response, ClusterNode node, String path, byte[] body,
+                         int forwards) throws IOException {
+        final HttpResponse<byte[]> answer;
+        try {
+            answer = clusterClient.forward(node.getUrl(), request.getMethod(), pathAndQuery(request, path), request.getContentType(),
+                    request.getHeader(HttpHeaders.ACCEPT), body, forwards + 1);
+        } catch (IOException exception) {
+            log.warn("Unable to forward {} {} to node {}: {}", request.getMethod(), path, node.getIndex(), exception.getMessage());
+            retryLater(response, "Node " + node.getIndex() + " is not available, please retry");
+            return;
+        }
+        response.setStatus(answer.statusCode());
+        answer.headers().firstValue(HttpHeaders.CONTENT_TYPE).ifPresent(response::setContentType);
+        answer.headers().firstValue(HttpHeaders.RETRY_AFTER).ifPresent(value -> response.setHeader(HttpHeaders.RETRY_AFTER, value));
+        response.setContentLength(answer.body().length);
+        response.getOutputStream().write(answer.body());
+    }
+
+    private boolean isLocal(ClusterNode node) {
+        return node.getIndex() == clusterMembership.getLocalNode().getIndex();
+    }
+
+    private static void retryLater(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getOutputStream().write(message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Integer parseTicketNumber(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    private static int forwards(HttpServletRequest request) {
+        final String forwarded = request.getHeader(ClusterClient.FORWARDED_HEADER);
+        if (forwarded == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(forwarded);
+        } catch (NumberFormatException exception) {
+            return MAX_FORWARDS;
+        }
+    }
+
+    private static String pathAndQuery(HttpServletRequest request, String path) {
+        return request.getQueryString() == null ? path : path + '?' + request.getQueryString();
+    }
+
+    private static class UnlockListener implements AsyncListener {
+        private final StampedLock lock;
+        private final long stamp;
+
+        UnlockListener(StampedLock lock, long stamp) {
+            this.lock = lock;
+            this.stamp = stamp;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            lock.unlockRead(stamp);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // The container drops listeners on every asynchronous cycle, such as a booking resumed after waiting its turn
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.bookingbus.bookingbus.cluster.impl;
+
+import com.bookingbus.bookingbus.cluster.ClusterMembership;
+import com.bookingbus.bookingbus.cluster.ClusterNode;
+import com.bookingbus.bookingbus.cluster.ConsistentHashRing;
+import com.bookingbus.bookingbus.dto.ClusterMemberDTO;
+import com.bookingbus.bookingbus.dto.ClusterViewDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cluster membership kept by gossip between the nodes, without any coordination service. Every node
+ * sends its view of the members to every other member and to its seed URLs each heartbeat interval, and
+ * merges the view it gets back. A member entry carries the incarnation of the node, its start time, so a
+ * restarted node replaces its old entry, and a left flag which wins over the joined entry of the same
+ * incarnation, so a leave is not undone by a stale view. Trips are placed on a consistent hash ring of the
+ * members which have not left; a member which stops answering stays on the ring and is only reported down,
+ * because its trips cannot be recreated elsewhere without its state. The placement is settled once every
+ * member answered a heartbeat of this node, as a member hands the trips of a joining node over before it
+ * answers. Changes to the members are made under the monitor of the membership, while the members and the
+ * ring are read without locking, so routing a request to the owner of its trip never waits for gossip.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(value = "booking.cluster.enabled", havingValue = "true")
+public class GossipClusterMembership implements ClusterMembership {
+    private final ClusterNode localNode;
+    private final long incarnation;
+    private final List<String> seeds;
+    private final int virtualNodes;
+    private final long heartbeatIntervalMillis;
+    private final long failureTimeoutNanos;
+    private final ClusterClient clusterClient;
+    private final Map<Integer, Member> members = new ConcurrentHashMap<>();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler;
+    private volatile ConsistentHashRing ring;
+    private volatile boolean joined;
+    private volatile boolean leaving;
+
+    @Autowired
+    public GossipClusterMembership(@Value("${booking.cluster.node-index}") int nodeIndex,
+                                   @Value("${booking.cluster.advertised-url}") String advertisedUrl,
+                                   @Value("${booking.cluster.seeds:}") List<String> seeds,
+                                   @Value("${booking.cluster.virtual-nodes:128}") int virtualNodes,
+                                   @Value("${booking.cluster.heartbeat-interval:1s}") Duration heartbeatInterval,
+                                   @Value("${booking.cluster.failure-timeout:5s}") Duration failureTimeout,
+                                   ClusterClient clusterClient) {
+        if (nodeIndex < 0 || nodeIndex >= MAX_NODES) {
+            throw new IllegalArgumentException("Node index must be between 0 and " + (MAX_NODES - 1));
+        }
+        if (advertisedUrl == null || advertisedUrl.isBlank()) {
+            throw new IllegalArgumentException("Advertised URL of the node is required");
+        }
+        this.localNode = new ClusterNode(nodeIndex, trimSlash(advertisedUrl));
+        this.incarnation = System.currentTimeMillis();
+        this.seeds = seeds.stream().filter(seed -> !seed.isBlank()).map(GossipClusterMembership::trimSlash).toList();
+        this.virtualNodes = virtualNodes;
+        this.heartbeatIntervalMillis = heartbeatInterval.toMillis();
+        this.failureTimeoutNanos = failureTimeout.toNanos();
+        this.clusterClient = clusterClient;
+        members.put(nodeIndex, new Member(localNode, incarnation, false, System.nanoTime(), true));
+        rebuildRing();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Joins the cluster once the web server accepts requests, since the members answer the first heartbeat
+     * by handing trips over to this node
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        heartbeatRound();
+        scheduler.scheduleWithFixedDelay(this::heartbeatRoundSafely, heartbeatIntervalMillis, heartbeatIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        log.info("Node {} started at {} with {} seeds", localNode.getIndex(), localNode.getUrl(), seeds.size());
+    }
+
+    @Override
+    public ClusterNode getLocalNode() {
+        return localNode;
+    }
+
+    @Override
+    public ClusterNode getOwner(String tripId) {
+        final int owner = ring.owner(tripId);
+        return owner < 0 ? null : getNode(owner);
+    }
+
+    @Override
+    public ClusterNode getNode(int nodeIndex) {
+        final Member member = members.get(nodeIndex);
+        return member == null || member.left ? null : member.node;
+    }
+
+    @Override
+    public boolean isUp(ClusterNode node) {
+        if (node.getIndex() == localNode.getIndex()) {
+            return !leaving;
+        }
+        final Member member = members.get(node.getIndex());
+        return member != null && !member.left && System.nanoTime() - member.lastSeenNanos < failureTimeoutNanos;
+    }
+
+    @Override
+    public boolean isSettled() {
+        if (!joined || leaving) {
+            return false;
+        }
+        final long now = System.nanoTime();
+        synchronized (this) {
+            for (Member member : members.values()) {
+                if (!member.left && member.node != localNode
+                        && (!member.acknowledged || now - member.lastSeenNanos >= failureTimeoutNanos)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized ClusterViewDTO getView() {
+        final List<ClusterMemberDTO> view = new ArrayList<>(members.size());
+        for (Member member : members.values()) {
+            view.add(new ClusterMemberDTO(member.node.getIndex(), member.node.getUrl(), member.incarnation, member.left));
+        }
+        return new ClusterViewDTO(localNode.getIndex(), view);
+    }
+
+    @Override
+    public ClusterViewDTO merge(ClusterViewDTO view) {
+        boolean changed = false;
+        synchronized (this) {
+            if (view.getMembers() != null) {
+                for (ClusterMemberDTO member : view.getMembers()) {
+                    changed |= mergeMember(member);
+                }
+            }
+            final Member sender = view.getSenderIndex() == null ? null : members.get(view.getSenderIndex());
+            if (sender != null && sender != members.get(localNode.getIndex())) {
+                sender.lastSeenNanos = System.nanoTime();
+            }
+            if (changed) {
+                rebuildRing();
+            }
+        }
+        if (changed) {
+            notifyListeners();
+        }
+        return getView();
+    }
+
+    @Override
+    public void addMembershipListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void leave() {
+        synchronized (this) {
+            if (leaving) {
+                return;
+            }
+            leaving = true;
+            members.get(localNode.getIndex()).left = true;
+            rebuildRing();
+        }
+        scheduler.shutdownNow();
+        notifyListeners();
+        final ClusterViewDTO view = getView();
+        for (ClusterNode node : otherMembers()) {
+            try {
+                clusterClient.exchangeView(node.getUrl(), view);
+            } catch (IOException | RuntimeException exception) {
+                log.warn("Unable to tell node {} that node {} leaves: {}", node.getIndex(), localNode.getIndex(), exception.getMessage());
+            }
+        }
+        log.info("Node {} left the cluster", localNode.getIndex());
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Exchanges views with every member and with the seeds not known as members yet, marking every member
+     * which answers as up, then lets the listeners retry anything which failed before
+     */
+    void heartbeatRound() {
+        if (leaving) {
+            return;
+        }
+        final ClusterViewDTO view = getView();
+        final Set<String> contacted = new HashSet<>();
+        for (ClusterNode node : otherMembers()) {
+            contacted.add(node.getUrl());
+            exchangeView(node.getUrl(), view);
+        }
+        boolean seedAnswered = false;
+        for (String seed : seeds) {
+            if (!seed.equals(localNode.getUrl()) && !contacted.contains(seed)) {
+                seedAnswered |= exchangeView(seed, view);
+            }
+        }
+        if (!joined && (seedAnswered || otherMembers().isEmpty() && seeds.stream().allMatch(localNode.getUrl()::equals))) {
+            joined = true;
+            log.info("Node {} joined the cluster", localNode.getIndex());
+        }
+        notifyListeners();
+    }
+
+    private boolean exchangeView(String url, ClusterViewDTO view) {
+        try {
+            final ClusterViewDTO answer = clusterClient.exchangeView(url, view);
+            merge(answer);
+            synchronized (this) {
+                final Member member = answer.getSenderIndex() == null ? null : members.get(answer.getSenderIndex());
+                if (member != null && member.node.getIndex() != localNode.getIndex()) {
+                    member.lastSeenNanos = System.nanoTime();
+                    member.acknowledged = true;
+                }
+            }
+            return true;
+        } catch (IOException | RuntimeException exception) {
+            log.debug("Heartbeat to {} failed: {}", url, exception.getMessage());
+            return false;
+        }
+    }
+
+    private void heartbeatRoundSafely() {
+        try {
+            heartbeatRound();
+        } catch (RuntimeException exception) {
+            log.error("Error in cluster heartbeat: {}", exception.getMessage());
+        }
+    }
+
+    private boolean mergeMember(ClusterMemberDTO member) {
+        if (member.getIndex() == null || member.getIndex() < 0 || member.getIndex() >= MAX_NODES
+                || member.getUrl() == null || member.getIncarnation() == null) {
+            return false;
+        }
+        if (member.getIndex() == localNode.getIndex()) {
+            if (!member.getUrl().equals(localNode.getUrl())) {
+                log.warn("Node {} is also configured at {}", localNode.getIndex(), member.getUrl());
+            }
+            return false;
+        }
+        final Member existing = members.get(member.getIndex());
+        if (existing != null && (member.getIncarnation() < existing.incarnation
+                || member.getIncarnation() == existing.incarnation && (existing.left || !member.isLeft()))) {
+            return false;
+        }
+        members.put(member.getIndex(), new Member(new ClusterNode(member.getIndex(), trimSlash(member.getUrl())),
+                member.getIncarnation(), member.isLeft(), System.nanoTime(), false));
+        log.info("Node {} at {} {} the cluster", member.getIndex(), member.getUrl(), member.isLeft() ? "left" : "joined");
+        return true;
+    }
+
+    private void rebuildRing() {
+        final List<Integer> nodes = new ArrayList<>();
+        for (Member member : members.values()) {
+            if (!member.left) {
+                nodes.add(member.node.getIndex());
+            }
+        }
+        ring = new ConsistentHashRing(nodes, virtualNodes);
+    }
+
+    private synchronized List<ClusterNode> otherMembers() {
+        final List<ClusterNode> nodes = new ArrayList<>();
+        for (Member member : members.values()) {
+            if (!member.left && member.node.getIndex() != localNode.getIndex()) {
+                nodes.add(member.node);
+            }
+        }
+        return nodes;
+    }
+
+    private void notifyListeners() {
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException exception) {
+                log.error("Error in cluster membership listener: {}", exception.getMessage());
+            }
+        }
+    }
+
+    private static String trimSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    @AllArgsConstructor
+    private static class Member {
+        private final ClusterNode node;
+        private final long incarnation;
+        private volatile boolean left;
+        private volatile long lastSeenNanos;
+        private boolean acknowledged;
+    }
+}
@@ -0,0 +1,124 @@
+package com.bookingbus.bookingbus.cluster.impl;
+
+import com.bookingbus.bookingbus.cluster.ClusterMembership;
+import com.bookingbus.bookingbus.cluster.ClusterNode;
+import com.bookingbus.bookingbus.cluster.TripHandover;
+import com.bookingbus.bookingbus.dto.TripTransferDTO;
+import com.bookingbus.bookingbus.service.BookingService;
+import com.bookingbus.bookingbus.trip.Trip;
+import com.bookingbus.bookingbus.trip.TripCatalog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Moves trips between nodes over HTTP whenever the membership changes. A trip is handed over under its
+ * write lock: its holds are released, its seats and tickets are copied and posted to the new owner, and
+ * only once the owner has stored them is the trip removed here, so a trip is held by one node at a time
+ * and a failed handover leaves it where it was until the next heartbeat round. A node leaving the cluster
+ * hands all its trips over before it stops. Fare overrides are not moved, as they are not journalled either.
+ * When the owner already holds the trip, a copy without tickets is dropped, but a copy with tickets is kept
+ * and reported, as dropping it would let the owner resell seats which were sold here.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(value = "booking.cluster.enabled", havingValue = "true")
+public class HttpTripHandover implements TripHandover {
+    private final BookingService bookingService;
+    private final TripCatalog tripCatalog;
+    private final ClusterMembership clusterMembership;
+    private final ClusterClient clusterClient;
+    private final ConcurrentMap<String, StampedLock> tripLocks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public HttpTripHandover(BookingService bookingService, TripCatalog tripCatalog, ClusterMembership clusterMembership,
+                            ClusterClient clusterClient) {
+        this.bookingService = bookingService;
+        this.tripCatalog = tripCatalog;
+        this.clusterMembership = clusterMembership;
+        this.clusterClient = clusterClient;
+        clusterMembership.addMembershipListener(this::rebalance);
+    }
+
+    @Override
+    public StampedLock getTripLock(String tripId) {
+        return tripLocks.computeIfAbsent(tripId, key -> new StampedLock());
+    }
+
+    @Override
+    public void acceptTrip(TripTransferDTO transfer) {
+        if (transfer == null || transfer.getTripId() == null) {
+            throw new IllegalArgumentException("Invalid trip transfer");
+        }
+        if (!clusterMembership.isUp(clusterMembership.getLocalNode())) {
+            throw new IllegalArgumentException("Node " + clusterMembership.getLocalNode().getIndex() + " is leaving the cluster");
+        }
+        final StampedLock lock = getTripLock(transfer.getTripId());
+        final long stamp = lock.writeLock();
+        try {
+            bookingService.importTrip(transfer);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        log.info("Trip {} received with {} tickets", transfer.getTripId(), transfer.getTickets() == null ? 0 : transfer.getTickets().size());
+    }
+
+    @Override
+    public synchronized void rebalance() {
+        final ClusterNode localNode = clusterMembership.getLocalNode();
+        final List<Trip> trips = new ArrayList<>(tripCatalog.getTrips());
+        for (Trip trip : trips) {
+            final ClusterNode owner = clusterMembership.getOwner(trip.getTripId());
+            if (owner != null && owner.getIndex() != localNode.getIndex() && clusterMembership.isUp(owner)) {
+                handOver(trip.getTripId(), owner);
+            }
+        }
+        bookingService.createDefaultTrips();
+    }
+
+    @PreDestroy
+    public void close() {
+        clusterMembership.leave();
+    }
+
+    private void handOver(String tripId, ClusterNode owner) {
+        final StampedLock lock = getTripLock(tripId);
+        final long stamp = lock.writeLock();
+        try {
+            if (tripCatalog.getTrip(tripId) == null) {
+                return;
+            }
+            final TripTransferDTO transfer = bookingService.exportTrip(tripId);
+            final int status = clusterClient.transferTrip(owner.getUrl(), transfer);
+            if (status == HttpStatus.CONFLICT.value()) {
+                if (!transfer.getTickets().isEmpty() || tripCatalog.getTrip(tripId).getInventory().getOccupiedSegmentCount() > 0) {
+                    log.error("Node {} already holds trip {}, keeping the copy of node {} with {} tickets, which must be merged by hand",
+                            owner.getIndex(), tripId, clusterMembership.getLocalNode().getIndex(), transfer.getTickets().size());
+                    return;
+                }
+                log.warn("Node {} already holds trip {}, dropping the unsold copy of node {}", owner.getIndex(), tripId,
+                        clusterMembership.getLocalNode().getIndex());
+            } else if (!HttpStatus.valueOf(status).is2xxSuccessful()) {
+                log.warn("Node {} refused trip {} with status {}", owner.getIndex(), tripId, status);
+                return;
+            }
+            bookingService.removeTrip(tripId);
+            tripLocks.remove(tripId, lock);
+            log.info("Trip {} handed over to node {} with {} tickets", tripId, owner.getIndex(), transfer.getTickets().size());
+        } catch (IOException | RuntimeException exception) {
+            log.warn("Unable to hand trip {} over to node {}: {}", tripId, owner.getIndex(), exception.toString());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+}
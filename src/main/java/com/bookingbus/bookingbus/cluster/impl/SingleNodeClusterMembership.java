@@ -0,0 +1,63 @@
+package com.bookingbus.bookingbus.cluster.impl;
+
+import com.bookingbus.bookingbus.cluster.ClusterMembership;
+import com.bookingbus.bookingbus.cluster.ClusterNode;
+import com.bookingbus.bookingbus.dto.ClusterMemberDTO;
+import com.bookingbus.bookingbus.dto.ClusterViewDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Membership of an application running on its own, which owns every trip and issues ticket numbers from
+ * the first range.
+ */
+@Service
+@ConditionalOnProperty(value = "booking.cluster.enabled", havingValue = "false", matchIfMissing = true)
+public class SingleNodeClusterMembership implements ClusterMembership {
+    private final ClusterNode localNode = new ClusterNode(0, null);
+
+    @Override
+    public ClusterNode getLocalNode() {
+        return localNode;
+    }
+
+    @Override
+    public ClusterNode getOwner(String tripId) {
+        return localNode;
+    }
+
+    @Override
+    public ClusterNode getNode(int nodeIndex) {
+        return nodeIndex == localNode.getIndex() ? localNode : null;
+    }
+
+    @Override
+    public boolean isUp(ClusterNode node) {
+        return true;
+    }
+
+    @Override
+    public boolean isSettled() {
+        return true;
+    }
+
+    @Override
+    public ClusterViewDTO getView() {
+        return new ClusterViewDTO(localNode.getIndex(), List.of(new ClusterMemberDTO(localNode.getIndex(), null, 0L, false)));
+    }
+
+    @Override
+    public ClusterViewDTO merge(ClusterViewDTO view) {
+        throw new IllegalStateException("Clustering is disabled");
+    }
+
+    @Override
+    public void addMembershipListener(Runnable listener) {
+    }
+
+    @Override
+    public void leave() {
+    }
+}
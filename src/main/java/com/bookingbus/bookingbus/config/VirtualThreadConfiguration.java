@@ -0,0 +1,55 @@
+package com.bookingbus.bookingbus.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs Tomcat request handling on a virtual thread per request instead of the platform thread pool
+ * when {@code booking.threads.virtual.enabled} is set. The project still compiles for Java 17, so the
+ * Java 21 thread APIs are looked up reflectively and startup fails if the runtime does not have them.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(value = "booking.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+    private static final String THREAD_NAME_PREFIX = "booking-vt-";
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadRequestExecutor() {
+        return newVirtualThreadPerTaskExecutor(THREAD_NAME_PREFIX);
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadRequestExecutor) {
+        log.info("Tomcat requests will be handled on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadRequestExecutor);
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    static ExecutorService newVirtualThreadPerTaskExecutor(String threadNamePrefix) {
+        if (!isVirtualThreadSupported()) {
+            throw new IllegalStateException("Virtual threads require Java 21 or later, running on " + Runtime.version());
+        }
+        try {
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builderType.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 0L);
+            final ThreadFactory threadFactory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            final Method executorFactory = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) executorFactory.invoke(null, threadFactory);
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("Unable to create virtual thread executor", exception);
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package com.bookingbus.bookingbus.controller;
 
-import com.bookingbus.bookingbus.dto.AvailabilityAndPriceResponseDTO;
+import com.bookingbus.bookingbus.availability.AvailabilityQuote;
+import com.bookingbus.bookingbus.availability.AvailabilityResponseEncoder;
+import com.bookingbus.bookingbus.dto.BatchReservationRequestDTO;
+import com.bookingbus.bookingbus.dto.BatchReservationResponseDTO;
+import com.bookingbus.bookingbus.dto.HoldConfirmationDTO;
+import com.bookingbus.bookingbus.dto.SeatHoldResponseDTO;
+import com.bookingbus.bookingbus.dto.TicketCancellationResponseDTO;
 import com.bookingbus.bookingbus.dto.TicketReservationRequestDTO;
 import com.bookingbus.bookingbus.dto.TicketReservationResponseDTO;
 import com.bookingbus.bookingbus.service.BookingService;
@@ -9,7 +15,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -21,32 +29,61 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping(value = "/booking")
 public class BookingController {
     private final BookingService bookingService;
+    private final AvailabilityResponseEncoder availabilityResponseEncoder;
 
     @Autowired
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, AvailabilityResponseEncoder availabilityResponseEncoder) {
         this.bookingService = bookingService;
+        this.availabilityResponseEncoder = availabilityResponseEncoder;
     }
 
     @GetMapping(value = "/availability-and-price")
     public ResponseEntity<?> checkAvailabilityAndPrice(
             @RequestParam Integer numberOfPassengers,
             @RequestParam Character origin,
-            @RequestParam Character destination
+            @RequestParam Character destination,
+            @RequestParam(required = false) String tripId,
+            @RequestParam(defaultValue = "false") boolean countOnly
     ) {
         try {
-            log.info("Start:- Checking availability and price for {} passengers from {} to {}", numberOfPassengers, origin, destination);
-            final AvailabilityAndPriceResponseDTO responseDTO = bookingService.checkAvailabilityAndPrice(numberOfPassengers, origin, destination);
-            return new ResponseEntity<>(responseDTO, HttpStatus.OK);
+            if (log.isDebugEnabled()) {
+                log.debug("Start:- Checking availability and price on trip {} for {} passengers from {} to {}", tripId, numberOfPassengers, origin, destination);
+            }
+            final AvailabilityQuote quote = bookingService.quoteAvailability(tripId, numberOfPassengers, origin, destination);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(availabilityResponseEncoder.encodeJson(quote, countOnly));
         } catch (Exception exception) {
             log.error("Error checking availability and price: {}", exception.getMessage());
             return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
         }
     }
 
+    @GetMapping(value = "/availability-and-price", produces = AvailabilityResponseEncoder.BINARY_MEDIA_TYPE)
+    public ResponseEntity<?> checkAvailabilityAndPriceBinary(
+            @RequestParam Integer numberOfPassengers,
+            @RequestParam Character origin,
+            @RequestParam Character destination,
+            @RequestParam(required = false) String tripId,
+            @RequestParam(defaultValue = "false") boolean countOnly
+    ) {
+        try {
+            if (log.isDebugEnabled()) {
+                log.debug("Start:- Checking binary availability and price on trip {} for {} passengers from {} to {}", tripId, numberOfPassengers, origin, destination);
+            }
+            final AvailabilityQuote quote = bookingService.quoteAvailability(tripId, numberOfPassengers, origin, destination);
+            return ResponseEntity.ok().body(availabilityResponseEncoder.encodeBinary(quote, countOnly));
+        } catch (Exception exception) {
+            log.error("Error checking availability and price: {}", exception.getMessage());
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(exception.getMessage());
+        }
+    }
+
     @PostMapping(value = "/tickets", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<?> reserveTickets(@RequestBody TicketReservationRequestDTO ticketReservationRequestDTO) {
         try {
-            log.info("Start:- Reserving tickets for request: {}", ticketReservationRequestDTO);
+            if (log.isDebugEnabled()) {
+                log.debug("Start:- Reserving {} tickets on trip {} from {} to {}", ticketReservationRequestDTO.getPassengerCount(),
+                        ticketReservationRequestDTO.getTripId(), ticketReservationRequestDTO.getOrigin(), ticketReservationRequestDTO.getDestination());
+            }
             final TicketReservationResponseDTO responseDTO = bookingService.reserveTickets(ticketReservationRequestDTO);
             return new ResponseEntity<>(responseDTO, HttpStatus.OK);
         } catch (Exception exception) {
@@ -54,4 +91,70 @@ public class BookingController {
             return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
         }
     }
+
+    @DeleteMapping(value = "/tickets/{ticketNumber}")
+    public ResponseEntity<?> cancelTicket(@PathVariable Integer ticketNumber) {
+        try {
+            log.debug("Start:- Cancelling ticket {}", ticketNumber);
+            final TicketCancellationResponseDTO responseDTO = bookingService.cancelTicket(ticketNumber);
+            return new ResponseEntity<>(responseDTO, HttpStatus.OK);
+        } catch (Exception exception) {
+            log.error("Error cancelling ticket: {}", exception.getMessage());
+            return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping(value = "/tickets/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> reserveTicketsInBatch(@RequestBody BatchReservationRequestDTO batchRequestDTO) {
+        try {
+            if (log.isDebugEnabled()) {
+                log.debug("Start:- Reserving tickets for a batch of {} requests",
+                        batchRequestDTO.getReservations() == null ? 0 : batchRequestDTO.getReservations().size());
+            }
+            final BatchReservationResponseDTO responseDTO = bookingService.reserveTicketsInBatch(batchRequestDTO);
+            return new ResponseEntity<>(responseDTO, HttpStatus.OK);
+        } catch (Exception exception) {
+            log.error("Error reserving tickets in batch: {}", exception.getMessage());
+            return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping(value = "/holds", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> holdSeats(@RequestBody TicketReservationRequestDTO ticketReservationRequestDTO) {
+        try {
+            if (log.isDebugEnabled()) {
+                log.debug("Start:- Holding {} seats on trip {} from {} to {}", ticketReservationRequestDTO.getPassengerCount(),
+                        ticketReservationRequestDTO.getTripId(), ticketReservationRequestDTO.getOrigin(), ticketReservationRequestDTO.getDestination());
+            }
+            final SeatHoldResponseDTO responseDTO = bookingService.holdSeats(ticketReservationRequestDTO);
+            return new ResponseEntity<>(responseDTO, HttpStatus.CREATED);
+        } catch (Exception exception) {
+            log.error("Error holding seats: {}", exception.getMessage());
+            return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping(value = "/holds/{holdId}/confirm", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> confirmHold(@PathVariable String holdId, @RequestBody HoldConfirmationDTO confirmationDTO) {
+        try {
+            log.debug("Start:- Confirming hold {}", holdId);
+            final TicketReservationResponseDTO responseDTO = bookingService.confirmHold(holdId, confirmationDTO);
+            return new ResponseEntity<>(responseDTO, HttpStatus.OK);
+        } catch (Exception exception) {
+            log.error("Error confirming hold: {}", exception.getMessage());
+            return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @DeleteMapping(value = "/holds/{holdId}")
+    public ResponseEntity<?> releaseHold(@PathVariable String holdId) {
+        try {
+            log.debug("Start:- Releasing hold {}", holdId);
+            bookingService.releaseHold(holdId);
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (Exception exception) {
+            log.error("Error releasing hold: {}", exception.getMessage());
+            return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
 }
@@ -0,0 +1,57 @@
+package com.bookingbus.bookingbus.controller;
+
+import com.bookingbus.bookingbus.cluster.ClusterMembership;
+import com.bookingbus.bookingbus.cluster.TripHandover;
+import com.bookingbus.bookingbus.dto.ClusterViewDTO;
+import com.bookingbus.bookingbus.dto.TripTransferDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping(value = "/cluster")
+@ConditionalOnProperty(value = "booking.cluster.enabled", havingValue = "true")
+public class ClusterController {
+    private final ClusterMembership clusterMembership;
+    private final TripHandover tripHandover;
+
+    @Autowired
+    public ClusterController(ClusterMembership clusterMembership, TripHandover tripHandover) {
+        this.clusterMembership = clusterMembership;
+        this.tripHandover = tripHandover;
+    }
+
+    @PostMapping(value = "/heartbeat", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ClusterViewDTO> heartbeat(@RequestBody ClusterViewDTO view) {
+        return new ResponseEntity<>(clusterMembership.merge(view), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/members")
+    public ResponseEntity<ClusterViewDTO> getMembers() {
+        return new ResponseEntity<>(clusterMembership.getView(), HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/trips", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> acceptTrip(@RequestBody TripTransferDTO transfer) {
+        try {
+            log.debug("Start:- Accepting trip {}", transfer.getTripId());
+            tripHandover.acceptTrip(transfer);
+            return new ResponseEntity<>(HttpStatus.CREATED);
+        } catch (IllegalStateException exception) {
+            log.warn("Trip {} not accepted: {}", transfer.getTripId(), exception.getMessage());
+            return new ResponseEntity<>(exception.getMessage(), HttpStatus.CONFLICT);
+        } catch (Exception exception) {
+            log.error("Error accepting trip: {}", exception.getMessage());
+            return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.bookingbus.bookingbus.controller;
+
+import com.bookingbus.bookingbus.dto.TicketReservationRequestDTO;
+import com.bookingbus.bookingbus.service.ReactiveBookingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@RestController
+@RequestMapping(value = "/reactive/booking")
+public class ReactiveBookingController {
+    private static final String AVAILABILITY_EVENT = "availability";
+    private static final String ERROR_EVENT = "error";
+    private final ReactiveBookingService reactiveBookingService;
+
+    @Autowired
+    public ReactiveBookingController(ReactiveBookingService reactiveBookingService) {
+        this.reactiveBookingService = reactiveBookingService;
+    }
+
+    @GetMapping(value = "/availability-and-price")
+    public Mono<ResponseEntity<?>> checkAvailabilityAndPrice(
+            @RequestParam Integer numberOfPassengers,
+            @RequestParam Character origin,
+            @RequestParam Character destination,
+            @RequestParam(required = false) String tripId
+    ) {
+        return reactiveBookingService.checkAvailabilityAndPrice(tripId, numberOfPassengers, origin, destination)
+                .<ResponseEntity<?>>map(responseDTO -> new ResponseEntity<>(responseDTO, HttpStatus.OK))
+                .onErrorResume(exception -> {
+                    log.error("Error checking availability and price: {}", exception.getMessage());
+                    return Mono.just(new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST));
+                });
+    }
+
+    @PostMapping(value = "/tickets", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<?>> reserveTickets(@RequestBody TicketReservationRequestDTO ticketReservationRequestDTO) {
+        return reactiveBookingService.reserveTickets(ticketReservationRequestDTO)
+                .<ResponseEntity<?>>map(responseDTO -> new ResponseEntity<>(responseDTO, HttpStatus.OK))
+                .onErrorResume(exception -> {
+                    log.error("Error reserving tickets: {}", exception.getMessage());
+                    return Mono.just(new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST));
+                });
+    }
+
+    @GetMapping(value = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<?>> streamAvailability(
+            @RequestParam Character origin,
+            @RequestParam Character destination,
+            @RequestParam(required = false) String tripId
+    ) {
+        log.debug("Start:- Streaming availability on trip {} from {} to {}", tripId, origin, destination);
+        return reactiveBookingService.streamAvailability(tripId, origin, destination)
+                .<ServerSentEvent<?>>map(update -> ServerSentEvent.builder(update).event(AVAILABILITY_EVENT).build())
+                .onErrorResume(exception -> {
+                    log.error("Error streaming availability: {}", exception.getMessage());
+                    return Mono.just(ServerSentEvent.builder(exception.getMessage()).event(ERROR_EVENT).build());
+                });
+    }
+}
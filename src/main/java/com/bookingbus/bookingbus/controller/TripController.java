@@ -0,0 +1,84 @@
+package com.bookingbus.bookingbus.controller;
+
+import com.bookingbus.bookingbus.dto.FareDTO;
+import com.bookingbus.bookingbus.dto.TripDTO;
+import com.bookingbus.bookingbus.pricing.PricingEngine;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.Trip;
+import com.bookingbus.bookingbus.trip.TripCatalog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping(value = "/trips")
+public class TripController {
+    private static final double MINOR_UNITS_PER_UNIT = 100.0;
+    private final TripCatalog tripCatalog;
+    private final PricingEngine pricingEngine;
+
+    @Autowired
+    public TripController(TripCatalog tripCatalog, PricingEngine pricingEngine) {
+        this.tripCatalog = tripCatalog;
+        this.pricingEngine = pricingEngine;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> addTrip(@RequestBody TripDTO tripDTO) {
+        try {
+            log.info("Start:- Adding trip {} for route {}", tripDTO.getTripId(), tripDTO.getStops());
+            if (tripDTO.getSeatRows() == null || tripDTO.getSeatsPerRow() == null) {
+                throw new IllegalArgumentException("Invalid seat layout");
+            }
+            final Trip trip = tripCatalog.addTrip(tripDTO.getTripId(), tripDTO.getStops(), tripDTO.getDepartureTime(),
+                    new SeatLayout(tripDTO.getSeatRows(), tripDTO.getSeatsPerRow()));
+            return new ResponseEntity<>(toTripDTO(trip), HttpStatus.CREATED);
+        } catch (Exception exception) {
+            log.error("Error adding trip: {}", exception.getMessage());
+            return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping(value = "/{tripId}")
+    public ResponseEntity<?> getTrip(@PathVariable String tripId) {
+        final Trip trip = tripCatalog.getTrip(tripId);
+        if (trip == null) {
+            return new ResponseEntity<>("Invalid trip", HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(toTripDTO(trip), HttpStatus.OK);
+    }
+
+    @PutMapping(value = "/{tripId}/fares", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> overrideFare(@PathVariable String tripId, @RequestBody FareDTO fareDTO) {
+        try {
+            log.info("Start:- Overriding fare from {} to {} on trip {}", fareDTO.getOrigin(), fareDTO.getDestination(), tripId);
+            final Trip trip = tripCatalog.getTrip(tripId);
+            if (trip == null) {
+                return new ResponseEntity<>("Invalid trip", HttpStatus.NOT_FOUND);
+            }
+            if (fareDTO.getOrigin() == null || fareDTO.getDestination() == null || fareDTO.getFare() == null) {
+                throw new IllegalArgumentException("Invalid fare");
+            }
+            pricingEngine.overrideFare(trip, fareDTO.getOrigin(), fareDTO.getDestination(), Math.round(fareDTO.getFare() * MINOR_UNITS_PER_UNIT));
+            return new ResponseEntity<>(fareDTO, HttpStatus.OK);
+        } catch (Exception exception) {
+            log.error("Error overriding fare: {}", exception.getMessage());
+            return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private TripDTO toTripDTO(Trip trip) {
+        return new TripDTO(trip.getTripId(), trip.getStops(), trip.getDepartureTime(),
+                trip.getSeatLayout().getRows(), trip.getSeatLayout().getSeatsPerRow());
+    }
+}
@@ -1,5 +1,6 @@
 package com.bookingbus.bookingbus.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -11,6 +12,7 @@ import java.util.List;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class AvailabilityAndPriceResponseDTO {
     private Integer availableSeatCount;
     private List<String> availableSeats;
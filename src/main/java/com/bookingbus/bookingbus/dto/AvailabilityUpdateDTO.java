@@ -0,0 +1,20 @@
+package com.bookingbus.bookingbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityUpdateDTO {
+    private String tripId;
+    private Character origin;
+    private Character destination;
+    private Integer availableSeatCount;
+    private List<String> availableSeats;
+}
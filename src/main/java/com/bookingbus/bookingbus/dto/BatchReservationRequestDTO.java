@@ -0,0 +1,17 @@
+package com.bookingbus.bookingbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchReservationRequestDTO {
+    private List<TicketReservationRequestDTO> reservations;
+    private boolean allOrNothing;
+}
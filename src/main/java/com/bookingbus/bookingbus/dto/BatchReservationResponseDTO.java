@@ -0,0 +1,18 @@
+package com.bookingbus.bookingbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchReservationResponseDTO {
+    private Integer reservedCount;
+    private Integer failedCount;
+    private List<BatchReservationResultDTO> results;
+}
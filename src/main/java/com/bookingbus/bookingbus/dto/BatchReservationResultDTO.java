@@ -0,0 +1,17 @@
+package com.bookingbus.bookingbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchReservationResultDTO {
+    private Integer index;
+    private boolean reserved;
+    private TicketReservationResponseDTO reservation;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package com.bookingbus.bookingbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterMemberDTO {
+    private Integer index;
+    private String url;
+    private Long incarnation;
+    private boolean left;
+}
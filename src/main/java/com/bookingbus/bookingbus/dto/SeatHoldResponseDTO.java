@@ -0,0 +1,23 @@
+package com.bookingbus.bookingbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHoldResponseDTO {
+    private String holdId;
+    private String tripId;
+    private List<String> seatNumbers;
+    private Character origin;
+    private Character destination;
+    private Double totalPrice;
+    private Instant expiresAt;
+}
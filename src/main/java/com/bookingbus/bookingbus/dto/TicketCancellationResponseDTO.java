@@ -0,0 +1,19 @@
+package com.bookingbus.bookingbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketCancellationResponseDTO {
+    private Integer ticketNumber;
+    private String tripId;
+    private String seatNumber;
+    private Character origin;
+    private Character destination;
+    private Double refundAmount;
+}
@@ -10,6 +10,7 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 public class TicketReservationRequestDTO {
+    private String tripId;
     private Integer passengerCount;
     private Character origin;
     private Character destination;
@@ -12,6 +12,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class TicketReservationResponseDTO {
+    private String tripId;
     private List<Integer> ticketNumbers;
     private List<String> seatNumbers;
     private Character origin;
@@ -9,9 +9,10 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class ReservationDTO {
+public class TicketTransferDTO {
     private Integer ticketNumber;
-    private String seatNumber;
-    private char origin;
-    private char destination;
+    private Integer seat;
+    private Long segmentMask;
+    private Long fare;
+    private boolean cancelled;
 }
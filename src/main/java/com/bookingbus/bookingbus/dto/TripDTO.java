@@ -0,0 +1,20 @@
+package com.bookingbus.bookingbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TripDTO {
+    private String tripId;
+    private String stops;
+    private LocalDateTime departureTime;
+    private Integer seatRows;
+    private Integer seatsPerRow;
+}
@@ -0,0 +1,23 @@
+package com.bookingbus.bookingbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TripTransferDTO {
+    private String tripId;
+    private String stops;
+    private LocalDateTime departureTime;
+    private Integer seatRows;
+    private Integer seatsPerRow;
+    private long[] occupiedSegments;
+    private List<TicketTransferDTO> tickets;
+}
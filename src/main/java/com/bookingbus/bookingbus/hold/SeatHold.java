@@ -0,0 +1,41 @@
+package com.bookingbus.bookingbus.hold;
+
+import com.bookingbus.bookingbus.trip.Trip;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Seats claimed on the inventory of a trip which are not ticketed yet. The seats stay claimed until the
+ * hold is confirmed, released or expires. Hold ids start with the trip id, so a request for a hold can be
+ * routed to the node holding its trip.
+ */
+@Getter
+@AllArgsConstructor
+public class SeatHold {
+    private static final char HOLD_ID_SEPARATOR = ':';
+    private final String holdId;
+    private final Trip trip;
+    private final char origin;
+    private final char destination;
+    private final long segmentMask;
+    private final int[] seats;
+    private final long totalFare;
+    private final long expiresAtMillis;
+
+    public static String newHoldId(String tripId) {
+        return tripId + HOLD_ID_SEPARATOR + UUID.randomUUID();
+    }
+
+    /**
+     * Get the trip id a hold id was created for
+     *
+     * @param holdId hold id
+     * @return trip id, or null if the hold id does not name a trip
+     */
+    public static String tripIdOf(String holdId) {
+        final int separator = holdId == null ? -1 : holdId.lastIndexOf(HOLD_ID_SEPARATOR);
+        return separator > 0 ? holdId.substring(0, separator) : null;
+    }
+}
@@ -0,0 +1,52 @@
+package com.bookingbus.bookingbus.hold;
+
+import com.bookingbus.bookingbus.trip.Trip;
+
+public interface SeatHoldManager {
+    /**
+     * Register a hold on seats already claimed on the trip inventory. The seats are released automatically
+     * when the hold expires.
+     *
+     * @param trip        trip the seats are claimed on
+     * @param origin      origin stop
+     * @param destination destination stop
+     * @param segmentMask segments claimed on every seat
+     * @param seats       claimed seat indexes
+     * @param totalFare   total fare quoted for the seats in minor currency units
+     * @return the registered hold
+     */
+    SeatHold hold(Trip trip, char origin, char destination, long segmentMask, int[] seats, long totalFare);
+
+    /**
+     * Take a hold out of the manager so its seats can be ticketed. The seats stay claimed.
+     *
+     * @param holdId hold id
+     * @return the confirmed hold
+     * @throws IllegalArgumentException if the hold does not exist, was released or has expired
+     */
+    SeatHold confirm(String holdId);
+
+    /**
+     * Release a hold and return its seats to the inventory
+     *
+     * @param holdId hold id
+     * @throws IllegalArgumentException if the hold does not exist, was confirmed or has expired
+     */
+    void release(String holdId);
+
+    /**
+     * Release every active hold on a trip and return its seats to the inventory, such as before the trip is
+     * handed over to another node. This scans every active hold.
+     *
+     * @param trip trip whose holds are released
+     * @return number of released holds
+     */
+    int releaseHolds(Trip trip);
+
+    /**
+     * Get the number of holds which are neither confirmed, released nor expired
+     *
+     * @return active hold count
+     */
+    int getActiveHoldCount();
+}
@@ -0,0 +1,190 @@
+package com.bookingbus.bookingbus.hold.impl;
+
+import com.bookingbus.bookingbus.hold.SeatHold;
+import com.bookingbus.bookingbus.hold.SeatHoldManager;
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import com.bookingbus.bookingbus.trip.Trip;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Seat hold manager expiring holds with a hashed timer wheel. New holds are queued by the request thread
+ * and moved by a single ticker thread into the wheel bucket of their deadline tick, so each tick only
+ * visits the holds of one bucket instead of every active hold. A hold is owned by whoever removes it from
+ * the hold map, which makes confirm, release and expiry mutually exclusive without locking. Confirmed and
+ * released holds are left in their bucket and skipped when the bucket comes round, so only holds which
+ * really expire touch the inventory. The ticker thread is started by the first hold.
+ */
+@Slf4j
+@Service
+public class TimerWheelSeatHoldManager implements SeatHoldManager {
+    private static final int WHEEL_SIZE = 512;
+    private final ConcurrentMap<String, SeatHold> holds = new ConcurrentHashMap<>();
+    private final Queue<SeatHold> pendingHolds = new ConcurrentLinkedQueue<>();
+    private final List<List<SeatHold>> wheel = new ArrayList<>(WHEEL_SIZE);
+    private final long ttlMillis;
+    private final long tickMillis;
+    private final long startMillis;
+    private final LongSupplier clock;
+    private final boolean scheduleTicks;
+    private volatile ScheduledExecutorService ticker;
+    private long currentTick;
+
+    @Autowired
+    public TimerWheelSeatHoldManager(@Value("${booking.hold.ttl:10m}") Duration ttl,
+                                     @Value("${booking.hold.tick:100ms}") Duration tick) {
+        this(ttl.toMillis(), tick.toMillis(), System::currentTimeMillis, true);
+    }
+
+    TimerWheelSeatHoldManager(long ttlMillis, long tickMillis, LongSupplier clock, boolean scheduleTicks) {
+        if (ttlMillis <= 0 || tickMillis <= 0) {
+            throw new IllegalArgumentException("Hold ttl and tick must be positive");
+        }
+        this.ttlMillis = ttlMillis;
+        this.tickMillis = tickMillis;
+        this.clock = clock;
+        this.scheduleTicks = scheduleTicks;
+        this.startMillis = clock.getAsLong();
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new ArrayList<>());
+        }
+    }
+
+    @Override
+    public SeatHold hold(Trip trip, char origin, char destination, long segmentMask, int[] seats, long totalFare) {
+        final SeatHold seatHold = new SeatHold(SeatHold.newHoldId(trip.getTripId()), trip, origin, destination, segmentMask, seats,
+                totalFare, clock.getAsLong() + ttlMillis);
+        holds.put(seatHold.getHoldId(), seatHold);
+        pendingHolds.add(seatHold);
+        startTicker();
+        return seatHold;
+    }
+
+    @Override
+    public SeatHold confirm(String holdId) {
+        final SeatHold seatHold = remove(holdId);
+        if (seatHold.getExpiresAtMillis() <= clock.getAsLong()) {
+            releaseSeats(seatHold);
+            throw new IllegalArgumentException("Hold expired");
+        }
+        return seatHold;
+    }
+
+    @Override
+    public void release(String holdId) {
+        releaseSeats(remove(holdId));
+    }
+
+    @Override
+    public int releaseHolds(Trip trip) {
+        int released = 0;
+        for (SeatHold seatHold : holds.values()) {
+            if (seatHold.getTrip() == trip && holds.remove(seatHold.getHoldId(), seatHold)) {
+                releaseSeats(seatHold);
+                released++;
+            }
+        }
+        return released;
+    }
+
+    @Override
+    public int getActiveHoldCount() {
+        return holds.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Advances the wheel to the current time and releases the seats of every hold whose deadline has passed.
+     * Called by the ticker thread only, or directly when ticks are not scheduled.
+     */
+    void expireHolds() {
+        final long targetTick = (clock.getAsLong() - startMillis) / tickMillis;
+        SeatHold seatHold;
+        while ((seatHold = pendingHolds.poll()) != null) {
+            long deadlineTick = Math.max(deadlineTick(seatHold), currentTick);
+            wheel.get((int) (deadlineTick % WHEEL_SIZE)).add(seatHold);
+        }
+        for (; currentTick <= targetTick; currentTick++) {
+            expireBucket(wheel.get((int) (currentTick % WHEEL_SIZE)));
+        }
+    }
+
+    private void expireBucket(List<SeatHold> bucket) {
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            final SeatHold seatHold = bucket.get(i);
+            if (deadlineTick(seatHold) > currentTick) {
+                bucket.set(kept++, seatHold);
+            } else if (holds.remove(seatHold.getHoldId(), seatHold)) {
+                releaseSeats(seatHold);
+                log.debug("Hold {} expired", seatHold.getHoldId());
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    private long deadlineTick(SeatHold seatHold) {
+        return (seatHold.getExpiresAtMillis() - startMillis + tickMillis - 1) / tickMillis;
+    }
+
+    private SeatHold remove(String holdId) {
+        final SeatHold seatHold = holdId == null ? null : holds.remove(holdId);
+        if (seatHold == null) {
+            throw new IllegalArgumentException("Invalid or expired hold");
+        }
+        return seatHold;
+    }
+
+    private void releaseSeats(SeatHold seatHold) {
+        final SeatInventory inventory = seatHold.getTrip().getInventory();
+        for (int seat : seatHold.getSeats()) {
+            inventory.releaseSeat(seat, seatHold.getSegmentMask());
+        }
+    }
+
+    private void startTicker() {
+        if (ticker != null || !scheduleTicks) {
+            return;
+        }
+        synchronized (this) {
+            if (ticker == null) {
+                final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "seat-hold-expiry");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                scheduler.scheduleAtFixedRate(this::expireHoldsSafely, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+                ticker = scheduler;
+            }
+        }
+    }
+
+    private void expireHoldsSafely() {
+        try {
+            expireHolds();
+        } catch (RuntimeException exception) {
+            log.error("Error expiring seat holds: {}", exception.getMessage());
+        }
+    }
+}
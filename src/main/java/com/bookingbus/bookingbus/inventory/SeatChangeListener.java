@@ -0,0 +1,11 @@
+package com.bookingbus.bookingbus.inventory;
+
+@FunctionalInterface
+public interface SeatChangeListener {
+    /**
+     * Called after the occupied segments of a seat have changed
+     *
+     * @param seat seat index
+     */
+    void onSeatChanged(int seat);
+}
@@ -0,0 +1,118 @@
+package com.bookingbus.bookingbus.inventory;
+
+public interface SeatInventory {
+    /**
+     * Get the number of seats held by this inventory
+     *
+     * @return seat count
+     */
+    int getSeatCount();
+
+    /**
+     * Get the number of route segments (stop to next stop) tracked per seat
+     *
+     * @return segment count
+     */
+    int getSegmentCount();
+
+    /**
+     * Get the printable seat number of the given seat index
+     *
+     * @param seat seat index
+     * @return seat number such as A1
+     */
+    String getSeatNumber(int seat);
+
+    /**
+     * Build the segment mask covering the travel from origin stop to destination stop
+     *
+     * @param originStop      ordinal of the origin stop
+     * @param destinationStop ordinal of the destination stop, must be after the origin stop
+     * @return bitmask with one bit per travelled segment
+     */
+    long segmentMask(int originStop, int destinationStop);
+
+    /**
+     * Get the occupied segments of a seat
+     *
+     * @param seat seat index
+     * @return bitmask of the occupied segments
+     */
+    long getOccupiedSegments(int seat);
+
+    /**
+     * Check whether the seat is free on every segment of the given mask
+     *
+     * @param seat        seat index
+     * @param segmentMask segments to be travelled
+     * @return true if the seat can be sold for the segments
+     */
+    boolean isAvailable(int seat, long segmentMask);
+
+    /**
+     * Count the seats which are free on every segment of the given mask
+     *
+     * @param segmentMask segments to be travelled
+     * @return number of available seats
+     */
+    int countAvailableSeats(long segmentMask);
+
+    /**
+     * Collect the seats which are free on every segment of the given mask
+     *
+     * @param segmentMask segments to be travelled
+     * @param seats       destination array for the seat indexes
+     * @param limit       maximum number of seats to collect
+     * @return number of seat indexes written to the array
+     */
+    int findAvailableSeats(long segmentMask, int[] seats, int limit);
+
+    /**
+     * Atomically claim the segments of the given mask on the first free seats. Either all the requested
+     * seats are claimed or none of them are.
+     *
+     * @param segmentMask segments to be travelled
+     * @param seats       destination array for the claimed seat indexes
+     * @param count       number of seats to claim
+     * @return true if all the seats were claimed, false if not enough seats were free
+     */
+    boolean claimSeats(long segmentMask, int[] seats, int count);
+
+    /**
+     * Atomically claim the segments of the given mask on a single seat
+     *
+     * @param seat        seat index
+     * @param segmentMask segments to be travelled
+     * @return true if the seat was free on every segment and is now claimed
+     */
+    boolean claimSeat(int seat, long segmentMask);
+
+    /**
+     * Atomically release the segments of the given mask on a single seat
+     *
+     * @param seat        seat index
+     * @param segmentMask segments to be released
+     */
+    void releaseSeat(int seat, long segmentMask);
+
+    /**
+     * Get the number of seat segments sold, kept up to date by every claim and release rather than counted
+     *
+     * @return occupied segment count over all seats
+     */
+    long getOccupiedSegmentCount();
+
+    /**
+     * Get the number of seat claims which lost a compare-and-set race and had to retry
+     *
+     * @return claim retry count
+     */
+    long getClaimRetryCount();
+
+    /**
+     * Register the listener notified after every claim or release of a seat, replacing any previous listener
+     *
+     * @param listener listener to notify, or null to stop notifying
+     */
+    void setSeatChangeListener(SeatChangeListener listener);
+}
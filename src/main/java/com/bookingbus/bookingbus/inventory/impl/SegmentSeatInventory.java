@@ -0,0 +1,156 @@
+package com.bookingbus.bookingbus.inventory.impl;
+
+import com.bookingbus.bookingbus.inventory.SeatChangeListener;
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Seat inventory keeping one bitmask of occupied route segments per seat. Bit {@code i} of a seat
+ * mask is set when the seat is sold between stop {@code i} and stop {@code i + 1}, so a seat sold
+ * A to B can still be sold B to C and availability is a single mask AND per seat. Seats are claimed
+ * with compare-and-set on the seat mask, so concurrent bookings never need a shared lock. The seat
+ * number array is shared with the caller rather than copied.
+ */
+public class SegmentSeatInventory implements SeatInventory {
+    private final String[] seatNumbers;
+    private final AtomicLongArray occupiedSegments;
+    private final int segmentCount;
+    private final LongAdder claimRetryCount = new LongAdder();
+    private final LongAdder occupiedSegmentCount = new LongAdder();
+    private volatile SeatChangeListener seatChangeListener;
+
+    public SegmentSeatInventory(String[] seatNumbers, int segmentCount) {
+        if (segmentCount <= 0 || segmentCount >= Long.SIZE) {
+            throw new IllegalArgumentException("Segment count must be between 1 and " + (Long.SIZE - 1));
+        }
+        this.seatNumbers = seatNumbers;
+        this.occupiedSegments = new AtomicLongArray(seatNumbers.length);
+        this.segmentCount = segmentCount;
+    }
+
+    @Override
+    public int getSeatCount() {
+        return seatNumbers.length;
+    }
+
+    @Override
+    public int getSegmentCount() {
+        return segmentCount;
+    }
+
+    @Override
+    public String getSeatNumber(int seat) {
+        return seatNumbers[seat];
+    }
+
+    @Override
+    public long segmentMask(int originStop, int destinationStop) {
+        if (originStop < 0 || destinationStop > segmentCount || originStop >= destinationStop) {
+            throw new IllegalArgumentException("Invalid origin or destination selection");
+        }
+        return (1L << destinationStop) - (1L << originStop);
+    }
+
+    @Override
+    public long getOccupiedSegments(int seat) {
+        return occupiedSegments.get(seat);
+    }
+
+    @Override
+    public boolean isAvailable(int seat, long segmentMask) {
+        return (occupiedSegments.get(seat) & segmentMask) == 0;
+    }
+
+    @Override
+    public int countAvailableSeats(long segmentMask) {
+        int count = 0;
+        for (int seat = 0; seat < seatNumbers.length; seat++) {
+            if ((occupiedSegments.get(seat) & segmentMask) == 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int findAvailableSeats(long segmentMask, int[] seats, int limit) {
+        int found = 0;
+        for (int seat = 0; seat < seatNumbers.length && found < limit; seat++) {
+            if ((occupiedSegments.get(seat) & segmentMask) == 0) {
+                seats[found++] = seat;
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public boolean claimSeats(long segmentMask, int[] seats, int count) {
+        int claimed = 0;
+        for (int seat = 0; seat < seatNumbers.length && claimed < count; seat++) {
+            if (claimSeat(seat, segmentMask)) {
+                seats[claimed++] = seat;
+            }
+        }
+        if (claimed < count) {
+            for (int i = 0; i < claimed; i++) {
+                releaseSeat(seats[i], segmentMask);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean claimSeat(int seat, long segmentMask) {
+        long occupied = occupiedSegments.get(seat);
+        while ((occupied & segmentMask) == 0) {
+            long witness = occupiedSegments.compareAndExchange(seat, occupied, occupied | segmentMask);
+            if (witness == occupied) {
+                occupiedSegmentCount.add(Long.bitCount(segmentMask));
+                notifySeatChanged(seat);
+                return true;
+            }
+            claimRetryCount.increment();
+            occupied = witness;
+        }
+        return false;
+    }
+
+    @Override
+    public void releaseSeat(int seat, long segmentMask) {
+        long occupied = occupiedSegments.get(seat);
+        while (true) {
+            long witness = occupiedSegments.compareAndExchange(seat, occupied, occupied & ~segmentMask);
+            if (witness == occupied) {
+                occupiedSegmentCount.add(-Long.bitCount(occupied & segmentMask));
+                notifySeatChanged(seat);
+                return;
+            }
+            occupied = witness;
+        }
+    }
+
+    @Override
+    public long getClaimRetryCount() {
+        return claimRetryCount.sum();
+    }
+
+    @Override
+    public long getOccupiedSegmentCount() {
+        return occupiedSegmentCount.sum();
+    }
+
+    @Override
+    public void setSeatChangeListener(SeatChangeListener listener) {
+        this.seatChangeListener = listener;
+    }
+
+    private void notifySeatChanged(int seat) {
+        final SeatChangeListener listener = seatChangeListener;
+        if (listener != null) {
+            listener.onSeatChanged(seat);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.bookingbus.bookingbus.journal;
+
+import com.bookingbus.bookingbus.trip.SeatLayout;
+
+import java.time.LocalDateTime;
+
+public interface JournalReplayHandler {
+    /**
+     * Recreate a journalled trip
+     *
+     * @param tripId        trip id
+     * @param stops         stops of the route in travel order
+     * @param departureTime departure time, may be null
+     * @param seatLayout    seat arrangement of the bus
+     */
+    void onTrip(String tripId, String stops, LocalDateTime departureTime, SeatLayout seatLayout);
+
+    /**
+     * Mark segments of a seat as sold
+     *
+     * @param tripId      trip id
+     * @param seat        seat index
+     * @param segmentMask sold segments
+     */
+    void onSeat(String tripId, int seat, long segmentMask);
+
+    /**
+     * Recreate an issued ticket. The seat segments of the ticket are restored separately through
+     * {@link #onSeat(String, int, long)}.
+     *
+     * @param tripId       trip id
+     * @param ticketNumber ticket number
+     * @param seat         seat index
+     * @param segmentMask  segments sold with the ticket
+     * @param fare         fare paid for the ticket in minor currency units
+     * @param cancelled    true if the ticket was cancelled before the snapshot
+     */
+    void onTicket(String tripId, int ticketNumber, int seat, long segmentMask, long fare, boolean cancelled);
+
+    /**
+     * Cancel a ticket and release its seat segments
+     *
+     * @param tripId       trip id
+     * @param ticketNumber ticket number
+     * @param seat         seat index
+     * @param segmentMask  released segments
+     */
+    void onCancellation(String tripId, int ticketNumber, int seat, long segmentMask);
+
+    /**
+     * Remove a trip which was handed over to another node
+     *
+     * @param tripId trip id
+     */
+    void onTripRemoved(String tripId);
+
+    /**
+     * Advance the ticket number counter
+     *
+     * @param lastTicketNumber highest ticket number issued so far
+     */
+    void onTicketNumber(int lastTicketNumber);
+}
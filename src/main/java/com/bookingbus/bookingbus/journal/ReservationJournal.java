@@ -0,0 +1,65 @@
+package com.bookingbus.bookingbus.journal;
+
+import com.bookingbus.bookingbus.ticket.TicketRecord;
+import com.bookingbus.bookingbus.trip.Trip;
+
+import java.util.List;
+
+public interface ReservationJournal {
+    /**
+     * Append a trip to the journal so it is recreated on restart
+     *
+     * @param trip trip added to the catalog
+     */
+    void recordTrip(Trip trip);
+
+    /**
+     * Append issued tickets to the journal. The call returns once the record is in memory, the journal is
+     * flushed to disk in the background.
+     *
+     * @param trip              trip the tickets are issued on
+     * @param seats             seat indexes of the tickets
+     * @param count             number of seat indexes to use from the array
+     * @param segmentMask       segments claimed on every seat
+     * @param fares             fare of the ticket of every seat in minor currency units
+     * @param firstTicketNumber ticket number of the first seat, the following seats have consecutive numbers
+     */
+    void recordTickets(Trip trip, int[] seats, int count, long segmentMask, long[] fares, int firstTicketNumber);
+
+    /**
+     * Append a ticket cancellation to the journal. The cancellation must be recorded before the segments are
+     * released, so they cannot be journalled as sold again ahead of it.
+     *
+     * @param trip         trip the ticket was issued on
+     * @param ticketNumber cancelled ticket number
+     * @param seat         seat index of the ticket
+     * @param segmentMask  segments released from the seat
+     */
+    void recordCancellation(Trip trip, int ticketNumber, int seat, long segmentMask);
+
+    /**
+     * Append the sold seats and tickets of a trip received from another node. The trip must be recorded
+     * first, and the imported tickets do not advance the ticket number counter.
+     *
+     * @param trip         trip received from another node
+     * @param segmentMasks occupied segments of every seat
+     * @param tickets      tickets issued on the trip, including cancelled tickets
+     */
+    void recordTripImport(Trip trip, long[] segmentMasks, List<TicketRecord> tickets);
+
+    /**
+     * Append the removal of a trip handed over to another node, so it is not recreated on restart. Its
+     * tickets stay journalled.
+     *
+     * @param trip trip removed from the catalog
+     */
+    void recordTripRemoval(Trip trip);
+
+    /**
+     * Rebuild the journalled state from the latest snapshot and the journal written after it. Records made
+     * by the handler while restoring are not journalled again.
+     *
+     * @param handler receiver of the restored trips, seats and ticket numbers
+     */
+    void restore(JournalReplayHandler handler);
+}
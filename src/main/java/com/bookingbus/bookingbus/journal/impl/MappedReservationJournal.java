@@ -0,0 +1,716 @@
+package com.bookingbus.bookingbus.journal.impl;
+
+import com.bookingbus.bookingbus.journal.JournalReplayHandler;
+import com.bookingbus.bookingbus.journal.ReservationJournal;
+import com.bookingbus.bookingbus.ticket.TicketRecord;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.Trip;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only reservation journal written to memory-mapped segment files. Appends only copy the record
+ * into the mapped segment, and a background thread forces dirty segments to disk every flush interval,
+ * so many bookings share one fsync. The journal keeps its own copy of the journalled seat masks, updated
+ * in append order, which is periodically written as a compact snapshot; each snapshot starts a new
+ * segment so older segments can be deleted and a restart only replays the journal after the snapshot.
+ * Every record carries its length and CRC32 so a torn tail is detected and ignored, and snapshots are
+ * written to a temporary file and renamed into place. The journal also keeps every ticket by ticket
+ * number so the snapshot can restore the ticket index; a cancellation is appended before the seat is
+ * released in memory, so a replay never sees a resale of the segments ahead of their cancellation.
+ * Tickets are kept in chunks allocated on first use, as ticket numbers of a cluster node start at its own
+ * offset, and a trip handed over to another node keeps its tickets but is no longer restored.
+ * The append lock is only held while a snapshot notes its journal position and takes the ticket chunks and
+ * seat masks as they are; they are written out without the lock, and appends copy a chunk or seat mask
+ * array on its first change while that snapshot is being written.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(value = "booking.journal.enabled", havingValue = "true")
+public class MappedReservationJournal implements ReservationJournal {
+    private static final byte TRIP_RECORD = 1;
+    private static final byte TICKETS_RECORD = 2;
+    private static final byte CANCELLATION_RECORD = 3;
+    private static final byte TRIP_IMPORT_RECORD = 4;
+    private static final byte TRIP_REMOVAL_RECORD = 5;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int SNAPSHOT_MAGIC = 0x42424a53;
+    private static final int TICKET_CHUNK_BITS = 16;
+    private static final int TICKET_CHUNK_SIZE = 1 << TICKET_CHUNK_BITS;
+    private static final int TICKET_CHUNK_MASK = TICKET_CHUNK_SIZE - 1;
+    private static final int STOP_BITS = 6;
+    private static final int STOP_MASK = (1 << STOP_BITS) - 1;
+    private static final int SEAT_SHIFT = 2 * STOP_BITS;
+    private static final long CANCELLED = Long.MIN_VALUE;
+    private static final long NO_DEPARTURE = Long.MIN_VALUE;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private final Path directory;
+    private final int segmentSize;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final Map<String, TripState> tripStates = new HashMap<>();
+    private final List<TripState> tripStatesByOrdinal = new ArrayList<>();
+    private final CRC32 crc = new CRC32();
+    private final ScheduledExecutorService scheduler;
+    private ByteBuffer recordBuffer = ByteBuffer.allocate(1024);
+    private byte[] replayBuffer = new byte[1024];
+    private final long[][] tickets = new long[(Integer.MAX_VALUE >>> TICKET_CHUNK_BITS) + 1][];
+    private final long[][] ticketFares = new long[tickets.length][];
+    private final int[] ticketChunkEpochs = new int[tickets.length];
+    private int snapshotEpoch;
+    private volatile boolean snapshotWriting;
+    private long segmentSequence = -1;
+    private FileChannel segmentChannel;
+    private volatile MappedByteBuffer segment;
+    private volatile boolean dirty;
+    private boolean replaying;
+    private volatile boolean restored;
+    private int lastTicketNumber;
+
+    @Autowired
+    public MappedReservationJournal(@Value("${booking.journal.directory:data/journal}") Path directory,
+                                    @Value("${booking.journal.segment-size:64MB}") DataSize segmentSize,
+                                    @Value("${booking.journal.flush-interval-ms:10}") long flushIntervalMs,
+                                    @Value("${booking.journal.snapshot-interval-seconds:300}") long snapshotIntervalSeconds) {
+        this(directory, Math.toIntExact(segmentSize.toBytes()), flushIntervalMs, snapshotIntervalSeconds);
+    }
+
+    MappedReservationJournal(Path directory, int segmentSize, long flushIntervalMs, long snapshotIntervalSeconds) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to create journal directory " + directory, exception);
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::snapshot, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void recordTrip(Trip trip) {
+        appendLock.lock();
+        try {
+            if (replaying) {
+                return;
+            }
+            checkRestored();
+            final TripState tripState = addTripState(trip.getTripId(), trip.getStops(), toEpochSecond(trip.getDepartureTime()),
+                    trip.getSeatLayout().getRows(), trip.getSeatLayout().getSeatsPerRow());
+            final byte[] tripId = tripState.tripId.getBytes(StandardCharsets.UTF_8);
+            final byte[] stops = tripState.stops.getBytes(StandardCharsets.UTF_8);
+            final ByteBuffer record = recordBuffer(1 + 2 + tripId.length + 2 + stops.length + 8 + 4 + 4);
+            record.put(TRIP_RECORD);
+            record.putShort((short) tripId.length).put(tripId);
+            record.putShort((short) stops.length).put(stops);
+            record.putLong(tripState.departureEpochSecond);
+            record.putInt(tripState.rows).putInt(tripState.seatsPerRow);
+            append(record);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void recordTickets(Trip trip, int[] seats, int count, long segmentMask, long[] fares, int firstTicketNumber) {
+        appendLock.lock();
+        try {
+            if (replaying) {
+                return;
+            }
+            checkRestored();
+            final TripState tripState = journalledTrip(trip);
+            final ByteBuffer record = recordBuffer(1 + 4 + 8 + 4 + 4 + 12 * count);
+            record.put(TICKETS_RECORD);
+            record.putInt(tripState.ordinal).putLong(segmentMask).putInt(firstTicketNumber).putInt(count);
+            final long[] segmentMasks = writableSegmentMasks(tripState);
+            for (int i = 0; i < count; i++) {
+                record.putInt(seats[i]).putLong(fares[i]);
+                segmentMasks[seats[i]] |= segmentMask;
+                putTicket(firstTicketNumber + i, tripState, seats[i], segmentMask, fares[i]);
+            }
+            lastTicketNumber = Math.max(lastTicketNumber, firstTicketNumber + count - 1);
+            append(record);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void recordCancellation(Trip trip, int ticketNumber, int seat, long segmentMask) {
+        appendLock.lock();
+        try {
+            if (replaying) {
+                return;
+            }
+            checkRestored();
+            final TripState tripState = journalledTrip(trip);
+            final ByteBuffer record = recordBuffer(1 + 4 + 4 + 4 + 8);
+            record.put(CANCELLATION_RECORD);
+            record.putInt(tripState.ordinal).putInt(ticketNumber).putInt(seat).putLong(segmentMask);
+            writableSegmentMasks(tripState)[seat] &= ~segmentMask;
+            cancelTicket(ticketNumber);
+            append(record);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void recordTripImport(Trip trip, long[] segmentMasks, List<TicketRecord> tickets) {
+        appendLock.lock();
+        try {
+            if (replaying) {
+                return;
+            }
+            checkRestored();
+            final TripState tripState = journalledTrip(trip);
+            final ByteBuffer record = recordBuffer(1 + 4 + 4 + 8 * segmentMasks.length + 4 + 25 * tickets.size());
+            record.put(TRIP_IMPORT_RECORD);
+            record.putInt(tripState.ordinal).putInt(segmentMasks.length);
+            final long[] journalledSegmentMasks = writableSegmentMasks(tripState);
+            for (int seat = 0; seat < segmentMasks.length; seat++) {
+                record.putLong(segmentMasks[seat]);
+                journalledSegmentMasks[seat] = segmentMasks[seat];
+            }
+            record.putInt(tickets.size());
+            for (TicketRecord ticket : tickets) {
+                record.putInt(ticket.getTicketNumber()).putInt(ticket.getSeat()).putLong(ticket.getSegmentMask())
+                        .putLong(ticket.getFare()).put((byte) (ticket.isCancelled() ? 1 : 0));
+                putTicket(ticket.getTicketNumber(), tripState, ticket.getSeat(), ticket.getSegmentMask(), ticket.getFare());
+                if (ticket.isCancelled()) {
+                    cancelTicket(ticket.getTicketNumber());
+                }
+            }
+            append(record);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void recordTripRemoval(Trip trip) {
+        appendLock.lock();
+        try {
+            if (replaying) {
+                return;
+            }
+            checkRestored();
+            final TripState tripState = journalledTrip(trip);
+            final ByteBuffer record = recordBuffer(1 + 4);
+            record.put(TRIP_REMOVAL_RECORD);
+            record.putInt(tripState.ordinal);
+            removeTripState(tripState);
+            append(record);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void restore(JournalReplayHandler handler) {
+        appendLock.lock();
+        replaying = true;
+        try {
+            final long startSequence = readSnapshot(handler);
+            final List<Long> sequences = segmentSequences();
+            for (long sequence : sequences) {
+                if (sequence >= startSequence) {
+                    replaySegment(segmentPath(sequence), handler);
+                }
+                segmentSequence = Math.max(segmentSequence, sequence);
+            }
+            segmentSequence = Math.max(segmentSequence, startSequence - 1);
+            if (lastTicketNumber > 0) {
+                handler.onTicketNumber(lastTicketNumber);
+            }
+            log.info("Journal restored {} trips up to ticket number {} from {}", tripStates.size(), lastTicketNumber, directory);
+        } finally {
+            replaying = false;
+            appendLock.unlock();
+        }
+        restored = true;
+        snapshot();
+    }
+
+    public void snapshot() {
+        if (!restored) {
+            return;
+        }
+        snapshotLock.lock();
+        try {
+            final List<TripState> trips = new ArrayList<>();
+            final int snapshotTicketNumber;
+            final long[][] snapshotTickets = new long[tickets.length][];
+            final long[][] snapshotFares = new long[tickets.length][];
+            final long startSequence;
+            appendLock.lock();
+            try {
+                rollSegment();
+                startSequence = segmentSequence;
+                for (TripState tripState : tripStatesByOrdinal) {
+                    trips.add(tripState.copy());
+                }
+                snapshotTicketNumber = lastTicketNumber;
+                System.arraycopy(tickets, 0, snapshotTickets, 0, tickets.length);
+                System.arraycopy(ticketFares, 0, snapshotFares, 0, ticketFares.length);
+                // Appends from now on copy what they change, leaving the arrays taken above to this snapshot
+                snapshotEpoch++;
+                snapshotWriting = true;
+            } finally {
+                appendLock.unlock();
+            }
+            try {
+                writeSnapshot(trips, snapshotTicketNumber, snapshotTickets, snapshotFares, startSequence);
+            } finally {
+                snapshotWriting = false;
+            }
+            for (long sequence : segmentSequences()) {
+                if (sequence < startSequence) {
+                    Files.deleteIfExists(segmentPath(sequence));
+                }
+            }
+            log.debug("Journal snapshot written with {} trips, replay starts at segment {}", trips.size(), startSequence);
+        } catch (IOException | RuntimeException exception) {
+            log.error("Unable to write journal snapshot", exception);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    public void flush() {
+        final MappedByteBuffer current = segment;
+        if (dirty && current != null) {
+            dirty = false;
+            current.force();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+        snapshot();
+        appendLock.lock();
+        try {
+            closeSegment();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void checkRestored() {
+        if (!restored) {
+            throw new IllegalStateException("Journal must be restored before recording");
+        }
+    }
+
+    private TripState journalledTrip(Trip trip) {
+        final TripState tripState = tripStates.get(trip.getTripId());
+        if (tripState == null) {
+            throw new IllegalStateException("Trip " + trip.getTripId() + " is not journalled");
+        }
+        return tripState;
+    }
+
+    private void putTicket(int ticketNumber, TripState tripState, int seat, long segmentMask, long fare) {
+        setTicket(ticketNumber, ((long) (tripState.ordinal + 1) << Integer.SIZE) | ((long) seat << SEAT_SHIFT)
+                | ((long) Long.numberOfTrailingZeros(segmentMask) << STOP_BITS) | (Long.SIZE - Long.numberOfLeadingZeros(segmentMask)), fare);
+    }
+
+    private void setTicket(int ticketNumber, long ticket, long fare) {
+        final int chunk = ticketNumber >>> TICKET_CHUNK_BITS;
+        if (tickets[chunk] == null) {
+            tickets[chunk] = new long[TICKET_CHUNK_SIZE];
+            ticketFares[chunk] = new long[TICKET_CHUNK_SIZE];
+            ticketChunkEpochs[chunk] = snapshotEpoch;
+        } else {
+            copyTicketChunkOnWrite(chunk);
+        }
+        tickets[chunk][ticketNumber & TICKET_CHUNK_MASK] = ticket;
+        ticketFares[chunk][ticketNumber & TICKET_CHUNK_MASK] = fare;
+    }
+
+    private void cancelTicket(int ticketNumber) {
+        final int chunk = ticketNumber >>> TICKET_CHUNK_BITS;
+        if (tickets[chunk] != null && tickets[chunk][ticketNumber & TICKET_CHUNK_MASK] != 0) {
+            copyTicketChunkOnWrite(chunk);
+            tickets[chunk][ticketNumber & TICKET_CHUNK_MASK] |= CANCELLED;
+        }
+    }
+
+    /**
+     * Replaces a ticket chunk by a copy before its first change since the last snapshot was taken, if that
+     * snapshot may still be reading the chunk. Called under the append lock.
+     */
+    private void copyTicketChunkOnWrite(int chunk) {
+        if (ticketChunkEpochs[chunk] != snapshotEpoch) {
+            if (snapshotWriting) {
+                tickets[chunk] = tickets[chunk].clone();
+                ticketFares[chunk] = ticketFares[chunk].clone();
+            }
+            ticketChunkEpochs[chunk] = snapshotEpoch;
+        }
+    }
+
+    /**
+     * Get the seat masks of a trip to change, copied the same way as the ticket chunks. Called under the
+     * append lock.
+     */
+    private long[] writableSegmentMasks(TripState tripState) {
+        if (tripState.epoch != snapshotEpoch) {
+            if (snapshotWriting) {
+                tripState.segmentMasks = tripState.segmentMasks.clone();
+            }
+            tripState.epoch = snapshotEpoch;
+        }
+        return tripState.segmentMasks;
+    }
+
+    private void removeTripState(TripState tripState) {
+        Arrays.fill(writableSegmentMasks(tripState), 0);
+        tripState.removed = true;
+    }
+
+    private void restoreTicket(int ticketNumber, long ticket, long fare, JournalReplayHandler handler) {
+        final TripState tripState = tripStatesByOrdinal.get((int) ((ticket & ~CANCELLED) >>> Integer.SIZE) - 1);
+        final int seat = (int) ticket >>> SEAT_SHIFT;
+        final long segmentMask = (1L << (ticket & STOP_MASK)) - (1L << ((ticket >>> STOP_BITS) & STOP_MASK));
+        setTicket(ticketNumber, ticket, fare);
+        handler.onTicket(tripState.tripId, ticketNumber, seat, segmentMask, fare, (ticket & CANCELLED) != 0);
+    }
+
+    private ByteBuffer recordBuffer(int size) {
+        if (recordBuffer.capacity() < size) {
+            recordBuffer = ByteBuffer.allocate(Math.max(size, recordBuffer.capacity() * 2));
+        }
+        recordBuffer.clear();
+        return recordBuffer;
+    }
+
+    private void append(ByteBuffer record) {
+        record.flip();
+        final int length = record.remaining();
+        if (length + 2 * RECORD_HEADER_SIZE > segmentSize) {
+            throw new IllegalStateException("Journal record of " + length + " bytes does not fit in a segment");
+        }
+        if (segment == null || segment.remaining() < length + 2 * RECORD_HEADER_SIZE) {
+            rollSegment();
+        }
+        crc.reset();
+        crc.update(record.array(), 0, length);
+        final MappedByteBuffer current = segment;
+        current.putInt(length);
+        current.putInt((int) crc.getValue());
+        current.put(record);
+        dirty = true;
+    }
+
+    private void rollSegment() {
+        closeSegment();
+        segmentSequence++;
+        try {
+            segmentChannel = FileChannel.open(segmentPath(segmentSequence),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to open journal segment " + segmentSequence, exception);
+        }
+    }
+
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        segment.force();
+        dirty = false;
+        try {
+            segmentChannel.close();
+        } catch (IOException exception) {
+            log.warn("Unable to close journal segment {}", segmentSequence, exception);
+        }
+        segment = null;
+        segmentChannel = null;
+    }
+
+    private void replaySegment(Path path, JournalReplayHandler handler) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+                final int length = buffer.getInt();
+                final int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                if (replayBuffer.length < length) {
+                    replayBuffer = new byte[Math.max(length, replayBuffer.length * 2)];
+                }
+                final byte[] payload = replayBuffer;
+                buffer.get(payload, 0, length);
+                crc.reset();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("Journal segment {} has a torn record, replay stops there", path);
+                    break;
+                }
+                applyRecord(ByteBuffer.wrap(payload, 0, length), handler);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to replay journal segment " + path, exception);
+        }
+    }
+
+    private void applyRecord(ByteBuffer record, JournalReplayHandler handler) {
+        final byte type = record.get();
+        if (type == TRIP_RECORD) {
+            final String tripId = readString(record);
+            final String stops = readString(record);
+            final long departureEpochSecond = record.getLong();
+            final int rows = record.getInt();
+            final int seatsPerRow = record.getInt();
+            final TripState existing = tripStates.get(tripId);
+            if (existing == null || existing.removed) {
+                addTripState(tripId, stops, departureEpochSecond, rows, seatsPerRow);
+                handler.onTrip(tripId, stops, toDepartureTime(departureEpochSecond), new SeatLayout(rows, seatsPerRow));
+            }
+        } else if (type == TICKETS_RECORD) {
+            final TripState tripState = tripStatesByOrdinal.get(record.getInt());
+            final long segmentMask = record.getLong();
+            final int firstTicketNumber = record.getInt();
+            final int count = record.getInt();
+            for (int i = 0; i < count; i++) {
+                final int seat = record.getInt();
+                final long fare = record.getLong();
+                writableSegmentMasks(tripState)[seat] |= segmentMask;
+                putTicket(firstTicketNumber + i, tripState, seat, segmentMask, fare);
+                handler.onSeat(tripState.tripId, seat, segmentMask);
+                handler.onTicket(tripState.tripId, firstTicketNumber + i, seat, segmentMask, fare, false);
+            }
+            lastTicketNumber = Math.max(lastTicketNumber, firstTicketNumber + count - 1);
+        } else if (type == CANCELLATION_RECORD) {
+            final TripState tripState = tripStatesByOrdinal.get(record.getInt());
+            final int ticketNumber = record.getInt();
+            final int seat = record.getInt();
+            final long segmentMask = record.getLong();
+            writableSegmentMasks(tripState)[seat] &= ~segmentMask;
+            cancelTicket(ticketNumber);
+            handler.onCancellation(tripState.tripId, ticketNumber, seat, segmentMask);
+        } else if (type == TRIP_IMPORT_RECORD) {
+            final TripState tripState = tripStatesByOrdinal.get(record.getInt());
+            final int seatCount = record.getInt();
+            for (int seat = 0; seat < seatCount; seat++) {
+                final long segmentMask = record.getLong();
+                writableSegmentMasks(tripState)[seat] = segmentMask;
+                if (segmentMask != 0) {
+                    handler.onSeat(tripState.tripId, seat, segmentMask);
+                }
+            }
+            final int ticketCount = record.getInt();
+            for (int i = 0; i < ticketCount; i++) {
+                final int ticketNumber = record.getInt();
+                final int seat = record.getInt();
+                final long segmentMask = record.getLong();
+                final long fare = record.getLong();
+                final boolean cancelled = record.get() != 0;
+                putTicket(ticketNumber, tripState, seat, segmentMask, fare);
+                if (cancelled) {
+                    cancelTicket(ticketNumber);
+                }
+                handler.onTicket(tripState.tripId, ticketNumber, seat, segmentMask, fare, cancelled);
+            }
+        } else if (type == TRIP_REMOVAL_RECORD) {
+            final TripState tripState = tripStatesByOrdinal.get(record.getInt());
+            removeTripState(tripState);
+            handler.onTripRemoved(tripState.tripId);
+        } else {
+            throw new IllegalStateException("Unknown journal record type " + type);
+        }
+    }
+
+    private long readSnapshot(JournalReplayHandler handler) {
+        final Path path = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            final int magic = in.readInt();
+            if (magic != SNAPSHOT_MAGIC) {
+                throw new IllegalStateException("Invalid journal snapshot " + path);
+            }
+            final long startSequence = in.readLong();
+            lastTicketNumber = in.readInt();
+            final int tripCount = in.readInt();
+            for (int i = 0; i < tripCount; i++) {
+                final String tripId = in.readUTF();
+                final String stops = in.readUTF();
+                final long departureEpochSecond = in.readLong();
+                final int rows = in.readInt();
+                final int seatsPerRow = in.readInt();
+                final TripState tripState = addTripState(tripId, stops, departureEpochSecond, rows, seatsPerRow);
+                if (in.readBoolean()) {
+                    tripState.removed = true;
+                    continue;
+                }
+                handler.onTrip(tripId, stops, toDepartureTime(departureEpochSecond), new SeatLayout(rows, seatsPerRow));
+                for (int seat = 0; seat < tripState.segmentMasks.length; seat++) {
+                    final long segmentMask = in.readLong();
+                    if (segmentMask != 0) {
+                        tripState.segmentMasks[seat] = segmentMask;
+                        handler.onSeat(tripId, seat, segmentMask);
+                    }
+                }
+            }
+            final int ticketCount = in.readInt();
+            for (int i = 0; i < ticketCount; i++) {
+                final int ticketNumber = in.readInt();
+                restoreTicket(ticketNumber, in.readLong(), in.readLong(), handler);
+            }
+            return startSequence;
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to read journal snapshot " + path, exception);
+        }
+    }
+
+    private void writeSnapshot(List<TripState> trips, int snapshotTicketNumber, long[][] snapshotTickets, long[][] snapshotFares,
+                               long startSequence) throws IOException {
+        final Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(startSequence);
+            out.writeInt(snapshotTicketNumber);
+            out.writeInt(trips.size());
+            for (TripState tripState : trips) {
+                out.writeUTF(tripState.tripId);
+                out.writeUTF(tripState.stops);
+                out.writeLong(tripState.departureEpochSecond);
+                out.writeInt(tripState.rows);
+                out.writeInt(tripState.seatsPerRow);
+                out.writeBoolean(tripState.removed);
+                if (!tripState.removed) {
+                    for (long segmentMask : tripState.segmentMasks) {
+                        out.writeLong(segmentMask);
+                    }
+                }
+            }
+            int ticketCount = 0;
+            for (long[] chunk : snapshotTickets) {
+                for (int slot = 0; chunk != null && slot < TICKET_CHUNK_SIZE; slot++) {
+                    ticketCount += chunk[slot] != 0 ? 1 : 0;
+                }
+            }
+            out.writeInt(ticketCount);
+            for (int chunk = 0; chunk < snapshotTickets.length; chunk++) {
+                for (int slot = 0; snapshotTickets[chunk] != null && slot < TICKET_CHUNK_SIZE; slot++) {
+                    if (snapshotTickets[chunk][slot] != 0) {
+                        out.writeInt((chunk << TICKET_CHUNK_BITS) | slot);
+                        out.writeLong(snapshotTickets[chunk][slot]);
+                        out.writeLong(snapshotFares[chunk][slot]);
+                    }
+                }
+            }
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private TripState addTripState(String tripId, String stops, long departureEpochSecond, int rows, int seatsPerRow) {
+        final TripState tripState = new TripState(tripStatesByOrdinal.size(), tripId, stops, departureEpochSecond,
+                rows, seatsPerRow, new long[rows * seatsPerRow], false, snapshotEpoch);
+        tripStates.put(tripId, tripState);
+        tripStatesByOrdinal.add(tripState);
+        return tripState;
+    }
+
+    private List<Long> segmentSequences() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to list journal segments in " + directory, exception);
+        }
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+
+    private static String readString(ByteBuffer record) {
+        final byte[] bytes = new byte[record.getShort()];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long toEpochSecond(LocalDateTime departureTime) {
+        return departureTime == null ? NO_DEPARTURE : departureTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime toDepartureTime(long departureEpochSecond) {
+        return departureEpochSecond == NO_DEPARTURE ? null : LocalDateTime.ofEpochSecond(departureEpochSecond, 0, ZoneOffset.UTC);
+    }
+
+    @AllArgsConstructor
+    private static class TripState {
+        private final int ordinal;
+        private final String tripId;
+        private final String stops;
+        private final long departureEpochSecond;
+        private final int rows;
+        private final int seatsPerRow;
+        private long[] segmentMasks;
+        private boolean removed;
+        private int epoch;
+
+        /**
+         * Copy for a snapshot, sharing the seat masks which are copied on write from then on
+         */
+        private TripState copy() {
+            return new TripState(ordinal, tripId, stops, departureEpochSecond, rows, seatsPerRow, segmentMasks, removed, epoch);
+        }
+    }
+}
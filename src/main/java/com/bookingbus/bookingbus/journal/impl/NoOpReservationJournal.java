@@ -0,0 +1,39 @@
+package com.bookingbus.bookingbus.journal.impl;
+
+import com.bookingbus.bookingbus.journal.JournalReplayHandler;
+import com.bookingbus.bookingbus.journal.ReservationJournal;
+import com.bookingbus.bookingbus.ticket.TicketRecord;
+import com.bookingbus.bookingbus.trip.Trip;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@ConditionalOnProperty(value = "booking.journal.enabled", havingValue = "false", matchIfMissing = true)
+public class NoOpReservationJournal implements ReservationJournal {
+
+    @Override
+    public void recordTrip(Trip trip) {
+    }
+
+    @Override
+    public void recordTickets(Trip trip, int[] seats, int count, long segmentMask, long[] fares, int firstTicketNumber) {
+    }
+
+    @Override
+    public void recordCancellation(Trip trip, int ticketNumber, int seat, long segmentMask) {
+    }
+
+    @Override
+    public void recordTripImport(Trip trip, long[] segmentMasks, List<TicketRecord> tickets) {
+    }
+
+    @Override
+    public void recordTripRemoval(Trip trip) {
+    }
+
+    @Override
+    public void restore(JournalReplayHandler handler) {
+    }
+}
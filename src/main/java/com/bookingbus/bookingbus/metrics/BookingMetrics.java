@@ -0,0 +1,53 @@
+package com.bookingbus.bookingbus.metrics;
+
+import com.bookingbus.bookingbus.trip.Trip;
+
+public interface BookingMetrics {
+    /**
+     * Record an attempt to claim seats on the inventory of a trip
+     *
+     * @param trip         trip the seats were claimed on
+     * @param elapsedNanos time spent claiming the seats
+     * @param claimed      true if all the seats were claimed, false if the claim lost to other bookings
+     */
+    void recordSeatClaim(Trip trip, long elapsedNanos, boolean claimed);
+
+    /**
+     * Record a successful reservation
+     *
+     * @param trip        trip the tickets were issued on
+     * @param ticketCount number of tickets issued
+     */
+    void recordReservation(Trip trip, int ticketCount);
+
+    /**
+     * Record a reservation which was rejected
+     */
+    void recordRejection();
+
+    /**
+     * Record a cancelled ticket
+     *
+     * @param trip trip the ticket was issued on
+     */
+    void recordCancellation(Trip trip);
+
+    /**
+     * Record an all-or-nothing batch which released its claimed seats after a failed reservation
+     */
+    void recordBatchRollback();
+
+    /**
+     * Record a request turned away by admission control before it reached the booking service
+     *
+     * @param soldOut true if the journey was sold out, false if the trip had too many requests waiting
+     */
+    void recordAdmissionRejection(boolean soldOut);
+
+    /**
+     * Record a trip removed from this node, dropping any meters kept for it
+     *
+     * @param trip trip which was removed
+     */
+    void recordTripRemoval(Trip trip);
+}
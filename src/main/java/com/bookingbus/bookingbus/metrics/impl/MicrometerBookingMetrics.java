@@ -0,0 +1,177 @@
+package com.bookingbus.bookingbus.metrics.impl;
+
+import com.bookingbus.bookingbus.availability.AvailabilityCache;
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import com.bookingbus.bookingbus.metrics.BookingMetrics;
+import com.bookingbus.bookingbus.trip.Trip;
+import com.bookingbus.bookingbus.trip.TripCatalog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking metrics backed by Micrometer. Every meter touched on the booking path is created up front, so
+ * recording is a counter increment or a timer update without any registry lookup. Totals which already
+ * exist elsewhere, such as cache hits or compare-and-set retries of the inventories, are exported as
+ * function meters and only read when the registry is scraped. Occupancy is exported as one gauge over all
+ * trips, read from the sold segment counts the inventories keep. A gauge per trip is only registered when
+ * {@code booking.metrics.trip-occupancy.enabled} is set, the first time seats are claimed on the trip, and
+ * is removed again with the trip.
+ */
+@Service
+public class MicrometerBookingMetrics implements BookingMetrics {
+    private final MeterRegistry meterRegistry;
+    private final TripCatalog tripCatalog;
+    private final Timer seatClaimTimer;
+    private final Counter seatConflictCounter;
+    private final Counter reservedCounter;
+    private final Counter rejectedCounter;
+    private final Counter ticketCounter;
+    private final Counter cancellationCounter;
+    private final Counter batchRollbackCounter;
+    private final Counter soldOutRejectionCounter;
+    private final Counter overloadRejectionCounter;
+    private final boolean tripOccupancyEnabled;
+    private final Map<String, Gauge> tripOccupancyGauges = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MicrometerBookingMetrics(MeterRegistry meterRegistry, TripCatalog tripCatalog, AvailabilityCache availabilityCache,
+                                    @Value("${booking.metrics.trip-occupancy.enabled:false}") boolean tripOccupancyEnabled) {
+        this.meterRegistry = meterRegistry;
+        this.tripCatalog = tripCatalog;
+        this.tripOccupancyEnabled = tripOccupancyEnabled;
+        this.seatClaimTimer = Timer.builder("booking.seat.claim")
+                .description("Time spent claiming seats on a trip inventory")
+                .register(meterRegistry);
+        this.seatConflictCounter = Counter.builder("booking.seat.conflicts")
+                .description("Seat claims which found fewer free seats than requested")
+                .register(meterRegistry);
+        this.reservedCounter = Counter.builder("booking.reservations")
+                .description("Reservation requests by outcome")
+                .tag("outcome", "reserved")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("booking.reservations")
+                .description("Reservation requests by outcome")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        this.ticketCounter = Counter.builder("booking.tickets")
+                .description("Tickets issued")
+                .register(meterRegistry);
+        this.cancellationCounter = Counter.builder("booking.cancellations")
+                .description("Tickets cancelled")
+                .register(meterRegistry);
+        this.batchRollbackCounter = Counter.builder("booking.batch.rollbacks")
+                .description("All-or-nothing batches rolled back")
+                .register(meterRegistry);
+        this.soldOutRejectionCounter = Counter.builder("booking.admission.rejections")
+                .description("Requests turned away by admission control by reason")
+                .tag("reason", "sold-out")
+                .register(meterRegistry);
+        this.overloadRejectionCounter = Counter.builder("booking.admission.rejections")
+                .description("Requests turned away by admission control by reason")
+                .tag("reason", "overloaded")
+                .register(meterRegistry);
+        FunctionCounter.builder("booking.seat.claim.retries", tripCatalog, MicrometerBookingMetrics::sumClaimRetries)
+                .description("Seat claims retried after losing a compare-and-set race")
+                .register(meterRegistry);
+        FunctionCounter.builder("booking.availability.cache.requests", availabilityCache, AvailabilityCache::getHitCount)
+                .description("Availability queries by cache result")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("booking.availability.cache.requests", availabilityCache, AvailabilityCache::getMissCount)
+                .description("Availability queries by cache result")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("booking.availability.seats.scanned", availabilityCache, AvailabilityCache::getScannedSeatCount)
+                .description("Seats scanned while answering availability queries")
+                .register(meterRegistry);
+        Gauge.builder("booking.occupancy", tripCatalog, MicrometerBookingMetrics::occupancy)
+                .description("Share of seat segments sold over all trips")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordSeatClaim(Trip trip, long elapsedNanos, boolean claimed) {
+        seatClaimTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (!claimed) {
+            seatConflictCounter.increment();
+        }
+        if (tripOccupancyEnabled && !tripOccupancyGauges.containsKey(trip.getTripId())) {
+            tripOccupancyGauges.computeIfAbsent(trip.getTripId(), tripId ->
+                    Gauge.builder("booking.trip.occupancy", tripCatalog, catalog -> occupancy(catalog.getTrip(tripId)))
+                            .description("Share of seat segments sold on a trip")
+                            .tag("trip", tripId)
+                            .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public void recordReservation(Trip trip, int ticketCount) {
+        reservedCounter.increment();
+        ticketCounter.increment(ticketCount);
+    }
+
+    @Override
+    public void recordRejection() {
+        rejectedCounter.increment();
+    }
+
+    @Override
+    public void recordCancellation(Trip trip) {
+        cancellationCounter.increment();
+    }
+
+    @Override
+    public void recordBatchRollback() {
+        batchRollbackCounter.increment();
+    }
+
+    @Override
+    public void recordAdmissionRejection(boolean soldOut) {
+        (soldOut ? soldOutRejectionCounter : overloadRejectionCounter).increment();
+    }
+
+    @Override
+    public void recordTripRemoval(Trip trip) {
+        final Gauge gauge = tripOccupancyGauges.remove(trip.getTripId());
+        if (gauge != null) {
+            meterRegistry.remove(gauge);
+        }
+    }
+
+    private static double sumClaimRetries(TripCatalog tripCatalog) {
+        long claimRetries = 0;
+        for (Trip trip : tripCatalog.getTrips()) {
+            claimRetries += trip.getInventory().getClaimRetryCount();
+        }
+        return claimRetries;
+    }
+
+    private static double occupancy(TripCatalog tripCatalog) {
+        long occupiedSegments = 0;
+        long segments = 0;
+        for (Trip trip : tripCatalog.getTrips()) {
+            final SeatInventory inventory = trip.getInventory();
+            occupiedSegments += inventory.getOccupiedSegmentCount();
+            segments += (long) inventory.getSeatCount() * inventory.getSegmentCount();
+        }
+        return segments == 0 ? Double.NaN : (double) occupiedSegments / segments;
+    }
+
+    private static double occupancy(Trip trip) {
+        if (trip == null) {
+            return Double.NaN;
+        }
+        final SeatInventory inventory = trip.getInventory();
+        return (double) inventory.getOccupiedSegmentCount() / ((long) inventory.getSeatCount() * inventory.getSegmentCount());
+    }
+}
@@ -0,0 +1,34 @@
+package com.bookingbus.bookingbus.pricing;
+
+import com.bookingbus.bookingbus.trip.Trip;
+
+public interface PricingEngine {
+    /**
+     * Calculate the total fare for travelling between two stops of a trip, including any load based surcharge
+     *
+     * @param trip               trip to travel on
+     * @param originStop         ordinal of the origin stop on the trip
+     * @param destinationStop    ordinal of the destination stop on the trip
+     * @param passengerCount     number of passengers
+     * @param availableSeatCount seats still available for the segments before this booking
+     * @return total fare in minor currency units
+     */
+    long calculateFare(Trip trip, int originStop, int destinationStop, int passengerCount, int availableSeatCount);
+
+    /**
+     * Override the fare of one origin and destination pair on a single trip
+     *
+     * @param trip        trip to override the fare for
+     * @param origin      origin stop
+     * @param destination destination stop
+     * @param unitFare    fare per passenger in minor currency units
+     */
+    void overrideFare(Trip trip, char origin, char destination, long unitFare);
+
+    /**
+     * Drop the fares and fare overrides of a trip removed from the catalog
+     *
+     * @param trip removed trip
+     */
+    void evict(Trip trip);
+}
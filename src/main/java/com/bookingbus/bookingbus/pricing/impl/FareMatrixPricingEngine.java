@@ -0,0 +1,151 @@
+package com.bookingbus.bookingbus.pricing.impl;
+
+import com.bookingbus.bookingbus.pricing.PricingEngine;
+import com.bookingbus.bookingbus.trip.Trip;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pricing engine backed by a stop-by-stop fare table loaded at startup. The table is held as a
+ * primitive matrix indexed by stop ordinal, and every trip gets its own copy indexed by the trip's
+ * stop ordinals, so pricing a booking is one array read. Fare overrides replace the trip matrix
+ * instead of mutating it, so readers never observe a half written matrix.
+ */
+@Slf4j
+@Service
+public class FareMatrixPricingEngine implements PricingEngine {
+    private static final long NO_FARE = -1;
+    private static final int MAX_STOP = 128;
+    private final int[] stopOrdinals = new int[MAX_STOP];
+    private final long[] fareMatrix;
+    private final int stopCount;
+    private final Map<String, long[]> tripFares = new ConcurrentHashMap<>(1024);
+    private final int surchargeOccupancyPercent;
+    private final int surchargePercent;
+
+    @Autowired
+    public FareMatrixPricingEngine(@Value("${booking.pricing.fare-table:classpath:fares.csv}") Resource fareTable,
+                                   @Value("${booking.pricing.surcharge-occupancy-percent:80}") int surchargeOccupancyPercent,
+                                   @Value("${booking.pricing.surcharge-percent:0}") int surchargePercent) {
+        Arrays.fill(stopOrdinals, -1);
+        final long[][] fares = readFareTable(fareTable);
+        this.stopCount = fares.length;
+        this.fareMatrix = new long[stopCount * stopCount];
+        for (int i = 0; i < stopCount; i++) {
+            System.arraycopy(fares[i], 0, fareMatrix, i * stopCount, stopCount);
+        }
+        this.surchargeOccupancyPercent = surchargeOccupancyPercent;
+        this.surchargePercent = surchargePercent;
+        log.debug("Fare table loaded for {} stops", stopCount);
+    }
+
+    @Override
+    public long calculateFare(Trip trip, int originStop, int destinationStop, int passengerCount, int availableSeatCount) {
+        final int tripStopCount = trip.getStops().length();
+        final long unitFare = tripFares.computeIfAbsent(trip.getTripId(), tripId -> createTripFares(trip))[originStop * tripStopCount + destinationStop];
+        if (unitFare == NO_FARE) {
+            throw new IllegalArgumentException("Invalid route");
+        }
+        long total = unitFare * passengerCount;
+        final int seatCount = trip.getInventory().getSeatCount();
+        if (surchargePercent > 0 && (seatCount - availableSeatCount) * 100L >= (long) seatCount * surchargeOccupancyPercent) {
+            total += total * surchargePercent / 100;
+        }
+        return total;
+    }
+
+    @Override
+    public void overrideFare(Trip trip, char origin, char destination, long unitFare) {
+        final int originStop = trip.stopOrdinal(origin);
+        final int destinationStop = trip.stopOrdinal(destination);
+        if (originStop < 0 || destinationStop < 0 || originStop == destinationStop) {
+            throw new IllegalArgumentException("Invalid origin or destination");
+        }
+        if (unitFare < 0) {
+            throw new IllegalArgumentException("Fare must not be negative");
+        }
+        final int tripStopCount = trip.getStops().length();
+        tripFares.compute(trip.getTripId(), (tripId, fares) -> {
+            final long[] updated = fares == null ? createTripFares(trip) : fares.clone();
+            updated[originStop * tripStopCount + destinationStop] = unitFare;
+            return updated;
+        });
+        log.debug("Fare from {} to {} on trip {} overridden to {}", origin, destination, trip.getTripId(), unitFare);
+    }
+
+    @Override
+    public void evict(Trip trip) {
+        tripFares.remove(trip.getTripId());
+    }
+
+    private long[] createTripFares(Trip trip) {
+        final String stops = trip.getStops();
+        final long[] fares = new long[stops.length() * stops.length()];
+        for (int i = 0; i < stops.length(); i++) {
+            for (int j = 0; j < stops.length(); j++) {
+                fares[i * stops.length() + j] = fare(stops.charAt(i), stops.charAt(j));
+            }
+        }
+        return fares;
+    }
+
+    private long fare(char origin, char destination) {
+        if (origin >= MAX_STOP || destination >= MAX_STOP || stopOrdinals[origin] < 0 || stopOrdinals[destination] < 0) {
+            return NO_FARE;
+        }
+        return fareMatrix[stopOrdinals[origin] * stopCount + stopOrdinals[destination]];
+    }
+
+    private long[][] readFareTable(Resource fareTable) {
+        final long[][] fares = new long[MAX_STOP][MAX_STOP];
+        for (long[] row : fares) {
+            Arrays.fill(row, NO_FARE);
+        }
+        int count = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(fareTable.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                final String[] columns = line.split(",");
+                if (columns.length != 3 || columns[0].trim().length() != 1 || columns[1].trim().length() != 1) {
+                    throw new IllegalStateException("Invalid fare table entry: " + line);
+                }
+                final char origin = columns[0].trim().charAt(0);
+                final char destination = columns[1].trim().charAt(0);
+                if (origin >= MAX_STOP || destination >= MAX_STOP) {
+                    throw new IllegalStateException("Invalid fare table entry: " + line);
+                }
+                final long unitFare = Long.parseLong(columns[2].trim());
+                for (char stop : new char[]{origin, destination}) {
+                    if (stopOrdinals[stop] < 0) {
+                        stopOrdinals[stop] = count++;
+                    }
+                }
+                fares[stopOrdinals[origin]][stopOrdinals[destination]] = unitFare;
+                fares[stopOrdinals[destination]][stopOrdinals[origin]] = unitFare;
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to read fare table", exception);
+        }
+        final long[][] used = new long[count][];
+        for (int i = 0; i < count; i++) {
+            used[i] = Arrays.copyOf(fares[i], count);
+        }
+        return used;
+    }
+}
@@ -1,10 +1,19 @@
 package com.bookingbus.bookingbus.service;
 
+import com.bookingbus.bookingbus.availability.AvailabilityQuote;
 import com.bookingbus.bookingbus.dto.AvailabilityAndPriceResponseDTO;
+import com.bookingbus.bookingbus.dto.BatchReservationRequestDTO;
+import com.bookingbus.bookingbus.dto.BatchReservationResponseDTO;
+import com.bookingbus.bookingbus.dto.HoldConfirmationDTO;
+import com.bookingbus.bookingbus.dto.SeatHoldResponseDTO;
+import com.bookingbus.bookingbus.dto.TicketCancellationResponseDTO;
 import com.bookingbus.bookingbus.dto.TicketReservationRequestDTO;
 import com.bookingbus.bookingbus.dto.TicketReservationResponseDTO;
+import com.bookingbus.bookingbus.dto.TripTransferDTO;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public interface BookingService {
     /**
@@ -17,6 +26,41 @@ public interface BookingService {
      */
     AvailabilityAndPriceResponseDTO checkAvailabilityAndPrice(Integer numberOfPassengers, Character origin, Character destination);
 
+    /**
+     * Check availability and price on a specific trip for given number of passengers, origin and destination
+     *
+     * @param tripId             trip id, or null to use the default trip for the direction of travel
+     * @param numberOfPassengers number of passengers
+     * @param origin             origin
+     * @param destination        destination
+     * @return AvailabilityAndPriceResponseDTO containing available seats and total price
+     */
+    AvailabilityAndPriceResponseDTO checkAvailabilityAndPrice(String tripId, Integer numberOfPassengers, Character origin, Character destination);
+
+    /**
+     * Get the seats available between two stops of a trip. The returned list is shared and stays the same
+     * instance until the availability of the route changes.
+     *
+     * @param tripId      trip id, or null to use the default trip for the direction of travel
+     * @param origin      origin
+     * @param destination destination
+     * @return unmodifiable list of available seat numbers
+     */
+    List<String> getAvailableSeats(String tripId, char origin, char destination);
+
+    /**
+     * Watch the seats available between two stops of a trip. The listener is called on the booking thread
+     * after every change, and once more when the trip is removed from this node, so it should only signal
+     * the change and read the seats with {@link #getAvailableSeats(String, char, char)} elsewhere.
+     *
+     * @param tripId      trip id, or null to use the default trip for the direction of travel
+     * @param origin      origin
+     * @param destination destination
+     * @param listener    listener to call on changes
+     * @return action which stops calling the listener
+     */
+    Runnable watchAvailability(String tripId, char origin, char destination, Runnable listener);
+
     /**
      * Reserve tickets based on the reservation request
      *
@@ -24,4 +68,87 @@ public interface BookingService {
      * @return TicketReservationResponseDTO containing reserved ticket details
      */
     TicketReservationResponseDTO reserveTickets(TicketReservationRequestDTO reservationRequestDTO);
+
+    /**
+     * Reserve tickets for a batch of reservation requests in one pass. When the batch is all-or-nothing
+     * a single failed reservation rolls back every seat claimed by the batch.
+     *
+     * @param batchRequestDTO batch of reservation requests
+     * @return BatchReservationResponseDTO containing the result of each reservation request
+     */
+    BatchReservationResponseDTO reserveTicketsInBatch(BatchReservationRequestDTO batchRequestDTO);
+
+    /**
+     * Hold seats for a reservation request while the customer pays. The seats are returned to the
+     * inventory when the hold is released or not confirmed before it expires.
+     *
+     * @param reservationRequestDTO reservation request details
+     * @return SeatHoldResponseDTO containing the hold id, held seats, quoted price and expiry time
+     */
+    SeatHoldResponseDTO holdSeats(TicketReservationRequestDTO reservationRequestDTO);
+
+    /**
+     * Issue tickets for the seats of a hold at the price quoted when the seats were held
+     *
+     * @param holdId          hold id
+     * @param confirmationDTO confirmation that the customer accepted the quoted price
+     * @return TicketReservationResponseDTO containing reserved ticket details
+     */
+    TicketReservationResponseDTO confirmHold(String holdId, HoldConfirmationDTO confirmationDTO);
+
+    /**
+     * Release the seats of a hold without issuing tickets
+     *
+     * @param holdId hold id
+     */
+    void releaseHold(String holdId);
+
+    /**
+     * Check seat availability and price on a trip, returning the shared availability snapshot rather than a
+     * response DTO so the caller can encode the response or reuse a body encoded from the same snapshot
+     *
+     * @param tripId             trip id, or null to select the default trip for the direction
+     * @param numberOfPassengers number of passengers
+     * @param origin             origin stop
+     * @param destination        destination stop
+     * @return AvailabilityQuote containing the available seats and the total fare
+     */
+    AvailabilityQuote quoteAvailability(String tripId, Integer numberOfPassengers, Character origin, Character destination);
+
+    /**
+     * Cancel a ticket and return its seat segments to the inventory so they can be sold again
+     *
+     * @param ticketNumber ticket number
+     * @return TicketCancellationResponseDTO containing the cancelled seat and the refunded fare
+     */
+    TicketCancellationResponseDTO cancelTicket(Integer ticketNumber);
+
+    /**
+     * Create the default up and down journeys when this node owns them and does not hold them yet
+     */
+    void createDefaultTrips();
+
+    /**
+     * Copy a trip with its sold seats and tickets so it can be handed over to another node. Active holds on
+     * the trip are released first.
+     *
+     * @param tripId trip id
+     * @return trip with its sold seats and tickets
+     */
+    TripTransferDTO exportTrip(String tripId);
+
+    /**
+     * Recreate a trip handed over by another node with its sold seats and tickets
+     *
+     * @param transfer trip with its sold seats and tickets
+     * @throws IllegalStateException if the trip is already held by this node
+     */
+    void importTrip(TripTransferDTO transfer);
+
+    /**
+     * Remove a trip which was handed over to another node
+     *
+     * @param tripId trip id
+     */
+    void removeTrip(String tripId);
 }
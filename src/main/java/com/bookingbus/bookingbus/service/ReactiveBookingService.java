@@ -0,0 +1,40 @@
+package com.bookingbus.bookingbus.service;
+
+import com.bookingbus.bookingbus.dto.AvailabilityAndPriceResponseDTO;
+import com.bookingbus.bookingbus.dto.AvailabilityUpdateDTO;
+import com.bookingbus.bookingbus.dto.TicketReservationRequestDTO;
+import com.bookingbus.bookingbus.dto.TicketReservationResponseDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveBookingService {
+    /**
+     * Check availability and price on a trip for given number of passengers, origin and destination
+     *
+     * @param tripId             trip id, or null to use the default trip for the direction of travel
+     * @param numberOfPassengers number of passengers
+     * @param origin             origin
+     * @param destination        destination
+     * @return Mono emitting the available seats and total price
+     */
+    Mono<AvailabilityAndPriceResponseDTO> checkAvailabilityAndPrice(String tripId, Integer numberOfPassengers, Character origin, Character destination);
+
+    /**
+     * Reserve tickets based on the reservation request
+     *
+     * @param reservationRequestDTO reservation request details
+     * @return Mono emitting the reserved ticket details
+     */
+    Mono<TicketReservationResponseDTO> reserveTickets(TicketReservationRequestDTO reservationRequestDTO);
+
+    /**
+     * Stream the seats available between two stops of a trip. The current seats are emitted on subscription
+     * and then again every time they change.
+     *
+     * @param tripId      trip id, or null to use the default trip for the direction of travel
+     * @param origin      origin
+     * @param destination destination
+     * @return Flux emitting the available seats whenever they change
+     */
+    Flux<AvailabilityUpdateDTO> streamAvailability(String tripId, Character origin, Character destination);
+}
@@ -1,196 +1,609 @@
 package com.bookingbus.bookingbus.service.impl;
 
+import com.bookingbus.bookingbus.allocation.SeatAllocationStrategy;
+import com.bookingbus.bookingbus.audit.BookingAuditTrail;
+import com.bookingbus.bookingbus.availability.AvailabilityCache;
+import com.bookingbus.bookingbus.availability.AvailabilityQuote;
+import com.bookingbus.bookingbus.availability.AvailabilitySnapshot;
+import com.bookingbus.bookingbus.cluster.ClusterMembership;
+import com.bookingbus.bookingbus.cluster.ClusterNode;
 import com.bookingbus.bookingbus.dto.AvailabilityAndPriceResponseDTO;
-import com.bookingbus.bookingbus.dto.ReservationDTO;
+import com.bookingbus.bookingbus.dto.BatchReservationRequestDTO;
+import com.bookingbus.bookingbus.dto.BatchReservationResponseDTO;
+import com.bookingbus.bookingbus.dto.BatchReservationResultDTO;
+import com.bookingbus.bookingbus.dto.HoldConfirmationDTO;
+import com.bookingbus.bookingbus.dto.SeatHoldResponseDTO;
+import com.bookingbus.bookingbus.dto.TicketCancellationResponseDTO;
 import com.bookingbus.bookingbus.dto.TicketReservationRequestDTO;
 import com.bookingbus.bookingbus.dto.TicketReservationResponseDTO;
+import com.bookingbus.bookingbus.dto.TicketTransferDTO;
+import com.bookingbus.bookingbus.dto.TripTransferDTO;
+import com.bookingbus.bookingbus.hold.SeatHold;
+import com.bookingbus.bookingbus.hold.SeatHoldManager;
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import com.bookingbus.bookingbus.journal.JournalReplayHandler;
+import com.bookingbus.bookingbus.journal.ReservationJournal;
+import com.bookingbus.bookingbus.metrics.BookingMetrics;
+import com.bookingbus.bookingbus.pricing.PricingEngine;
 import com.bookingbus.bookingbus.service.BookingService;
+import com.bookingbus.bookingbus.ticket.TicketIndex;
+import com.bookingbus.bookingbus.ticket.TicketRecord;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.Trip;
+import com.bookingbus.bookingbus.trip.TripCatalog;
+import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Service
 public class BookingServiceImpl implements BookingService {
-    private static final char A = 'A';
-    private static final char B = 'B';
-    private static final char C = 'C';
-    private static final char D = 'D';
-    private final ReservationDTO[][] upJourney = new ReservationDTO[4][10];
-    private final ReservationDTO[][] downJourney = new ReservationDTO[4][10];
-    private final AtomicBoolean isWriting = new AtomicBoolean(false);
-    private final AtomicBoolean isReading = new AtomicBoolean(false);
-    private final AtomicInteger ticketNumberCounter = new AtomicInteger(0);
-    private final Object lock = new Object();
-
-    public BookingServiceImpl() {
-        initiateSeats();
-        log.debug("Empty Seats allocated for both journeys");
-    }
-
-    private void initiateSeats() {
-        for (int i = 0; i < upJourney.length; i++) {
-            char seatRow;
-            if (i == 0) {
-                seatRow = A;
-            } else if (i == 1) {
-                seatRow = B;
-            } else if (i == 2) {
-                seatRow = C;
-            } else {
-                seatRow = D;
-            }
-            for (int j = 0; j < upJourney[i].length; j++) {
-                int seat = j + 1;
-                String seatNumber = seatRow + String.valueOf(seat);
-                upJourney[i][j] = new ReservationDTO(0, seatNumber, ' ', ' ');
-                downJourney[i][j] = new ReservationDTO(0, seatNumber, ' ', ' ');
+    public static final String UP_JOURNEY_TRIP_ID = "UP";
+    public static final String DOWN_JOURNEY_TRIP_ID = "DOWN";
+    private static final double MINOR_UNITS_PER_UNIT = 100.0;
+    private static final SeatLayout DEFAULT_SEAT_LAYOUT = new SeatLayout(4, 10);
+    private static final int MAX_ALLOCATION_ATTEMPTS = 3;
+    private final TripCatalog tripCatalog;
+    private final PricingEngine pricingEngine;
+    private final ReservationJournal reservationJournal;
+    private final AvailabilityCache availabilityCache;
+    private final BookingMetrics bookingMetrics;
+    private final BookingAuditTrail bookingAuditTrail;
+    private final SeatHoldManager seatHoldManager;
+    private final SeatAllocationStrategy seatAllocationStrategy;
+    private final TicketIndex ticketIndex;
+    private final ClusterMembership clusterMembership;
+    private final AtomicInteger ticketNumberCounter;
+    private final int lastTicketNumber;
+
+    @Autowired
+    public BookingServiceImpl(TripCatalog tripCatalog, PricingEngine pricingEngine, ReservationJournal reservationJournal,
+                              AvailabilityCache availabilityCache, BookingMetrics bookingMetrics, BookingAuditTrail bookingAuditTrail,
+                              SeatHoldManager seatHoldManager, SeatAllocationStrategy seatAllocationStrategy, TicketIndex ticketIndex,
+                              ClusterMembership clusterMembership) {
+        this.tripCatalog = tripCatalog;
+        this.pricingEngine = pricingEngine;
+        this.reservationJournal = reservationJournal;
+        this.availabilityCache = availabilityCache;
+        this.bookingMetrics = bookingMetrics;
+        this.bookingAuditTrail = bookingAuditTrail;
+        this.seatHoldManager = seatHoldManager;
+        this.seatAllocationStrategy = seatAllocationStrategy;
+        this.ticketIndex = ticketIndex;
+        this.clusterMembership = clusterMembership;
+        this.ticketNumberCounter = new AtomicInteger(clusterMembership.getLocalNode().getIndex() * ClusterMembership.TICKET_NUMBERS_PER_NODE);
+        this.lastTicketNumber = (int) Math.min((clusterMembership.getLocalNode().getIndex() + 1L) * ClusterMembership.TICKET_NUMBERS_PER_NODE,
+                Integer.MAX_VALUE);
+        reservationJournal.restore(new JournalReplayHandler() {
+            @Override
+            public void onTrip(String tripId, String stops, LocalDateTime departureTime, SeatLayout seatLayout) {
+                tripCatalog.addTrip(tripId, stops, departureTime, seatLayout);
+            }
+
+            @Override
+            public void onSeat(String tripId, int seat, long segmentMask) {
+                tripCatalog.getTrip(tripId).getInventory().claimSeat(seat, segmentMask);
+            }
+
+            @Override
+            public void onTicket(String tripId, int ticketNumber, int seat, long segmentMask, long fare, boolean cancelled) {
+                ticketIndex.addTicket(ticketNumber, tripId, seat, segmentMask, fare, cancelled);
+            }
+
+            @Override
+            public void onCancellation(String tripId, int ticketNumber, int seat, long segmentMask) {
+                ticketIndex.cancel(ticketNumber);
+                tripCatalog.getTrip(tripId).getInventory().releaseSeat(seat, segmentMask);
+            }
+
+            @Override
+            public void onTripRemoved(String tripId) {
+                tripCatalog.removeTrip(tripId);
+            }
+
+            @Override
+            public void onTicketNumber(int lastTicketNumber) {
+                ticketNumberCounter.accumulateAndGet(lastTicketNumber, Math::max);
+            }
+        });
+        createDefaultTrips();
+    }
+
+    /**
+     * Get the id of the default trip for a direction of travel
+     *
+     * @param origin      origin stop
+     * @param destination destination stop
+     * @return id of the up journey when travelling forward, else of the down journey
+     */
+    public static String defaultTripId(char origin, char destination) {
+        return origin <= destination ? UP_JOURNEY_TRIP_ID : DOWN_JOURNEY_TRIP_ID;
+    }
+
+    /**
+     * Creates the default trips owned by this node which are not held yet. In a cluster this waits until the
+     * placement is settled, as an owned trip may still be on its way from the node which held it before.
+     */
+    @Override
+    public synchronized void createDefaultTrips() {
+        createDefaultTrip(UP_JOURNEY_TRIP_ID, "ABCD");
+        createDefaultTrip(DOWN_JOURNEY_TRIP_ID, "DCBA");
+    }
+
+    private void createDefaultTrip(String tripId, String stops) {
+        if (tripCatalog.getTrip(tripId) != null || !clusterMembership.isSettled()) {
+            return;
+        }
+        final ClusterNode owner = clusterMembership.getOwner(tripId);
+        if (owner != null && owner.getIndex() == clusterMembership.getLocalNode().getIndex()) {
+            tripCatalog.addTrip(tripId, stops, LocalDate.now().atStartOfDay(), DEFAULT_SEAT_LAYOUT);
+            log.debug("Empty Seats allocated for trip {}", tripId);
+        }
+    }
+
+    /**
+     * Releases the holds of the trip first, so the exported seats are only the ones sold with tickets. The
+     * caller must keep bookings on the trip out until it is removed.
+     */
+    @Override
+    public TripTransferDTO exportTrip(String tripId) {
+        final Trip trip = tripCatalog.getTrip(tripId);
+        if (trip == null) {
+            throw new IllegalArgumentException("Invalid trip");
+        }
+        final int releasedHolds = seatHoldManager.releaseHolds(trip);
+        final SeatInventory inventory = trip.getInventory();
+        final long[] occupiedSegments = new long[inventory.getSeatCount()];
+        for (int seat = 0; seat < occupiedSegments.length; seat++) {
+            occupiedSegments[seat] = inventory.getOccupiedSegments(seat);
+        }
+        final List<TicketRecord> tickets = ticketIndex.getTickets(tripId);
+        final List<TicketTransferDTO> ticketTransfers = new ArrayList<>(tickets.size());
+        for (TicketRecord ticket : tickets) {
+            ticketTransfers.add(new TicketTransferDTO(ticket.getTicketNumber(), ticket.getSeat(), ticket.getSegmentMask(),
+                    ticket.getFare(), ticket.isCancelled()));
+        }
+        log.debug("Exported trip {} with {} tickets after releasing {} holds", tripId, tickets.size(), releasedHolds);
+        return new TripTransferDTO(trip.getTripId(), trip.getStops(), trip.getDepartureTime(), trip.getSeatLayout().getRows(),
+                trip.getSeatLayout().getSeatsPerRow(), occupiedSegments, ticketTransfers);
+    }
+
+    /**
+     * Recreates the trip with its sold seats and tickets, then journals them, so the trip survives a restart
+     * of this node once the sender has removed its copy.
+     */
+    @Override
+    public synchronized void importTrip(TripTransferDTO transfer) {
+        if (transfer == null || transfer.getTripId() == null || transfer.getSeatRows() == null || transfer.getSeatsPerRow() == null
+                || transfer.getOccupiedSegments() == null || transfer.getTickets() == null) {
+            throw new IllegalArgumentException("Invalid trip transfer");
+        }
+        final SeatLayout seatLayout = new SeatLayout(transfer.getSeatRows(), transfer.getSeatsPerRow());
+        if (transfer.getOccupiedSegments().length != seatLayout.getSeatCount()) {
+            throw new IllegalArgumentException("Invalid trip transfer");
+        }
+        if (tripCatalog.getTrip(transfer.getTripId()) != null) {
+            throw new IllegalStateException("Trip " + transfer.getTripId() + " is already held");
+        }
+        final Trip trip = tripCatalog.addTrip(transfer.getTripId(), transfer.getStops(), transfer.getDepartureTime(), seatLayout);
+        final long[] occupiedSegments = transfer.getOccupiedSegments();
+        for (int seat = 0; seat < occupiedSegments.length; seat++) {
+            if (occupiedSegments[seat] != 0) {
+                trip.getInventory().claimSeat(seat, occupiedSegments[seat]);
             }
         }
+        final List<TicketRecord> tickets = new ArrayList<>(transfer.getTickets().size());
+        for (TicketTransferDTO ticket : transfer.getTickets()) {
+            ticketIndex.addTicket(ticket.getTicketNumber(), trip.getTripId(), ticket.getSeat(), ticket.getSegmentMask(),
+                    ticket.getFare(), ticket.isCancelled());
+            tickets.add(new TicketRecord(ticket.getTicketNumber(), trip.getTripId(), ticket.getSeat(), ticket.getSegmentMask(),
+                    ticket.getFare(), ticket.isCancelled()));
+        }
+        reservationJournal.recordTripImport(trip, occupiedSegments, tickets);
+        log.debug("Imported trip {} with {} tickets", trip.getTripId(), tickets.size());
+    }
+
+    /**
+     * Removes the trip from the catalog, the availability cache and the metrics. Its tickets stay in the ticket index, so a
+     * cancellation received by this node can still find the trip and be routed to its new owner.
+     */
+    @Override
+    public synchronized void removeTrip(String tripId) {
+        final Trip trip = tripCatalog.removeTrip(tripId);
+        if (trip != null) {
+            availabilityCache.evict(trip);
+            pricingEngine.evict(trip);
+            bookingMetrics.recordTripRemoval(trip);
+        }
     }
 
     @Override
     public AvailabilityAndPriceResponseDTO checkAvailabilityAndPrice(Integer numberOfPassengers, Character origin, Character destination) {
+        return checkAvailabilityAndPrice(null, numberOfPassengers, origin, destination);
+    }
+
+    @Override
+    public AvailabilityAndPriceResponseDTO checkAvailabilityAndPrice(String tripId, Integer numberOfPassengers, Character origin, Character destination) {
+        final AvailabilityQuote quote = quoteAvailability(tripId, numberOfPassengers, origin, destination);
+        return new AvailabilityAndPriceResponseDTO(quote.getSnapshot().getAvailableSeatCount(), quote.getSnapshot().getSeatNumbers(),
+                quote.getTotalPrice());
+    }
+
+    @Override
+    public AvailabilityQuote quoteAvailability(String tripId, Integer numberOfPassengers, Character origin, Character destination) {
         if (numberOfPassengers <= 0) {
             throw new IllegalArgumentException("Number of passengers must be greater than zero");
         }
-        if (!isValidTown(origin) || !isValidTown(destination)) {
-            throw new IllegalArgumentException("Invalid origin or destination");
+        final Trip trip = selectTrip(tripId, origin, destination);
+        if (log.isDebugEnabled()) {
+            log.debug("Getting available seats for trip {} from {} to {}", trip.getTripId(), origin, destination);
         }
-        final List<String> availableSeats = getAvailableSeats(origin, destination).stream().map(ReservationDTO::getSeatNumber).toList();
-        if (availableSeats.size() < numberOfPassengers) {
-            String message = availableSeats.size() == 0 ? "Sorry! No seats available" : "Sorry! Only " + availableSeats.size() + " seats available";
+        final AvailabilitySnapshot snapshot = availabilityCache.getAvailability(trip, trip.stopOrdinal(origin), trip.stopOrdinal(destination));
+        final int availableSeatCount = snapshot.getAvailableSeatCount();
+        if (availableSeatCount < numberOfPassengers) {
+            String message = availableSeatCount == 0 ? "Sorry! No seats available" : "Sorry! Only " + availableSeatCount + " seats available";
             throw new IllegalArgumentException(message);
         }
-        double totalPrice = calculatePrice(origin, destination, numberOfPassengers);
-        return new AvailabilityAndPriceResponseDTO(availableSeats.size(), availableSeats, totalPrice);
+        final long totalFare = pricingEngine.calculateFare(trip, trip.stopOrdinal(origin), trip.stopOrdinal(destination),
+                numberOfPassengers, availableSeatCount);
+        return new AvailabilityQuote(trip, numberOfPassengers, totalFare, toPrice(totalFare), snapshot);
     }
 
     @Override
     public TicketReservationResponseDTO reserveTickets(TicketReservationRequestDTO reservationRequestDTO) {
-        if (reservationRequestDTO == null || reservationRequestDTO.getPassengerCount() <= 0) {
+        SeatClaim seatClaim = null;
+        final int firstTicketNumber;
+        try {
+            seatClaim = claimSeats(reservationRequestDTO);
+            firstTicketNumber = nextTicketNumbers(seatClaim.seats.length);
+        } catch (IllegalArgumentException exception) {
+            if (seatClaim != null) {
+                releaseSeats(seatClaim);
+            }
+            bookingMetrics.recordRejection();
+            bookingAuditTrail.recordRejection(reservationRequestDTO, exception.getMessage());
+            throw exception;
+        }
+        return issueTickets(seatClaim, firstTicketNumber);
+    }
+
+    @Override
+    public SeatHoldResponseDTO holdSeats(TicketReservationRequestDTO reservationRequestDTO) {
+        final SeatClaim seatClaim;
+        try {
+            seatClaim = claimSeats(reservationRequestDTO);
+        } catch (IllegalArgumentException exception) {
+            bookingMetrics.recordRejection();
+            bookingAuditTrail.recordRejection(reservationRequestDTO, exception.getMessage());
+            throw exception;
+        }
+        final SeatHold seatHold = seatHoldManager.hold(seatClaim.trip, seatClaim.origin, seatClaim.destination,
+                seatClaim.segmentMask, seatClaim.seats, seatClaim.totalFare);
+        final SeatInventory inventory = seatClaim.trip.getInventory();
+        final List<String> seatNumbers = new ArrayList<>(seatClaim.seats.length);
+        for (int seat : seatClaim.seats) {
+            seatNumbers.add(inventory.getSeatNumber(seat));
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Held {} seats on trip {} with hold {}", seatClaim.seats.length, seatClaim.trip.getTripId(), seatHold.getHoldId());
+        }
+        return new SeatHoldResponseDTO(seatHold.getHoldId(), seatClaim.trip.getTripId(), seatNumbers, seatClaim.origin,
+                seatClaim.destination, toPrice(seatClaim.totalFare), Instant.ofEpochMilli(seatHold.getExpiresAtMillis()));
+    }
+
+    @Override
+    public TicketReservationResponseDTO confirmHold(String holdId, HoldConfirmationDTO confirmationDTO) {
+        if (confirmationDTO == null || !confirmationDTO.isPriceConfirmation()) {
+            throw new IllegalArgumentException("Price must be confirmed");
+        }
+        final SeatHold seatHold = seatHoldManager.confirm(holdId);
+        final SeatClaim seatClaim = new SeatClaim(seatHold.getTrip(), seatHold.getOrigin(), seatHold.getDestination(),
+                seatHold.getSegmentMask(), seatHold.getSeats(), seatHold.getTotalFare());
+        final int firstTicketNumber;
+        try {
+            firstTicketNumber = nextTicketNumbers(seatClaim.seats.length);
+        } catch (IllegalArgumentException exception) {
+            releaseSeats(seatClaim);
+            throw exception;
+        }
+        return issueTickets(seatClaim, firstTicketNumber);
+    }
+
+    @Override
+    public void releaseHold(String holdId) {
+        seatHoldManager.release(holdId);
+        log.debug("Hold {} released", holdId);
+    }
+
+    /**
+     * Cancels a ticket through the ticket index, so the cost does not depend on the number of tickets issued.
+     * The cancellation is journalled before the segments are released, and releasing them refreshes the
+     * availability cache, so the seat can be resold as soon as this returns. If the journal fails the ticket
+     * is marked as not cancelled again and its seat stays sold.
+     */
+    @Override
+    public TicketCancellationResponseDTO cancelTicket(Integer ticketNumber) {
+        if (ticketNumber == null || ticketNumber <= 0) {
+            throw new IllegalArgumentException("Invalid ticket number");
+        }
+        final TicketRecord issuedTicket = ticketIndex.getTicket(ticketNumber);
+        final Trip trip = issuedTicket == null ? null : tripCatalog.getTrip(issuedTicket.getTripId());
+        if (trip == null) {
+            throw new IllegalArgumentException("Invalid ticket number");
+        }
+        final TicketRecord ticket = ticketIndex.cancel(ticketNumber);
+        try {
+            reservationJournal.recordCancellation(trip, ticketNumber, ticket.getSeat(), ticket.getSegmentMask());
+        } catch (RuntimeException exception) {
+            ticketIndex.revertCancellation(ticketNumber);
+            throw exception;
+        }
+        trip.getInventory().releaseSeat(ticket.getSeat(), ticket.getSegmentMask());
+        bookingMetrics.recordCancellation(trip);
+        final char origin = trip.getStops().charAt(Long.numberOfTrailingZeros(ticket.getSegmentMask()));
+        final char destination = trip.getStops().charAt(Long.SIZE - Long.numberOfLeadingZeros(ticket.getSegmentMask()));
+        final TicketCancellationResponseDTO cancellation = new TicketCancellationResponseDTO(ticketNumber, trip.getTripId(),
+                trip.getInventory().getSeatNumber(ticket.getSeat()), origin, destination, toPrice(ticket.getFare()));
+        bookingAuditTrail.recordCancellation(cancellation);
+        if (log.isDebugEnabled()) {
+            log.debug("Cancelled ticket {} on trip {} for seat {} from {} to {}, refund {}", ticketNumber, trip.getTripId(),
+                    cancellation.getSeatNumber(), origin, destination, cancellation.getRefundAmount());
+        }
+        return cancellation;
+    }
+
+    @Override
+    public BatchReservationResponseDTO reserveTicketsInBatch(BatchReservationRequestDTO batchRequestDTO) {
+        if (batchRequestDTO == null || batchRequestDTO.getReservations() == null || batchRequestDTO.getReservations().isEmpty()) {
+            throw new IllegalArgumentException("Invalid batch reservation request");
+        }
+        final List<TicketReservationRequestDTO> reservations = batchRequestDTO.getReservations();
+        final SeatClaim[] seatClaims = new SeatClaim[reservations.size()];
+        final String[] errors = new String[reservations.size()];
+        int ticketCount = 0;
+        for (int i = 0; i < reservations.size(); i++) {
+            try {
+                seatClaims[i] = claimSeats(reservations.get(i));
+                ticketCount += seatClaims[i].seats.length;
+            } catch (IllegalArgumentException exception) {
+                errors[i] = exception.getMessage();
+                bookingMetrics.recordRejection();
+                bookingAuditTrail.recordRejection(reservations.get(i), errors[i]);
+                if (batchRequestDTO.isAllOrNothing()) {
+                    releaseSeats(seatClaims, i);
+                    bookingMetrics.recordBatchRollback();
+                    return rejectBatch(errors, i);
+                }
+            }
+        }
+        int nextTicketNumber;
+        try {
+            nextTicketNumber = nextTicketNumbers(ticketCount);
+        } catch (IllegalArgumentException exception) {
+            releaseSeats(seatClaims, seatClaims.length);
+            throw exception;
+        }
+        final List<BatchReservationResultDTO> results = new ArrayList<>(reservations.size());
+        int reservedCount = 0;
+        for (int i = 0; i < seatClaims.length; i++) {
+            if (seatClaims[i] == null) {
+                results.add(new BatchReservationResultDTO(i, false, null, errors[i]));
+                continue;
+            }
+            try {
+                results.add(new BatchReservationResultDTO(i, true, issueTickets(seatClaims[i], nextTicketNumber), null));
+            } catch (RuntimeException exception) {
+                // The failed claim is released by issueTickets, the claims after it are not issued
+                for (int j = i + 1; j < seatClaims.length; j++) {
+                    if (seatClaims[j] != null) {
+                        releaseSeats(seatClaims[j]);
+                    }
+                }
+                throw exception;
+            }
+            nextTicketNumber += seatClaims[i].seats.length;
+            reservedCount++;
+        }
+        log.debug("Reserved {} of {} batch reservations", reservedCount, reservations.size());
+        return new BatchReservationResponseDTO(reservedCount, reservations.size() - reservedCount, results);
+    }
+
+    private SeatClaim claimSeats(TicketReservationRequestDTO reservationRequestDTO) {
+        if (reservationRequestDTO == null || reservationRequestDTO.getPassengerCount() == null || reservationRequestDTO.getPassengerCount() <= 0
+                || reservationRequestDTO.getOrigin() == null || reservationRequestDTO.getDestination() == null) {
             throw new IllegalArgumentException("Invalid reservation request");
         }
-        final List<Integer> ticketNumbers = new ArrayList<>();
-        final List<String> seatNumbers = new ArrayList<>();
         char origin = reservationRequestDTO.getOrigin();
         char destination = reservationRequestDTO.getDestination();
         int passengerCount = reservationRequestDTO.getPassengerCount();
-        if (!isValidTown(origin) || !isValidTown(destination)) {
-            throw new IllegalArgumentException("Invalid origin or destination");
+        final Trip trip = selectTrip(reservationRequestDTO.getTripId(), origin, destination);
+        final SeatInventory inventory = trip.getInventory();
+        if (passengerCount > inventory.getSeatCount()) {
+            throw new IllegalArgumentException("Not enough available seats");
         }
-        final List<ReservationDTO> availableSeats = getAvailableSeats(reservationRequestDTO.getOrigin(), reservationRequestDTO.getDestination());
-        log.info("Available seats for reservation: {}", availableSeats.size());
-        if (availableSeats.size() < reservationRequestDTO.getPassengerCount()) {
+        final long segmentMask = segmentMask(trip, origin, destination);
+        final long totalFare = pricingEngine.calculateFare(trip, trip.stopOrdinal(origin), trip.stopOrdinal(destination),
+                passengerCount, inventory.countAvailableSeats(segmentMask));
+        final int[] seats = new int[passengerCount];
+        final long claimStart = System.nanoTime();
+        final boolean claimed = allocateSeats(trip, segmentMask, seats, passengerCount);
+        bookingMetrics.recordSeatClaim(trip, System.nanoTime() - claimStart, claimed);
+        if (!claimed) {
             throw new IllegalArgumentException("Not enough available seats");
         }
-        waitExecution(isReading, "Write");
-        isWriting.set(true);
-        for (int i = 0; i < passengerCount; i++) {
-            ReservationDTO seat = availableSeats.get(i);
-            int ticketNumber = ticketNumberCounter.addAndGet(1);
-            seat.setTicketNumber(ticketNumber);
-            seat.setOrigin(origin);
-            seat.setDestination(destination);
-            ticketNumbers.add(ticketNumber);
-            seatNumbers.add(seat.getSeatNumber());
-        }
-        isWriting.set(false);
-        notifyExecution("Write");
-        final double totalPrice = calculatePrice(origin, destination, passengerCount);
-        log.debug("Reserved {} tickets from {} to {}. Ticket Numbers: {}, Seat Numbers: {}, Total Price: {}",
-                passengerCount, origin, destination, ticketNumbers, seatNumbers, totalPrice);
-        return new TicketReservationResponseDTO(ticketNumbers, seatNumbers, origin, destination, totalPrice);
-    }
-
-    public List<ReservationDTO> getAvailableSeats(char origin, char destination) {
-        if (origin < destination) {
-            log.debug("Getting available seats from {} to {} and up journey selected", origin, destination);
-            return getAvailableSeats(origin, destination, upJourney);
-        } else if (origin > destination) {
-            log.debug("Getting available seats from {} to {} and down journey selected", origin, destination);
-            return getAvailableSeats(origin, destination, downJourney);
-        } else {
-            throw new IllegalArgumentException("Invalid origin or destination selection");
-        }
-    }
-
-    private List<ReservationDTO> getAvailableSeats(char origin, char destination, ReservationDTO[][] journey) {
-        log.debug("Getting available seats for journey from {} to {}", origin, destination);
-        waitExecution(isWriting, "Read");
-        isReading.set(true);
-        final List<ReservationDTO> availableSeats = new ArrayList<>();
-        for (ReservationDTO[] seat : journey) {
-            for (final ReservationDTO reservationDTO : seat) {
-                if (reservationDTO.getTicketNumber() > 0) {//already allocated seats
-                    if (origin < destination) {//for up journey
-                        if (reservationDTO.getDestination() <= origin) {
-                            availableSeats.add(reservationDTO);
-                        }
-                    } else {//for down journey
-                        if (origin <= reservationDTO.getDestination()) {
-                            availableSeats.add(reservationDTO);
-                        }
-                    }
-                } else {//available seats
-                    availableSeats.add(reservationDTO);
-                }
+        return new SeatClaim(trip, origin, destination, segmentMask, seats, totalFare);
+    }
+
+    /**
+     * Claims the seats chosen by the allocation strategy. When a concurrent booking takes one of the chosen
+     * seats first, the seats claimed so far are released and the strategy chooses again. After a few lost
+     * races, or when the strategy finds too few free seats, the first free seats are claimed instead.
+     */
+    private boolean allocateSeats(Trip trip, long segmentMask, int[] seats, int count) {
+        final SeatInventory inventory = trip.getInventory();
+        for (int attempt = 0; attempt < MAX_ALLOCATION_ATTEMPTS; attempt++) {
+            if (seatAllocationStrategy.selectSeats(inventory, trip.getSeatLayout(), segmentMask, seats, count) < count) {
+                break;
+            }
+            int claimed = 0;
+            while (claimed < count && inventory.claimSeat(seats[claimed], segmentMask)) {
+                claimed++;
+            }
+            if (claimed == count) {
+                return true;
+            }
+            for (int i = 0; i < claimed; i++) {
+                inventory.releaseSeat(seats[i], segmentMask);
             }
         }
-        isReading.set(false);
-        notifyExecution("Read");
-        return availableSeats;
-    }
-
-    private Double calculatePrice(char origin, char destination, int numberOfPassengers) {
-        double unitPrice;
-        if ((origin == A && destination == B) || (origin == B && destination == A)) {
-            unitPrice = 50.0;
-        } else if ((origin == A && destination == C) || (origin == C && destination == A)) {
-            unitPrice = 100.0;
-        } else if ((origin == A && destination == D) || (origin == D && destination == A)) {
-            unitPrice = 150.0;
-        } else if ((origin == B && destination == C) || (origin == C && destination == B)) {
-            unitPrice = 50.0;
-        } else if ((origin == B && destination == D) || (origin == D && destination == B)) {
-            unitPrice = 100.0;
-        } else if ((origin == C && destination == D) || (origin == D && destination == C)) {
-            unitPrice = 50.0;
-        } else {
-            throw new IllegalArgumentException("Invalid route");
-        }
-        double total = unitPrice * numberOfPassengers;
-        log.debug("Calculated total price: {} for journey from {} to {}", total, origin, destination);
-        return total;
-    }
-
-    private void waitExecution(AtomicBoolean flag, String operation) {
-        synchronized (lock) {
-            if (flag.get()) {
-                try {
-                    log.debug(operation + " operation waiting for other operation to complete");
-                    lock.wait();
-                } catch (InterruptedException e) {
-                    log.error("Thread interrupted while waiting for write operation to complete", e);
-                    throw new RuntimeException(e);
-                }
+        return inventory.claimSeats(segmentMask, seats, count);
+    }
+
+    /**
+     * Takes consecutive ticket numbers from the range of this node. The counter only moves when the whole
+     * run fits in the range, so a node which used up its range rejects bookings instead of issuing ticket
+     * numbers of the next node.
+     *
+     * @return first ticket number of the run
+     */
+    private int nextTicketNumbers(int count) {
+        final int previous = ticketNumberCounter.getAndUpdate(last -> last + (long) count <= lastTicketNumber ? last + count : last);
+        if (previous + (long) count > lastTicketNumber) {
+            throw new IllegalArgumentException("No ticket numbers left on this node");
+        }
+        return previous + 1;
+    }
+
+    private void releaseSeats(SeatClaim[] seatClaims, int count) {
+        for (int i = 0; i < count; i++) {
+            if (seatClaims[i] != null) {
+                releaseSeats(seatClaims[i]);
             }
         }
     }
 
-    public void notifyExecution(String operation) {
-        synchronized (lock) {
-            log.debug("Notify all the operation waiting for other operation to complete");
-            lock.notifyAll();
+    private void releaseSeats(SeatClaim seatClaim) {
+        final SeatInventory inventory = seatClaim.trip.getInventory();
+        for (int seat : seatClaim.seats) {
+            inventory.releaseSeat(seat, seatClaim.segmentMask);
         }
     }
 
-    private boolean isValidTown(char town) {
-        return town == A || town == B || town == C || town == D;
+    private BatchReservationResponseDTO rejectBatch(String[] errors, int failedIndex) {
+        final List<BatchReservationResultDTO> results = new ArrayList<>(errors.length);
+        for (int i = 0; i < errors.length; i++) {
+            String error = i == failedIndex ? errors[i] : "Batch rolled back";
+            results.add(new BatchReservationResultDTO(i, false, null, error));
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Batch of {} reservations rolled back due to reservation {}: {}", errors.length, failedIndex, errors[failedIndex]);
+        }
+        return new BatchReservationResponseDTO(0, errors.length, results);
+    }
+
+    /**
+     * Journals the tickets of claimed seats before adding them to the ticket index. If the journal fails the
+     * claimed seats are released again, so no seat stays sold without a ticket.
+     */
+    private TicketReservationResponseDTO issueTickets(SeatClaim seatClaim, int firstTicketNumber) {
+        final SeatInventory inventory = seatClaim.trip.getInventory();
+        final int passengerCount = seatClaim.seats.length;
+        final long[] fares = new long[passengerCount];
+        for (int i = 0; i < passengerCount; i++) {
+            fares[i] = seatClaim.totalFare / passengerCount + (i < seatClaim.totalFare % passengerCount ? 1 : 0);
+        }
+        try {
+            reservationJournal.recordTickets(seatClaim.trip, seatClaim.seats, passengerCount, seatClaim.segmentMask, fares, firstTicketNumber);
+        } catch (RuntimeException exception) {
+            releaseSeats(seatClaim);
+            bookingMetrics.recordRejection();
+            throw exception;
+        }
+        final List<Integer> ticketNumbers = new ArrayList<>(passengerCount);
+        final List<String> seatNumbers = new ArrayList<>(passengerCount);
+        for (int i = 0; i < passengerCount; i++) {
+            ticketIndex.addTicket(firstTicketNumber + i, seatClaim.trip.getTripId(), seatClaim.seats[i], seatClaim.segmentMask, fares[i], false);
+            ticketNumbers.add(firstTicketNumber + i);
+            seatNumbers.add(inventory.getSeatNumber(seatClaim.seats[i]));
+        }
+        bookingMetrics.recordReservation(seatClaim.trip, passengerCount);
+        final TicketReservationResponseDTO reservation = new TicketReservationResponseDTO(seatClaim.trip.getTripId(), ticketNumbers,
+                seatNumbers, seatClaim.origin, seatClaim.destination, toPrice(seatClaim.totalFare));
+        bookingAuditTrail.recordReservation(reservation);
+        if (log.isDebugEnabled()) {
+            log.debug("Reserved {} tickets on trip {} from {} to {}. Ticket Numbers: {}, Seat Numbers: {}, Total Price: {}",
+                    passengerCount, reservation.getTripId(), reservation.getOrigin(), reservation.getDestination(),
+                    ticketNumbers, seatNumbers, reservation.getTotalPrice());
+        }
+        return reservation;
+    }
+
+    public List<String> getAvailableSeats(char origin, char destination) {
+        return getAvailableSeats(null, origin, destination);
+    }
+
+    @Override
+    public List<String> getAvailableSeats(String tripId, char origin, char destination) {
+        return getAvailableSeatNumbers(selectTrip(tripId, origin, destination), origin, destination);
+    }
+
+    @Override
+    public Runnable watchAvailability(String tripId, char origin, char destination, Runnable listener) {
+        final Trip trip = selectTrip(tripId, origin, destination);
+        return availabilityCache.watchAvailability(trip, trip.stopOrdinal(origin), trip.stopOrdinal(destination), listener);
     }
 
+    private List<String> getAvailableSeatNumbers(Trip trip, char origin, char destination) {
+        if (log.isDebugEnabled()) {
+            log.debug("Getting available seats for trip {} from {} to {}", trip.getTripId(), origin, destination);
+        }
+        return availabilityCache.getAvailableSeats(trip, trip.stopOrdinal(origin), trip.stopOrdinal(destination));
+    }
+
+    private Trip selectTrip(String tripId, char origin, char destination) {
+        final Trip trip;
+        if (tripId != null) {
+            trip = tripCatalog.getTrip(tripId);
+            if (trip == null) {
+                throw new IllegalArgumentException("Invalid trip");
+            }
+        } else {
+            final String defaultTripId = defaultTripId(origin, destination);
+            log.debug("Getting available seats from {} to {} and trip {} selected", origin, destination, defaultTripId);
+            trip = tripCatalog.getTrip(defaultTripId);
+            if (trip == null) {
+                throw new IllegalArgumentException("Invalid trip");
+            }
+        }
+        if (trip.stopOrdinal(origin) < 0 || trip.stopOrdinal(destination) < 0) {
+            throw new IllegalArgumentException("Invalid origin or destination");
+        }
+        return trip;
+    }
+
+    private long segmentMask(Trip trip, char origin, char destination) {
+        return trip.getInventory().segmentMask(trip.stopOrdinal(origin), trip.stopOrdinal(destination));
+    }
+
+    private double toPrice(long fare) {
+        return fare / MINOR_UNITS_PER_UNIT;
+    }
+
+    @AllArgsConstructor
+    private static class SeatClaim {
+        private final Trip trip;
+        private final char origin;
+        private final char destination;
+        private final long segmentMask;
+        private final int[] seats;
+        private final long totalFare;
+    }
 }
@@ -0,0 +1,94 @@
+package com.bookingbus.bookingbus.service.impl;
+
+import com.bookingbus.bookingbus.dto.AvailabilityAndPriceResponseDTO;
+import com.bookingbus.bookingbus.dto.AvailabilityUpdateDTO;
+import com.bookingbus.bookingbus.dto.TicketReservationRequestDTO;
+import com.bookingbus.bookingbus.dto.TicketReservationResponseDTO;
+import com.bookingbus.bookingbus.service.BookingService;
+import com.bookingbus.bookingbus.service.ReactiveBookingService;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reactive facade over the booking service. Availability checks and reservations only use lock free
+ * in-memory structures and never wait for I/O, so they run directly on the subscribing thread. Live
+ * availability is pushed: every watched route has one change stream, shared by all its subscribers, which
+ * is fed by the availability cache whenever a seat of the route flips. Each subscriber keeps only the latest
+ * pending change, reads the seat list off the booking thread and emits it when its content differs from the
+ * last one sent, so an idle stream costs nothing and a burst of bookings collapses into one event.
+ */
+@Service
+public class ReactiveBookingServiceImpl implements ReactiveBookingService {
+    private final BookingService bookingService;
+    private final Scheduler availabilityScheduler;
+    private final ConcurrentMap<AvailabilityRoute, Flux<Boolean>> availabilityChanges = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReactiveBookingServiceImpl(BookingService bookingService) {
+        this(bookingService, Schedulers.parallel());
+    }
+
+    ReactiveBookingServiceImpl(BookingService bookingService, Scheduler availabilityScheduler) {
+        this.bookingService = bookingService;
+        this.availabilityScheduler = availabilityScheduler;
+    }
+
+    @Override
+    public Mono<AvailabilityAndPriceResponseDTO> checkAvailabilityAndPrice(String tripId, Integer numberOfPassengers, Character origin, Character destination) {
+        return Mono.fromCallable(() -> bookingService.checkAvailabilityAndPrice(tripId, numberOfPassengers, origin, destination));
+    }
+
+    @Override
+    public Mono<TicketReservationResponseDTO> reserveTickets(TicketReservationRequestDTO reservationRequestDTO) {
+        return Mono.fromCallable(() -> bookingService.reserveTickets(reservationRequestDTO));
+    }
+
+    @Override
+    public Flux<AvailabilityUpdateDTO> streamAvailability(String tripId, Character origin, Character destination) {
+        // Subscribes to the changes before the initial read, so a change in between is not lost
+        return Flux.merge(availabilityChanges(new AvailabilityRoute(tripId, origin, destination)), Mono.just(Boolean.TRUE))
+                .onBackpressureLatest()
+                .publishOn(availabilityScheduler, 1)
+                .map(change -> bookingService.getAvailableSeats(tripId, origin, destination))
+                .distinctUntilChanged()
+                .map(availableSeats -> toAvailabilityUpdate(tripId, origin, destination, availableSeats));
+    }
+
+    private Flux<Boolean> availabilityChanges(AvailabilityRoute route) {
+        return availabilityChanges.computeIfAbsent(route, key -> Flux.<Boolean>create(sink -> {
+                    final Runnable unwatch = bookingService.watchAvailability(key.tripId, key.origin, key.destination,
+                            () -> sink.next(Boolean.TRUE));
+                    sink.onDispose(unwatch::run);
+                }, FluxSink.OverflowStrategy.LATEST)
+                .doFinally(signal -> availabilityChanges.remove(key))
+                .publish()
+                .refCount());
+    }
+
+    private AvailabilityUpdateDTO toAvailabilityUpdate(String tripId, Character origin, Character destination, List<String> availableSeats) {
+        return new AvailabilityUpdateDTO(tripId, origin, destination, availableSeats.size(), availableSeats);
+    }
+
+    @EqualsAndHashCode
+    private static class AvailabilityRoute {
+        private final String tripId;
+        private final char origin;
+        private final char destination;
+
+        private AvailabilityRoute(String tripId, char origin, char destination) {
+            this.tripId = tripId;
+            this.origin = origin;
+            this.destination = destination;
+        }
+    }
+}
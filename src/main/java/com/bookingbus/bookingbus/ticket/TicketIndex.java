@@ -0,0 +1,50 @@
+package com.bookingbus.bookingbus.ticket;
+
+import java.util.List;
+
+public interface TicketIndex {
+    /**
+     * Register an issued ticket under its ticket number, replacing any ticket registered under the same number
+     *
+     * @param ticketNumber ticket number
+     * @param tripId       id of the trip the ticket is issued on
+     * @param seat         seat index
+     * @param segmentMask  segments sold with the ticket
+     * @param fare         fare paid for the ticket in minor currency units
+     * @param cancelled    true to register a ticket which was already cancelled
+     */
+    void addTicket(int ticketNumber, String tripId, int seat, long segmentMask, long fare, boolean cancelled);
+
+    /**
+     * Find a ticket by ticket number
+     *
+     * @param ticketNumber ticket number
+     * @return the ticket, or null if no ticket is registered with the number
+     */
+    TicketRecord getTicket(int ticketNumber);
+
+    /**
+     * Collect every ticket registered on a trip, including cancelled tickets. This scans the whole index and
+     * is meant for moving a trip, not for the booking path.
+     *
+     * @param tripId trip id
+     * @return tickets of the trip in ticket number order
+     */
+    List<TicketRecord> getTickets(String tripId);
+
+    /**
+     * Atomically mark a ticket as cancelled. Only one caller can cancel a given ticket.
+     *
+     * @param ticketNumber ticket number
+     * @return the cancelled ticket
+     */
+    TicketRecord cancel(int ticketNumber);
+
+    /**
+     * Atomically undo the cancellation of a ticket whose cancellation could not be completed, so the ticket
+     * can be cancelled again
+     *
+     * @param ticketNumber ticket number
+     */
+    void revertCancellation(int ticketNumber);
+}
@@ -0,0 +1,18 @@
+package com.bookingbus.bookingbus.ticket;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Seat and route segments sold with a single ticket, and the fare paid for it.
+ */
+@Getter
+@AllArgsConstructor
+public class TicketRecord {
+    private final int ticketNumber;
+    private final String tripId;
+    private final int seat;
+    private final long segmentMask;
+    private final long fare;
+    private final boolean cancelled;
+}
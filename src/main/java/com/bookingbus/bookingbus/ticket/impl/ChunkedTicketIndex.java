@@ -0,0 +1,162 @@
+package com.bookingbus.bookingbus.ticket.impl;
+
+import com.bookingbus.bookingbus.ticket.TicketIndex;
+import com.bookingbus.bookingbus.ticket.TicketRecord;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ticket index addressed directly by ticket number. Ticket numbers are issued consecutively, so the index
+ * is a table of fixed size chunks allocated on first use, and a lookup is two array reads with no hashing
+ * or boxing. Each ticket is packed into one long holding the trip ordinal, seat, origin and destination
+ * stop and a cancelled flag, with the fare kept in a parallel array; a cancellation is a single
+ * compare-and-set of the packed ticket, so a ticket can only be cancelled once. Trips are referenced by
+ * id rather than by instance, so tickets stay valid when their trip is moved to another node and back.
+ */
+@Service
+public class ChunkedTicketIndex implements TicketIndex {
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int STOP_BITS = 6;
+    private static final int STOP_MASK = (1 << STOP_BITS) - 1;
+    private static final int SEAT_SHIFT = 2 * STOP_BITS;
+    private static final int MAX_SEAT = (1 << (Integer.SIZE - SEAT_SHIFT)) - 1;
+    private static final long CANCELLED = Long.MIN_VALUE;
+    private final AtomicReferenceArray<Chunk> chunks = new AtomicReferenceArray<>((Integer.MAX_VALUE >>> CHUNK_BITS) + 1);
+    private final Map<String, Integer> tripOrdinals = new ConcurrentHashMap<>();
+    private final List<String> tripIds = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void addTicket(int ticketNumber, String tripId, int seat, long segmentMask, long fare, boolean cancelled) {
+        if (ticketNumber <= 0) {
+            throw new IllegalArgumentException("Invalid ticket number");
+        }
+        if (seat > MAX_SEAT) {
+            throw new IllegalArgumentException("Seat " + seat + " cannot be indexed");
+        }
+        final long ticket = ((long) (tripOrdinal(tripId) + 1) << Integer.SIZE) | ((long) seat << SEAT_SHIFT)
+                | ((long) Long.numberOfTrailingZeros(segmentMask) << STOP_BITS) | (Long.SIZE - Long.numberOfLeadingZeros(segmentMask));
+        final Chunk chunk = chunk(ticketNumber);
+        final int slot = ticketNumber & CHUNK_MASK;
+        chunk.fares[slot] = fare;
+        chunk.tickets.set(slot, cancelled ? ticket | CANCELLED : ticket);
+    }
+
+    @Override
+    public TicketRecord getTicket(int ticketNumber) {
+        final Chunk chunk = ticketNumber > 0 ? chunks.get(ticketNumber >>> CHUNK_BITS) : null;
+        if (chunk == null) {
+            return null;
+        }
+        final int slot = ticketNumber & CHUNK_MASK;
+        final long ticket = chunk.tickets.get(slot);
+        return ticket == 0 ? null : toTicketRecord(ticketNumber, ticket, chunk.fares[slot]);
+    }
+
+    @Override
+    public List<TicketRecord> getTickets(String tripId) {
+        final Integer ordinal = tripOrdinals.get(tripId);
+        final List<TicketRecord> tickets = new ArrayList<>();
+        if (ordinal == null) {
+            return tickets;
+        }
+        for (int index = 0; index < chunks.length(); index++) {
+            final Chunk chunk = chunks.get(index);
+            if (chunk == null) {
+                continue;
+            }
+            for (int slot = 0; slot < CHUNK_SIZE; slot++) {
+                final long ticket = chunk.tickets.get(slot);
+                if (ticket != 0 && (int) ((ticket & ~CANCELLED) >>> Integer.SIZE) - 1 == ordinal) {
+                    tickets.add(toTicketRecord((index << CHUNK_BITS) | slot, ticket, chunk.fares[slot]));
+                }
+            }
+        }
+        return tickets;
+    }
+
+    @Override
+    public TicketRecord cancel(int ticketNumber) {
+        final Chunk chunk = ticketNumber > 0 ? chunks.get(ticketNumber >>> CHUNK_BITS) : null;
+        if (chunk == null) {
+            throw new IllegalArgumentException("Invalid ticket number");
+        }
+        final int slot = ticketNumber & CHUNK_MASK;
+        long ticket = chunk.tickets.get(slot);
+        while (true) {
+            if (ticket == 0) {
+                throw new IllegalArgumentException("Invalid ticket number");
+            }
+            if ((ticket & CANCELLED) != 0) {
+                throw new IllegalArgumentException("Ticket already cancelled");
+            }
+            final long witness = chunk.tickets.compareAndExchange(slot, ticket, ticket | CANCELLED);
+            if (witness == ticket) {
+                break;
+            }
+            ticket = witness;
+        }
+        return toTicketRecord(ticketNumber, ticket | CANCELLED, chunk.fares[slot]);
+    }
+
+    @Override
+    public void revertCancellation(int ticketNumber) {
+        final Chunk chunk = ticketNumber > 0 ? chunks.get(ticketNumber >>> CHUNK_BITS) : null;
+        if (chunk == null) {
+            throw new IllegalArgumentException("Invalid ticket number");
+        }
+        final int slot = ticketNumber & CHUNK_MASK;
+        long ticket = chunk.tickets.get(slot);
+        while ((ticket & CANCELLED) != 0) {
+            final long witness = chunk.tickets.compareAndExchange(slot, ticket, ticket & ~CANCELLED);
+            if (witness == ticket) {
+                return;
+            }
+            ticket = witness;
+        }
+    }
+
+    private TicketRecord toTicketRecord(int ticketNumber, long ticket, long fare) {
+        final String tripId = tripIds.get((int) ((ticket & ~CANCELLED) >>> Integer.SIZE) - 1);
+        final int originStop = (int) (ticket >>> STOP_BITS) & STOP_MASK;
+        final int destinationStop = (int) ticket & STOP_MASK;
+        return new TicketRecord(ticketNumber, tripId, (int) ticket >>> SEAT_SHIFT,
+                (1L << destinationStop) - (1L << originStop), fare, (ticket & CANCELLED) != 0);
+    }
+
+    private Chunk chunk(int ticketNumber) {
+        final int index = ticketNumber >>> CHUNK_BITS;
+        final Chunk chunk = chunks.get(index);
+        if (chunk != null) {
+            return chunk;
+        }
+        final Chunk created = new Chunk();
+        final Chunk witness = chunks.compareAndExchange(index, null, created);
+        return witness == null ? created : witness;
+    }
+
+    private int tripOrdinal(String tripId) {
+        final Integer ordinal = tripOrdinals.get(tripId);
+        return ordinal != null ? ordinal : addTrip(tripId);
+    }
+
+    private synchronized int addTrip(String tripId) {
+        return tripOrdinals.computeIfAbsent(tripId, key -> {
+            tripIds.add(key);
+            return tripIds.size() - 1;
+        });
+    }
+
+    private static class Chunk {
+        private final AtomicLongArray tickets = new AtomicLongArray(CHUNK_SIZE);
+        private final long[] fares = new long[CHUNK_SIZE];
+    }
+}
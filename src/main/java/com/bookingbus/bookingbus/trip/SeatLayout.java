@@ -0,0 +1,44 @@
+package com.bookingbus.bookingbus.trip;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Seat arrangement of a bus. Rows are lettered from A and seats are numbered from 1 within a row,
+ * giving seat numbers such as A1 or D10.
+ */
+@Getter
+@EqualsAndHashCode
+public class SeatLayout {
+    /**
+     * Largest number of seats on a bus, as a ticket keeps the seat index in 20 bits
+     */
+    public static final int MAX_SEATS = 1 << 20;
+    private static final int MAX_ROWS = 26;
+    private final int rows;
+    private final int seatsPerRow;
+
+    public SeatLayout(int rows, int seatsPerRow) {
+        if (rows <= 0 || rows > MAX_ROWS || seatsPerRow <= 0 || seatsPerRow > MAX_SEATS / rows) {
+            throw new IllegalArgumentException("Invalid seat layout");
+        }
+        this.rows = rows;
+        this.seatsPerRow = seatsPerRow;
+    }
+
+    public int getSeatCount() {
+        return rows * seatsPerRow;
+    }
+
+    public String[] createSeatNumbers() {
+        final String[] seatNumbers = new String[getSeatCount()];
+        for (int i = 0; i < rows; i++) {
+            char seatRow = (char) ('A' + i);
+            for (int j = 0; j < seatsPerRow; j++) {
+                int seat = j + 1;
+                seatNumbers[i * seatsPerRow + j] = seatRow + String.valueOf(seat);
+            }
+        }
+        return seatNumbers;
+    }
+}
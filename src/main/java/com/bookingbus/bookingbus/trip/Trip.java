@@ -0,0 +1,25 @@
+package com.bookingbus.bookingbus.trip;
+
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A single departure of a bus along a route. The stops are kept in travel order, so a stop ordinal
+ * is also the index of the first route segment leaving that stop.
+ */
+@Getter
+@AllArgsConstructor
+public class Trip {
+    private final String tripId;
+    private final String stops;
+    private final LocalDateTime departureTime;
+    private final SeatLayout seatLayout;
+    private final SeatInventory inventory;
+
+    public int stopOrdinal(char stop) {
+        return stops.indexOf(stop);
+    }
+}
@@ -0,0 +1,40 @@
+package com.bookingbus.bookingbus.trip;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface TripCatalog {
+    /**
+     * Register a new trip with an empty seat inventory
+     *
+     * @param tripId        unique trip id
+     * @param stops         stops of the route in travel order, one character per stop
+     * @param departureTime departure time from the first stop
+     * @param seatLayout    seat arrangement of the bus
+     * @return the registered trip
+     */
+    Trip addTrip(String tripId, String stops, LocalDateTime departureTime, SeatLayout seatLayout);
+
+    /**
+     * Remove a trip and its seat inventory, such as after the trip was handed over to another node
+     *
+     * @param tripId trip id
+     * @return the removed trip, or null if no trip is registered with the id
+     */
+    Trip removeTrip(String tripId);
+
+    /**
+     * Find a trip by id
+     *
+     * @param tripId trip id
+     * @return the trip, or null if no trip is registered with the id
+     */
+    Trip getTrip(String tripId);
+
+    /**
+     * Get all the registered trips
+     *
+     * @return registered trips
+     */
+    Collection<Trip> getTrips();
+}
@@ -0,0 +1,90 @@
+package com.bookingbus.bookingbus.trip.impl;
+
+import com.bookingbus.bookingbus.inventory.impl.SegmentSeatInventory;
+import com.bookingbus.bookingbus.journal.ReservationJournal;
+import com.bookingbus.bookingbus.journal.impl.NoOpReservationJournal;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.Trip;
+import com.bookingbus.bookingbus.trip.TripCatalog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trip catalog holding every trip and its seat inventory in memory. Lookups never lock and each trip
+ * owns its inventory, so bookings on different trips share no mutable state. Seat number arrays are
+ * shared between trips with the same seat layout.
+ */
+@Slf4j
+@Service
+public class InMemoryTripCatalog implements TripCatalog {
+    private final Map<String, Trip> trips = new ConcurrentHashMap<>(1024);
+    private final Map<SeatLayout, String[]> seatNumbersByLayout = new ConcurrentHashMap<>();
+    private final ReservationJournal reservationJournal;
+
+    public InMemoryTripCatalog() {
+        this(new NoOpReservationJournal());
+    }
+
+    @Autowired
+    public InMemoryTripCatalog(ReservationJournal reservationJournal) {
+        this.reservationJournal = reservationJournal;
+    }
+
+    @Override
+    public Trip addTrip(String tripId, String stops, LocalDateTime departureTime, SeatLayout seatLayout) {
+        if (tripId == null || tripId.isBlank()) {
+            throw new IllegalArgumentException("Invalid trip id");
+        }
+        if (!isValidRoute(stops)) {
+            throw new IllegalArgumentException("Invalid route");
+        }
+        final String[] seatNumbers = seatNumbersByLayout.computeIfAbsent(seatLayout, SeatLayout::createSeatNumbers);
+        final Trip trip = new Trip(tripId, stops, departureTime, seatLayout,
+                new SegmentSeatInventory(seatNumbers, stops.length() - 1));
+        // Journalled inside the mapping function, so bookings only see the trip once it is journalled and a
+        // failed journal append leaves no trip behind
+        trips.compute(tripId, (id, existing) -> {
+            if (existing != null) {
+                throw new IllegalArgumentException("Trip " + tripId + " already exists");
+            }
+            reservationJournal.recordTrip(trip);
+            return trip;
+        });
+        log.debug("Trip {} added for route {} departing at {}", tripId, stops, departureTime);
+        return trip;
+    }
+
+    @Override
+    public Trip removeTrip(String tripId) {
+        final Trip trip = trips.remove(tripId);
+        if (trip != null) {
+            reservationJournal.recordTripRemoval(trip);
+            log.debug("Trip {} removed", tripId);
+        }
+        return trip;
+    }
+
+    @Override
+    public Trip getTrip(String tripId) {
+        return trips.get(tripId);
+    }
+
+    @Override
+    public Collection<Trip> getTrips() {
+        return Collections.unmodifiableCollection(trips.values());
+    }
+
+    private boolean isValidRoute(String stops) {
+        if (stops == null || stops.length() < 2 || stops.length() > Long.SIZE) {
+            return false;
+        }
+        return stops.chars().distinct().count() == stops.length();
+    }
+}
@@ -0,0 +1,113 @@
+package com.bookingbus.bookingbus.web;
+
+import com.bookingbus.bookingbus.hold.SeatHold;
+import com.bookingbus.bookingbus.service.impl.BookingServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Trip and journey a booking request is for, read from its path, query parameters or JSON body before it
+ * reaches a controller. A request without a trip id is for the default trip of its direction of travel, a
+ * batch is taken as being for the trip of its first reservation, and a hold request is for the trip named
+ * by the hold id.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingRequestTarget {
+    private static final String HOLDS_PATH = "/booking/holds/";
+    private static final String TRIPS_PATH = "/trips";
+    private final String tripId;
+    private final Character origin;
+    private final Character destination;
+    private final int passengerCount;
+
+    /**
+     * Read the target of a request
+     *
+     * @param request      request with its body
+     * @param objectMapper mapper reading the JSON body
+     * @return target of the request, with a null trip id if the request does not name a trip
+     */
+    public static BookingRequestTarget of(CachedBodyRequest request, ObjectMapper objectMapper) {
+        final String path = request.getPath();
+        if (path.startsWith(HOLDS_PATH)) {
+            final String holdId = segment(path, HOLDS_PATH.length());
+            return forTrip(holdId.isEmpty() ? null : SeatHold.tripIdOf(URLDecoder.decode(holdId, StandardCharsets.UTF_8)));
+        }
+        if (path.startsWith(TRIPS_PATH + "/")) {
+            final String tripId = segment(path, TRIPS_PATH.length() + 1);
+            return forTrip(tripId.isEmpty() ? null : URLDecoder.decode(tripId, StandardCharsets.UTF_8));
+        }
+        JsonNode reservation = readBody(request.getBody(), objectMapper);
+        if (reservation != null && reservation.has("reservations")) {
+            reservation = reservation.path("reservations").path(0);
+        }
+        final String tripId = parameter(request, reservation, "tripId");
+        if (path.equals(TRIPS_PATH)) {
+            return forTrip(tripId);
+        }
+        final Character origin = toStop(parameter(request, reservation, "origin"));
+        final Character destination = toStop(parameter(request, reservation, "destination"));
+        final String passengerCount = request.getParameter("numberOfPassengers") != null
+                ? request.getParameter("numberOfPassengers") : text(reservation, "passengerCount");
+        if (tripId == null && (origin == null || destination == null)) {
+            return forTrip(null);
+        }
+        return new BookingRequestTarget(tripId != null ? tripId : BookingServiceImpl.defaultTripId(origin, destination),
+                origin, destination, parsePassengerCount(passengerCount));
+    }
+
+    /**
+     * @return true if the request names both stops of a journey
+     */
+    public boolean hasJourney() {
+        return origin != null && destination != null;
+    }
+
+    private static BookingRequestTarget forTrip(String tripId) {
+        return new BookingRequestTarget(tripId, null, null, 0);
+    }
+
+    private static JsonNode readBody(byte[] body, ObjectMapper objectMapper) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException exception) {
+            return null;
+        }
+    }
+
+    private static String parameter(CachedBodyRequest request, JsonNode body, String name) {
+        return request.getParameter(name) != null ? request.getParameter(name) : text(body, name);
+    }
+
+    private static String text(JsonNode node, String field) {
+        final JsonNode value = node == null ? null : node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static Character toStop(String stop) {
+        return stop == null || stop.isEmpty() ? null : stop.charAt(0);
+    }
+
+    private static int parsePassengerCount(String value) {
+        try {
+            return value == null ? 0 : Integer.parseInt(value);
+        } catch (NumberFormatException exception) {
+            return 0;
+        }
+    }
+
+    private static String segment(String path, int start) {
+        final int end = path.indexOf('/', start);
+        return end < 0 ? path.substring(start) : path.substring(start, end);
+    }
+}
@@ -0,0 +1,92 @@
+package com.bookingbus.bookingbus.web;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Request whose body was read up front, so filters can inspect it and the controller can still read it.
+ */
+public class CachedBodyRequest extends HttpServletRequestWrapper {
+    private static final byte[] EMPTY_BODY = new byte[0];
+    private final byte[] body;
+
+    private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+        super(request);
+        this.body = body;
+    }
+
+    /**
+     * Read the body of a POST or PUT request, unless an earlier filter already did
+     *
+     * @param request request
+     * @return request with a body which can be read any number of times
+     * @throws IOException if the body cannot be read
+     */
+    public static CachedBodyRequest of(HttpServletRequest request) throws IOException {
+        if (request instanceof CachedBodyRequest cachedBodyRequest) {
+            return cachedBodyRequest;
+        }
+        final boolean hasBody = "POST".equals(request.getMethod()) || "PUT".equals(request.getMethod());
+        return new CachedBodyRequest(request, hasBody ? request.getInputStream().readAllBytes() : EMPTY_BODY);
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * Get the path of the request within the application
+     *
+     * @return request URI without the context path
+     */
+    public String getPath() {
+        return getRequestURI().substring(getContextPath().length());
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        final ByteArrayInputStream input = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override
+            public boolean isFinished() {
+                return input.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                throw new UnsupportedOperationException("Request body is already read");
+            }
+
+            @Override
+            public int read() {
+                return input.read();
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                return input.read(buffer, offset, length);
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        final String encoding = getCharacterEncoding();
+        return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+    }
+}
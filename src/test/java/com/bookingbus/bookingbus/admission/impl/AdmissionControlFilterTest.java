@@ -0,0 +1,150 @@
+package com.bookingbus.bookingbus.admission.impl;
+
+import com.bookingbus.bookingbus.admission.Admission;
+import com.bookingbus.bookingbus.availability.impl.IncrementalAvailabilityCache;
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import com.bookingbus.bookingbus.metrics.impl.MicrometerBookingMetrics;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.Trip;
+import com.bookingbus.bookingbus.trip.impl.InMemoryTripCatalog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.testng.Assert.*;
+
+public class AdmissionControlFilterTest {
+
+    private InMemoryTripCatalog tripCatalog;
+    private WaitingRoomAdmissionController admissionController;
+    private AdmissionControlFilter admissionControlFilter;
+    private Trip trip;
+
+    @BeforeMethod
+    public void setUp() {
+        tripCatalog = new InMemoryTripCatalog();
+        trip = tripCatalog.addTrip("T1", "ABC", LocalDateTime.now(), new SeatLayout(1, 2));
+        createFilter(0, Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void testSoldOutReadRejectedWithRetryAfter() throws Exception {
+        final SeatInventory inventory = trip.getInventory();
+        for (int seat = 0; seat < inventory.getSeatCount(); seat++) {
+            inventory.claimSeat(seat, inventory.segmentMask(0, 2));
+        }
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/booking/availability-and-price");
+        request.addParameter("tripId", "T1");
+        request.addParameter("origin", "A");
+        request.addParameter("destination", "B");
+        request.addParameter("numberOfPassengers", "1");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final MockFilterChain filterChain = new MockFilterChain();
+
+        admissionControlFilter.doFilter(request, response, filterChain);
+
+        assertEquals(response.getStatus(), 429);
+        assertEquals(response.getHeader("Retry-After"), "30");
+        assertEquals(response.getContentAsString(), "Sorry! No seats available");
+        assertNull(filterChain.getRequest(), "Request did not reach the controller");
+    }
+
+    @Test
+    public void testBookingHoldsSlotUntilCompleted() throws Exception {
+        final MockHttpServletResponse crowdedResponse = new MockHttpServletResponse();
+        final FilterChain filterChain = (request, response) -> {
+            assertEquals(admissionController.getOccupancy("T1"), 1);
+            assertEquals(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8), body(),
+                    "Body still readable by the controller");
+            admissionControlFilter.doFilter(booking(), crowdedResponse, new MockFilterChain());
+        };
+
+        admissionControlFilter.doFilter(booking(), new MockHttpServletResponse(), filterChain);
+
+        assertEquals(crowdedResponse.getStatus(), 429, "Second booking rejected while the only slot is taken");
+        assertEquals(crowdedResponse.getHeader("Retry-After"), "1");
+        assertEquals(admissionController.getOccupancy("T1"), 0);
+    }
+
+    @Test
+    public void testWaitingBookingHoldsNoThread() throws Exception {
+        createFilter(1, Duration.ofSeconds(5));
+        final Admission running = admissionController.admitBooking(trip, 0, 2).join();
+        final MockHttpServletRequest request = booking();
+        request.setAsyncSupported(true);
+        final MockFilterChain filterChain = new MockFilterChain();
+
+        admissionControlFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertTrue(request.isAsyncStarted(), "Waiting booking returned its thread");
+        assertNull(filterChain.getRequest());
+        final MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        running.release();
+        assertEquals(asyncContext.getDispatchedPath(), "/booking/tickets", "Booking resumed once the slot was free");
+        assertEquals(admissionController.getOccupancy("T1"), 1);
+        asyncContext.complete();
+        assertEquals(admissionController.getOccupancy("T1"), 0, "Slot released when the resumed booking completed");
+    }
+
+    @Test
+    public void testWaitingBookingRejectedAfterMaxWait() throws Exception {
+        createFilter(1, Duration.ofMillis(50));
+        final Admission running = admissionController.admitBooking(trip, 0, 2).join();
+        final MockHttpServletRequest request = booking();
+        request.setAsyncSupported(true);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        admissionControlFilter.doFilter(request, response, new MockFilterChain());
+
+        final long deadline = System.currentTimeMillis() + 5_000;
+        while (response.getStatus() != 429) {
+            assertTrue(System.currentTimeMillis() < deadline, "Waiting booking turned away");
+            Thread.sleep(10);
+        }
+        assertEquals(response.getHeader("Retry-After"), "1");
+        running.release();
+        assertEquals(admissionController.getOccupancy("T1"), 0);
+    }
+
+    @Test
+    public void testUnknownTripPassedThrough() throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/booking/availability-and-price");
+        request.addParameter("tripId", "T404");
+        request.addParameter("origin", "A");
+        request.addParameter("destination", "B");
+        final MockFilterChain filterChain = new MockFilterChain();
+
+        admissionControlFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertNotNull(filterChain.getRequest());
+    }
+
+    private void createFilter(int waitingRoomCapacity, Duration maxWait) {
+        IncrementalAvailabilityCache availabilityCache = new IncrementalAvailabilityCache();
+        admissionController = new WaitingRoomAdmissionController(availabilityCache,
+                new MicrometerBookingMetrics(new SimpleMeterRegistry(), tripCatalog, availabilityCache, false), 1, waitingRoomCapacity, maxWait,
+                Duration.ofSeconds(30));
+        admissionControlFilter = new AdmissionControlFilter(admissionController, tripCatalog, new ObjectMapper());
+    }
+
+    private static MockHttpServletRequest booking() {
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/booking/tickets");
+        request.setContentType("application/json");
+        request.setContent(body().getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static String body() {
+        return "{\"tripId\":\"T1\",\"passengerCount\":1,\"origin\":\"A\",\"destination\":\"C\",\"priceConfirmation\":true}";
+    }
+}
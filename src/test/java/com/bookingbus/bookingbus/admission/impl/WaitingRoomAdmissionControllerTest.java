@@ -0,0 +1,148 @@
+package com.bookingbus.bookingbus.admission.impl;
+
+import com.bookingbus.bookingbus.admission.Admission;
+import com.bookingbus.bookingbus.availability.impl.IncrementalAvailabilityCache;
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import com.bookingbus.bookingbus.metrics.impl.MicrometerBookingMetrics;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.Trip;
+import com.bookingbus.bookingbus.trip.impl.InMemoryTripCatalog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+public class WaitingRoomAdmissionControllerTest {
+
+    private static final Duration MAX_WAIT = Duration.ofSeconds(5);
+    private InMemoryTripCatalog tripCatalog;
+    private IncrementalAvailabilityCache availabilityCache;
+    private SimpleMeterRegistry meterRegistry;
+    private Trip trip;
+
+    @BeforeMethod
+    public void setUp() {
+        tripCatalog = new InMemoryTripCatalog();
+        trip = tripCatalog.addTrip("T1", "ABC", LocalDateTime.now(), new SeatLayout(1, 2));
+        availabilityCache = new IncrementalAvailabilityCache();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void testAdmitRead_SoldOutJourneyRejected() {
+        final WaitingRoomAdmissionController admissionController = admissionController(2, 0, MAX_WAIT);
+        sellOut(0, 1);
+
+        final Admission soldOut = admissionController.admitRead(trip, 0, 1);
+        assertFalse(soldOut.isAdmitted());
+        assertEquals(soldOut.getRetryAfterSeconds(), 30);
+        assertEquals(soldOut.getMessage(), "Sorry! No seats available");
+        assertTrue(admissionController.admitRead(trip, 1, 2).isAdmitted(), "Other stretch of the trip still has seats");
+        assertFalse(admissionController.admitBooking(trip, 0, 2).join().isAdmitted());
+        assertEquals(meterRegistry.get("booking.admission.rejections").tag("reason", "sold-out").counter().count(), 2.0);
+    }
+
+    @Test
+    public void testAdmitBooking_WaitsForSlotInArrivalOrder() {
+        final WaitingRoomAdmissionController admissionController = admissionController(1, 2, MAX_WAIT);
+        final Admission first = admissionController.admitBooking(trip, 0, 2).join();
+        assertTrue(first.isAdmitted());
+
+        final CompletableFuture<Admission> second = admissionController.admitBooking(trip, 0, 2);
+        final CompletableFuture<Admission> third = admissionController.admitBooking(trip, 0, 2);
+        assertFalse(second.isDone(), "Booking waits while the slot is taken");
+        assertFalse(third.isDone());
+        assertEquals(admissionController.getOccupancy("T1"), 3);
+
+        first.release();
+        assertTrue(second.join().isAdmitted(), "Slot handed to the first booking waiting");
+        assertFalse(third.isDone());
+        second.join().release();
+        assertTrue(third.join().isAdmitted());
+        third.join().release();
+        assertEquals(admissionController.getOccupancy("T1"), 0);
+    }
+
+    @Test
+    public void testAdmitBooking_FullWaitingRoomRejected() {
+        final WaitingRoomAdmissionController admissionController = admissionController(1, 0, MAX_WAIT);
+        final Admission first = admissionController.admitBooking(trip, 0, 2).join();
+
+        final Admission rejected = admissionController.admitBooking(trip, 0, 2).join();
+        assertFalse(rejected.isAdmitted());
+        assertTrue(rejected.getRetryAfterSeconds() >= 1);
+        assertEquals(rejected.getMessage(), "Too many bookings waiting for trip T1, please retry");
+        assertEquals(meterRegistry.get("booking.admission.rejections").tag("reason", "overloaded").counter().count(), 1.0);
+
+        first.release();
+        final Admission next = admissionController.admitBooking(trip, 0, 2).join();
+        assertTrue(next.isAdmitted());
+        next.release();
+    }
+
+    @Test
+    public void testAdmitBooking_RejectedWhenTurnDoesNotCome() throws Exception {
+        final WaitingRoomAdmissionController admissionController = admissionController(1, 4, Duration.ofMillis(50));
+        final Admission first = admissionController.admitBooking(trip, 0, 2).join();
+
+        final CompletableFuture<Admission> waiting = admissionController.admitBooking(trip, 0, 2);
+        assertFalse(waiting.get(5, TimeUnit.SECONDS).isAdmitted());
+        assertEquals(admissionController.getOccupancy("T1"), 1);
+        first.release();
+        assertEquals(admissionController.getOccupancy("T1"), 0, "Slot not handed to the expired booking");
+    }
+
+    @Test
+    public void testAdmitBooking_TripsHaveSeparateWaitingRooms() {
+        final WaitingRoomAdmissionController admissionController = admissionController(1, 0, MAX_WAIT);
+        final Trip otherTrip = tripCatalog.addTrip("T2", "ABC", LocalDateTime.now(), new SeatLayout(1, 2));
+        final Admission first = admissionController.admitBooking(trip, 0, 2).join();
+
+        final Admission other = admissionController.admitBooking(otherTrip, 0, 2).join();
+        assertTrue(other.isAdmitted());
+        other.release();
+        first.release();
+    }
+
+    @Test
+    public void testAdmitBooking_EmptyWaitingRoomRemoved() {
+        final WaitingRoomAdmissionController admissionController = admissionController(1, 1, MAX_WAIT);
+        final Admission first = admissionController.admitBooking(trip, 0, 2).join();
+        final CompletableFuture<Admission> second = admissionController.admitBooking(trip, 0, 2);
+        assertEquals(admissionController.getWaitingRoomCount(), 1);
+
+        first.release();
+        assertEquals(admissionController.getWaitingRoomCount(), 1, "Room kept while a booking holds a slot");
+        second.join().release();
+        assertEquals(admissionController.getWaitingRoomCount(), 0);
+
+        final Admission next = admissionController.admitBooking(trip, 0, 2).join();
+        assertTrue(next.isAdmitted(), "Trip booked again gets a new room");
+        assertEquals(admissionController.getOccupancy("T1"), 1);
+        next.release();
+        assertEquals(admissionController.getWaitingRoomCount(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidConcurrentBookings() {
+        admissionController(0, 1, MAX_WAIT);
+    }
+
+    private WaitingRoomAdmissionController admissionController(int concurrentBookings, int waitingRoomCapacity, Duration maxWait) {
+        return new WaitingRoomAdmissionController(availabilityCache, new MicrometerBookingMetrics(meterRegistry, tripCatalog, availabilityCache, false),
+                concurrentBookings, waitingRoomCapacity, maxWait, Duration.ofSeconds(30));
+    }
+
+    private void sellOut(int originStop, int destinationStop) {
+        final SeatInventory inventory = trip.getInventory();
+        for (int seat = 0; seat < inventory.getSeatCount(); seat++) {
+            inventory.claimSeat(seat, inventory.segmentMask(originStop, destinationStop));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.bookingbus.bookingbus.allocation.impl;
+
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import com.bookingbus.bookingbus.inventory.impl.SegmentSeatInventory;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class BestFitSeatAllocationStrategyTest {
+
+    private BestFitSeatAllocationStrategy strategy;
+    private SeatLayout seatLayout;
+    private SeatInventory inventory;
+    private int[] seats;
+
+    @BeforeMethod
+    public void setUp() {
+        strategy = new BestFitSeatAllocationStrategy();
+        seatLayout = new SeatLayout(1, 4);
+        inventory = new SegmentSeatInventory(seatLayout.createSeatNumbers(), 4);
+        seats = new int[4];
+    }
+
+    @Test
+    public void testWaste() {
+        assertEquals(BestFitSeatAllocationStrategy.waste(0L, 1, 3, 4), 2, "Empty seat leaves one free segment on each side");
+        assertEquals(BestFitSeatAllocationStrategy.waste(inventory.segmentMask(0, 1), 1, 3, 4), 1);
+        assertEquals(BestFitSeatAllocationStrategy.waste(inventory.segmentMask(0, 1) | inventory.segmentMask(3, 4), 1, 3, 4), 0);
+        assertEquals(BestFitSeatAllocationStrategy.waste(0L, 0, 4, 4), 0);
+        assertEquals(BestFitSeatAllocationStrategy.originStop(inventory.segmentMask(1, 3)), 1);
+        assertEquals(BestFitSeatAllocationStrategy.destinationStop(inventory.segmentMask(1, 3)), 3);
+    }
+
+    @Test
+    public void testSelectSeats_PrefersSeatClosingAGap() {
+        inventory.claimSeat(2, inventory.segmentMask(0, 1));
+        inventory.claimSeat(3, inventory.segmentMask(0, 1) | inventory.segmentMask(2, 4));
+
+        assertEquals(strategy.selectSeats(inventory, seatLayout, inventory.segmentMask(1, 2), seats, 1), 1);
+        assertEquals(seats[0], 3, "Seat 3 is free only between stop 1 and stop 2");
+        assertEquals(strategy.selectSeats(inventory, seatLayout, inventory.segmentMask(1, 2), seats, 2), 2);
+        assertEquals(seats[0], 3, "Seats closing a gap are selected first");
+        assertEquals(seats[1], 2);
+    }
+
+    @Test
+    public void testSelectSeats_KeepsEmptySeatsForLongJourneys() {
+        inventory.claimSeat(1, inventory.segmentMask(0, 2));
+
+        assertEquals(strategy.selectSeats(inventory, seatLayout, inventory.segmentMask(2, 4), seats, 1), 1);
+        assertEquals(seats[0], 1);
+        assertEquals(inventory.countAvailableSeats(inventory.segmentMask(0, 4)), 3);
+    }
+
+    @Test
+    public void testSelectSeats_NotEnoughSeats() {
+        inventory.claimSeat(0, inventory.segmentMask(0, 4));
+        inventory.claimSeat(1, inventory.segmentMask(1, 2));
+
+        assertEquals(strategy.selectSeats(inventory, seatLayout, inventory.segmentMask(0, 2), seats, 3), 2);
+    }
+}
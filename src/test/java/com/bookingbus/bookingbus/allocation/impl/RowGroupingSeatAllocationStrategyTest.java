@@ -0,0 +1,68 @@
+package com.bookingbus.bookingbus.allocation.impl;
+
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import com.bookingbus.bookingbus.inventory.impl.SegmentSeatInventory;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class RowGroupingSeatAllocationStrategyTest {
+
+    private RowGroupingSeatAllocationStrategy strategy;
+    private SeatLayout seatLayout;
+    private SeatInventory inventory;
+    private long segmentMask;
+    private int[] seats;
+
+    @BeforeMethod
+    public void setUp() {
+        strategy = new RowGroupingSeatAllocationStrategy();
+        seatLayout = new SeatLayout(3, 4);
+        inventory = new SegmentSeatInventory(seatLayout.createSeatNumbers(), 3);
+        segmentMask = inventory.segmentMask(0, 3);
+        seats = new int[12];
+    }
+
+    @Test
+    public void testSelectSeats_GroupSeatedTogetherInOneRow() {
+        inventory.claimSeat(1, segmentMask);
+        inventory.claimSeat(6, segmentMask);
+
+        assertEquals(strategy.selectSeats(inventory, seatLayout, segmentMask, seats, 3), 3);
+        assertEquals(inventory.getSeatNumber(seats[0]), "C1");
+        assertEquals(inventory.getSeatNumber(seats[2]), "C3");
+    }
+
+    @Test
+    public void testSelectSeats_PrefersTightestRun() {
+        long firstSegment = inventory.segmentMask(0, 1);
+        inventory.claimSeat(6, firstSegment);
+        inventory.claimSeat(7, firstSegment);
+
+        assertEquals(strategy.selectSeats(inventory, seatLayout, inventory.segmentMask(1, 3), seats, 2), 2);
+        assertEquals(inventory.getSeatNumber(seats[0]), "B3");
+        assertEquals(inventory.getSeatNumber(seats[1]), "B4");
+    }
+
+    @Test
+    public void testSelectSeats_ScatteredWhenNoRowFits() {
+        inventory.claimSeat(1, segmentMask);
+        inventory.claimSeat(5, segmentMask);
+        inventory.claimSeat(9, segmentMask);
+
+        assertEquals(strategy.selectSeats(inventory, seatLayout, segmentMask, seats, 3), 3);
+        assertEquals(seats[0], 0);
+        assertEquals(seats[1], 2);
+        assertEquals(seats[2], 3);
+    }
+
+    @Test
+    public void testSelectSeats_SinglePassengerUsesBestFit() {
+        inventory.claimSeat(10, inventory.segmentMask(0, 2));
+
+        assertEquals(strategy.selectSeats(inventory, seatLayout, inventory.segmentMask(2, 3), seats, 1), 1);
+        assertEquals(seats[0], 10);
+    }
+}
@@ -0,0 +1,101 @@
+package com.bookingbus.bookingbus.audit.impl;
+
+import com.bookingbus.bookingbus.dto.TicketCancellationResponseDTO;
+import com.bookingbus.bookingbus.dto.TicketReservationRequestDTO;
+import com.bookingbus.bookingbus.dto.TicketReservationResponseDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+public class AsyncBookingAuditTrailTest {
+
+    private ObjectMapper objectMapper;
+    private List<String> lines;
+
+    @BeforeMethod
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        lines = new CopyOnWriteArrayList<>();
+    }
+
+    @Test
+    public void testRecordReservation() throws Exception {
+        AsyncBookingAuditTrail auditTrail = new AsyncBookingAuditTrail(16, objectMapper, lines::add);
+        auditTrail.recordReservation(new TicketReservationResponseDTO("UP", List.of(1, 2), List.of("A1", "B1"), 'A', 'C', 200.0));
+        auditTrail.close();
+
+        assertEquals(lines.size(), 1);
+        JsonNode event = objectMapper.readTree(lines.get(0));
+        assertEquals(event.get("type").asText(), "RESERVED");
+        assertEquals(event.get("tripId").asText(), "UP");
+        assertEquals(event.get("origin").asText(), "A");
+        assertEquals(event.get("passengerCount").asInt(), 2);
+        assertEquals(event.get("seatNumbers").size(), 2);
+        assertEquals(event.get("totalPrice").asDouble(), 200.0);
+        assertFalse(event.has("reason"));
+    }
+
+    @Test
+    public void testRecordRejection() throws Exception {
+        AsyncBookingAuditTrail auditTrail = new AsyncBookingAuditTrail(16, objectMapper, lines::add);
+        auditTrail.recordRejection(new TicketReservationRequestDTO(null, 50, 'A', 'D', true), "Not enough available seats");
+        auditTrail.recordRejection(null, "Invalid reservation request");
+        auditTrail.close();
+
+        assertEquals(lines.size(), 2);
+        JsonNode event = objectMapper.readTree(lines.get(0));
+        assertEquals(event.get("type").asText(), "REJECTED");
+        assertEquals(event.get("passengerCount").asInt(), 50);
+        assertEquals(event.get("reason").asText(), "Not enough available seats");
+        assertFalse(event.has("ticketNumbers"));
+        assertEquals(objectMapper.readTree(lines.get(1)).get("reason").asText(), "Invalid reservation request");
+    }
+
+    @Test
+    public void testRecordCancellation() throws Exception {
+        AsyncBookingAuditTrail auditTrail = new AsyncBookingAuditTrail(16, objectMapper, lines::add);
+        auditTrail.recordCancellation(new TicketCancellationResponseDTO(7, "UP", "A3", 'B', 'D', 100.0));
+        auditTrail.close();
+
+        assertEquals(lines.size(), 1);
+        JsonNode event = objectMapper.readTree(lines.get(0));
+        assertEquals(event.get("type").asText(), "CANCELLED");
+        assertEquals(event.get("ticketNumbers").get(0).asInt(), 7);
+        assertEquals(event.get("seatNumbers").get(0).asText(), "A3");
+        assertEquals(event.get("totalPrice").asDouble(), 100.0);
+    }
+
+    @Test
+    public void testEventsDroppedWhenQueueFull() throws Exception {
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch releaseWriter = new CountDownLatch(1);
+        AsyncBookingAuditTrail auditTrail = new AsyncBookingAuditTrail(2, objectMapper, line -> {
+            writerBlocked.countDown();
+            try {
+                releaseWriter.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            lines.add(line);
+        });
+        TicketReservationRequestDTO request = new TicketReservationRequestDTO(null, 1, 'A', 'B', true);
+        auditTrail.recordRejection(request, "first");
+        assertTrue(writerBlocked.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 4; i++) {
+            auditTrail.recordRejection(request, "queued " + i);
+        }
+        releaseWriter.countDown();
+        auditTrail.close();
+
+        assertEquals(auditTrail.getDroppedEventCount(), 2);
+        assertEquals(lines.size(), 3);
+    }
+}
@@ -0,0 +1,110 @@
+package com.bookingbus.bookingbus.availability.impl;
+
+import com.bookingbus.bookingbus.availability.AvailabilityQuote;
+import com.bookingbus.bookingbus.availability.AvailabilitySnapshot;
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.Trip;
+import com.bookingbus.bookingbus.trip.impl.InMemoryTripCatalog;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.testng.Assert.*;
+
+public class CachingAvailabilityResponseEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CachingAvailabilityResponseEncoder encoder;
+    private IncrementalAvailabilityCache availabilityCache;
+    private Trip trip;
+
+    @BeforeMethod
+    public void setUp() {
+        encoder = new CachingAvailabilityResponseEncoder(objectMapper);
+        availabilityCache = new IncrementalAvailabilityCache();
+        trip = new InMemoryTripCatalog().addTrip("T1", "ABC", null, new SeatLayout(2, 5));
+        SeatInventory inventory = trip.getInventory();
+        inventory.claimSeat(0, inventory.segmentMask(0, 1));
+        inventory.claimSeat(9, inventory.segmentMask(0, 2));
+    }
+
+    @Test
+    public void testEncodeJson() throws Exception {
+        JsonNode response = objectMapper.readTree(encoder.encodeJson(quote(2, 25_050), false));
+
+        assertEquals(response.get("availableSeatCount").asInt(), 8);
+        assertEquals(response.get("availableSeats").size(), 8);
+        assertEquals(response.get("availableSeats").get(0).asText(), "A2");
+        assertEquals(response.get("totalPrice").asDouble(), 250.5);
+    }
+
+    @Test
+    public void testEncodeJson_CountOnly() throws Exception {
+        JsonNode response = objectMapper.readTree(encoder.encodeJson(quote(2, 25_050), true));
+
+        assertEquals(response.get("availableSeatCount").asInt(), 8);
+        assertFalse(response.has("availableSeats"));
+    }
+
+    @Test
+    public void testEncodeBinary() {
+        ByteBuffer response = ByteBuffer.wrap(encoder.encodeBinary(quote(2, 25_050), false));
+
+        assertEquals(response.get(), CachingAvailabilityResponseEncoder.FORMAT_VERSION);
+        assertEquals(response.get(), CachingAvailabilityResponseEncoder.SEAT_BITMAP_FLAG);
+        assertEquals(response.getInt(), 8);
+        assertEquals(response.getLong(), 25_050L);
+        assertEquals(response.get(), 2);
+        assertEquals(response.getInt(), 5);
+        assertEquals(response.get(), (byte) 0b1111_1110, "A1 is sold, A2 to B3 are available");
+        assertEquals(response.get(), (byte) 0b0000_0001, "B4 is available, B5 is sold");
+        assertFalse(response.hasRemaining());
+    }
+
+    @Test
+    public void testEncodeBinary_WideRow() {
+        trip = new InMemoryTripCatalog().addTrip("T2", "ABC", null, new SeatLayout(1, 70_000));
+        ByteBuffer response = ByteBuffer.wrap(encoder.encodeBinary(quote(1, 100), false));
+
+        response.position(14);
+        assertEquals(response.get(), 1);
+        assertEquals(response.getInt(), 70_000);
+        assertEquals(response.remaining(), 70_000 / 8);
+    }
+
+    @Test
+    public void testEncodeBinary_CountOnly() {
+        ByteBuffer response = ByteBuffer.wrap(encoder.encodeBinary(quote(1, 100), true));
+
+        assertEquals(response.get(), CachingAvailabilityResponseEncoder.FORMAT_VERSION);
+        assertEquals(response.get(), 0);
+        assertEquals(response.getInt(), 8);
+        assertEquals(response.getLong(), 100L);
+        assertFalse(response.hasRemaining());
+    }
+
+    @Test
+    public void testEncode_ReusesBodyUntilAvailabilityOrFareChanges() {
+        byte[] json = encoder.encodeJson(quote(2, 200), false);
+        byte[] binary = encoder.encodeBinary(quote(2, 200), false);
+
+        assertSame(encoder.encodeJson(quote(2, 200), false), json);
+        assertSame(encoder.encodeBinary(quote(2, 200), false), binary);
+        assertNotSame(encoder.encodeJson(quote(3, 300), false), json, "Each passenger count has its own body");
+        assertNotSame(encoder.encodeJson(quote(2, 250), false), json, "A fare override replaces the body");
+
+        trip.getInventory().claimSeat(1, trip.getInventory().segmentMask(1, 2));
+        byte[] changed = encoder.encodeBinary(quote(2, 200), false);
+        assertNotSame(changed, binary);
+        assertEquals(ByteBuffer.wrap(changed).getInt(2), 7);
+    }
+
+    private AvailabilityQuote quote(int passengerCount, long totalFare) {
+        AvailabilitySnapshot snapshot = availabilityCache.getAvailability(trip, 0, 2);
+        return new AvailabilityQuote(trip, passengerCount, totalFare, totalFare / 100.0, snapshot);
+    }
+}
@@ -0,0 +1,171 @@
+package com.bookingbus.bookingbus.availability.impl;
+
+import com.bookingbus.bookingbus.availability.AvailabilitySnapshot;
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import com.bookingbus.bookingbus.inventory.impl.SegmentSeatInventory;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.Trip;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public class IncrementalAvailabilityCacheTest {
+
+    private IncrementalAvailabilityCache availabilityCache;
+    private SeatInventory inventory;
+    private Trip trip;
+
+    @BeforeMethod
+    public void setUp() {
+        SeatLayout seatLayout = new SeatLayout(2, 40);
+        inventory = new SegmentSeatInventory(seatLayout.createSeatNumbers(), 3);
+        trip = new Trip("T1", "ABCD", LocalDateTime.now(), seatLayout, inventory);
+        availabilityCache = new IncrementalAvailabilityCache();
+    }
+
+    @Test
+    public void testGetAvailableSeats_ReusesCachedList() {
+        List<String> first = availabilityCache.getAvailableSeats(trip, 0, 3);
+        List<String> second = availabilityCache.getAvailableSeats(trip, 0, 3);
+
+        assertEquals(first.size(), 80);
+        assertSame(second, first);
+        assertEquals(availabilityCache.getMissCount(), 1);
+        assertEquals(availabilityCache.getHitCount(), 1);
+    }
+
+    @Test
+    public void testGetAvailableSeats_UpdatedOnClaimAndRelease() {
+        availabilityCache.getAvailableSeats(trip, 0, 1);
+        availabilityCache.getAvailableSeats(trip, 2, 3);
+        inventory.claimSeat(70, inventory.segmentMask(0, 2));
+
+        assertFalse(availabilityCache.getAvailableSeats(trip, 0, 1).contains(inventory.getSeatNumber(70)));
+        assertFalse(availabilityCache.getAvailableSeats(trip, 1, 3).contains(inventory.getSeatNumber(70)));
+        assertTrue(availabilityCache.getAvailableSeats(trip, 2, 3).contains(inventory.getSeatNumber(70)));
+        assertEquals(availabilityCache.getAvailableSeats(trip, 0, 3).size(), 79);
+
+        inventory.releaseSeat(70, inventory.segmentMask(0, 2));
+        assertEquals(availabilityCache.getAvailableSeats(trip, 0, 3).size(), 80);
+        assertEquals(availabilityCache.getAvailableSeats(trip, 0, 1).get(70), inventory.getSeatNumber(70));
+    }
+
+    @Test
+    public void testGetAvailableSeats_UnchangedRouteStaysCached() {
+        List<String> first = availabilityCache.getAvailableSeats(trip, 2, 3);
+        inventory.claimSeat(0, inventory.segmentMask(0, 1));
+
+        assertSame(availabilityCache.getAvailableSeats(trip, 2, 3), first);
+    }
+
+    @Test
+    public void testGetAvailableSeatCount_NoSnapshotRebuilt() {
+        assertEquals(availabilityCache.getAvailableSeatCount(trip, 0, 3), 80);
+        inventory.claimSeat(5, inventory.segmentMask(1, 2));
+        inventory.claimSeat(6, inventory.segmentMask(2, 3));
+
+        assertEquals(availabilityCache.getAvailableSeatCount(trip, 0, 3), 78);
+        assertEquals(availabilityCache.getAvailableSeatCount(trip, 0, 1), 80);
+        assertEquals(availabilityCache.getMissCount(), 0);
+        assertEquals(availabilityCache.getAvailableSeats(trip, 0, 3).size(), 78);
+        assertEquals(availabilityCache.getAvailableSeatCount(trip, 0, 3), 78);
+    }
+
+    @Test
+    public void testWatchAvailability_NotifiedOnRouteChanges() {
+        AtomicInteger changes = new AtomicInteger();
+        Runnable unwatch = availabilityCache.watchAvailability(trip, 0, 2, changes::incrementAndGet);
+
+        inventory.claimSeat(5, inventory.segmentMask(2, 3));
+        assertEquals(changes.get(), 0, "A seat sold beyond the route leaves it unchanged");
+        inventory.claimSeat(6, inventory.segmentMask(1, 3));
+        assertEquals(changes.get(), 1);
+
+        unwatch.run();
+        inventory.releaseSeat(6, inventory.segmentMask(1, 3));
+        assertEquals(changes.get(), 1);
+    }
+
+    @Test
+    public void testWatchAvailability_NotifiedOnEviction() {
+        AtomicInteger changes = new AtomicInteger();
+        availabilityCache.watchAvailability(trip, 0, 2, changes::incrementAndGet);
+
+        availabilityCache.evict(trip);
+        assertEquals(changes.get(), 1);
+        inventory.claimSeat(6, inventory.segmentMask(1, 3));
+        assertEquals(changes.get(), 1, "An evicted trip is no longer watched");
+    }
+
+    @Test
+    public void testGetAvailability_SnapshotMatchesSeatList() {
+        inventory.claimSeat(0, inventory.segmentMask(0, 1));
+        inventory.claimSeat(65, inventory.segmentMask(1, 3));
+        AvailabilitySnapshot snapshot = availabilityCache.getAvailability(trip, 0, 2);
+
+        assertSame(availabilityCache.getAvailability(trip, 0, 2), snapshot);
+        assertEquals(snapshot.getAvailableSeatCount(), 78);
+        assertFalse(snapshot.isAvailable(0));
+        assertFalse(snapshot.isAvailable(65));
+        assertTrue(snapshot.isAvailable(64));
+        assertEquals(snapshot.getSeatNumbers().get(0), "A2");
+
+        inventory.releaseSeat(0, inventory.segmentMask(0, 1));
+        assertNotSame(availabilityCache.getAvailability(trip, 0, 2), snapshot);
+        assertFalse(snapshot.isAvailable(0), "A published snapshot never changes");
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testGetAvailableSeats_Unmodifiable() {
+        availabilityCache.getAvailableSeats(trip, 0, 3).clear();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Invalid origin or destination selection.*")
+    public void testGetAvailableSeats_InvalidRoute() {
+        availabilityCache.getAvailableSeats(trip, 2, 1);
+    }
+
+    @Test
+    public void testGetAvailableSeats_ConsistentAfterConcurrentUpdates() throws Exception {
+        availabilityCache.getAvailableSeats(trip, 0, 3);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            final int origin = thread % 3;
+            futures.add(executor.submit(() -> {
+                int[] seats = new int[1];
+                long segmentMask = inventory.segmentMask(origin, origin + 1);
+                for (int i = 0; i < 2000; i++) {
+                    if (inventory.claimSeats(segmentMask, seats, 1)) {
+                        inventory.releaseSeat(seats[0], segmentMask);
+                    }
+                    availabilityCache.getAvailableSeats(trip, origin, 3);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        inventory.claimSeat(5, inventory.segmentMask(1, 2));
+        for (int origin = 0; origin < 3; origin++) {
+            for (int destination = origin + 1; destination <= 3; destination++) {
+                long segmentMask = inventory.segmentMask(origin, destination);
+                assertEquals(availabilityCache.getAvailableSeats(trip, origin, destination).size(),
+                        inventory.countAvailableSeats(segmentMask));
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.bookingbus.bookingbus.cluster;
+
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public class ConsistentHashRingTest {
+
+    private static final int KEY_COUNT = 10_000;
+
+    @Test
+    public void testOwner_SameOnEveryNode() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(0, 1, 2), 128);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of(2, 0, 1), 128);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertEquals(reordered.owner("T" + i), ring.owner("T" + i));
+        }
+    }
+
+    @Test
+    public void testOwner_KeysSpreadOverNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(0, 1, 2, 3), 128);
+        int[] counts = new int[4];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            counts[ring.owner("T" + i)]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > KEY_COUNT / 4 * 0.7 && count < KEY_COUNT / 4 * 1.3, "Unbalanced key count " + count);
+        }
+    }
+
+    @Test
+    public void testOwner_AddedNodeOnlyTakesKeys() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(0, 1, 2), 128);
+        ConsistentHashRing grown = new ConsistentHashRing(List.of(0, 1, 2, 3), 128);
+        int moved = 0;
+        for (int i = 0; i < KEY_COUNT; i++) {
+            int owner = grown.owner("T" + i);
+            if (owner != ring.owner("T" + i)) {
+                assertEquals(owner, 3, "Keys only move to the added node");
+                moved++;
+            }
+        }
+        assertTrue(moved > KEY_COUNT / 4 * 0.7 && moved < KEY_COUNT / 4 * 1.3, "Unexpected moved key count " + moved);
+    }
+
+    @Test
+    public void testOwner_EmptyRing() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(), 128);
+        assertTrue(ring.isEmpty());
+        assertEquals(ring.owner("UP"), -1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_NoVirtualNodes() {
+        new ConsistentHashRing(List.of(0), 0);
+    }
+}
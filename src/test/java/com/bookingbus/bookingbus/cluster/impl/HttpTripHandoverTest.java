@@ -0,0 +1,207 @@
+package com.bookingbus.bookingbus.cluster.impl;
+
+import com.bookingbus.bookingbus.BookingbusApplication;
+import com.bookingbus.bookingbus.cluster.ClusterMembership;
+import com.bookingbus.bookingbus.cluster.TripHandover;
+import com.bookingbus.bookingbus.dto.TicketReservationRequestDTO;
+import com.bookingbus.bookingbus.service.BookingService;
+import com.bookingbus.bookingbus.ticket.TicketIndex;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.TripCatalog;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.*;
+
+/**
+ * Runs two nodes in one JVM, each with its own web server and journal, and checks that trips move to the
+ * node joining and back from the node leaving with their sold seats and tickets, while requests sent to
+ * either node reach the node holding the trip.
+ */
+public class HttpTripHandoverTest {
+
+    private static final String CONTEXT_PATH = "/api/v1/bus";
+    private static final long TIMEOUT_MILLIS = 20_000;
+    private static final int TRIP_COUNT = 8;
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private Path directory;
+    private String seedUrl;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("cluster");
+        seedUrl = null;
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        for (ConfigurableApplicationContext node : nodes) {
+            node.close();
+        }
+        nodes.clear();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testTripsMoveOnJoinAndLeave() throws Exception {
+        final String first = startNode(0);
+        waitFor(() -> holds(0, "UP") && holds(0, "DOWN"), "Default trips created on the first node");
+        final List<Integer> ticketNumbers = new ArrayList<>();
+        for (int i = 0; i < TRIP_COUNT; i++) {
+            assertEquals(post(first, "/trips", "{\"tripId\":\"T" + i + "\",\"stops\":\"ABC\",\"seatRows\":1,\"seatsPerRow\":4}").statusCode(), 201);
+            ticketNumbers.add(reserve(first, "T" + i, 'A', 'C').path("ticketNumbers").path(0).asInt());
+        }
+
+        final String second = startNode(1);
+        waitFor(() -> isSettled(0) && isSettled(1), "Placement settled after the second node joined");
+        int moved = 0;
+        for (int i = 0; i < TRIP_COUNT; i++) {
+            final int owner = owner("T" + i);
+            assertTrue(holds(owner, "T" + i) && !holds(1 - owner, "T" + i), "Trip T" + i + " held by its owner only");
+            moved += owner;
+        }
+        assertTrue(moved > 0, "Some trips moved to the second node");
+        assertTrue(holds(owner("UP"), "UP") && holds(owner("DOWN"), "DOWN"));
+
+        for (int i = 0; i < TRIP_COUNT; i++) {
+            assertEquals(availableSeatCount(second, "T" + i), 3, "Sold seat of T" + i + " moved with the trip");
+        }
+        final JsonNode reservation = reserve(second, "T0", 'A', 'B');
+        assertEquals(reservation.path("ticketNumbers").path(0).asInt(), owner("T0") == 0 ? TRIP_COUNT + 1
+                : ClusterMembership.TICKET_NUMBERS_PER_NODE + 1, "Ticket numbered from the range of the node holding the trip");
+        assertEquals(delete(first, "/booking/tickets/" + ticketNumbers.get(1)).statusCode(), 200, "Cancelled through the issuing node");
+        assertEquals(delete(second, "/booking/tickets/" + ticketNumbers.get(2)).statusCode(), 200, "Cancelled through the other node");
+        assertEquals(delete(second, "/booking/tickets/" + ticketNumbers.get(2)).statusCode(), 400);
+
+        nodes.remove(1).close();
+        for (int i = 0; i < TRIP_COUNT; i++) {
+            assertTrue(holds(0, "T" + i), "Trip T" + i + " handed back before the second node stopped");
+        }
+        assertTrue(holds(0, "UP") && holds(0, "DOWN"));
+        assertEquals(availableSeatCount(first, "T0"), 2);
+        assertEquals(availableSeatCount(first, "T1"), 4);
+        assertEquals(availableSeatCount(first, "T3"), 3);
+        assertEquals(delete(first, "/booking/tickets/" + reservation.path("ticketNumbers").path(0).asInt()).statusCode(), 200,
+                "Tickets issued by the second node moved with the trip");
+    }
+
+    @Test
+    public void testCopyWithTicketsKeptWhenOwnerAlreadyHoldsTrip() throws Exception {
+        startNode(0);
+        startNode(1);
+        waitFor(() -> isSettled(0) && isSettled(1), "Placement settled after the second node joined");
+        final List<String> tripIds = new ArrayList<>();
+        for (int i = 0; tripIds.size() < 2; i++) {
+            if (owner("C" + i) == 1) {
+                tripIds.add("C" + i);
+            }
+        }
+        final String soldTripId = tripIds.get(0);
+        final String unsoldTripId = tripIds.get(1);
+        for (ConfigurableApplicationContext node : nodes) {
+            for (String tripId : tripIds) {
+                node.getBean(TripCatalog.class).addTrip(tripId, "ABC", null, new SeatLayout(1, 4));
+            }
+        }
+        final int ticketNumber = nodes.get(0).getBean(BookingService.class)
+                .reserveTickets(new TicketReservationRequestDTO(soldTripId, 1, 'A', 'C', true)).getTicketNumbers().get(0);
+
+        nodes.get(0).getBean(TripHandover.class).rebalance();
+        assertFalse(holds(0, unsoldTripId), "Copy without tickets dropped");
+        assertTrue(holds(0, soldTripId), "Copy with tickets kept");
+        assertEquals(nodes.get(0).getBean(BookingService.class).getAvailableSeats(soldTripId, 'A', 'B').size(), 3);
+        assertEquals(nodes.get(0).getBean(TicketIndex.class).getTicket(ticketNumber).getTripId(), soldTripId);
+    }
+
+    private String startNode(int nodeIndex) throws IOException {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        final String url = "http://localhost:" + port + CONTEXT_PATH;
+        if (seedUrl == null) {
+            seedUrl = url;
+        }
+        nodes.add(new SpringApplicationBuilder(BookingbusApplication.class).run(
+                "--server.port=" + port,
+                "--logging.level.com.bookingbus=WARN",
+                "--booking.audit.enabled=false",
+                "--booking.journal.directory=" + directory.resolve("node-" + nodeIndex),
+                "--booking.cluster.enabled=true",
+                "--booking.cluster.node-index=" + nodeIndex,
+                "--booking.cluster.advertised-url=" + url,
+                "--booking.cluster.seeds=" + seedUrl,
+                "--booking.cluster.heartbeat-interval=100ms",
+                "--booking.cluster.failure-timeout=2s"));
+        return url;
+    }
+
+    private boolean holds(int nodeIndex, String tripId) {
+        return nodes.get(nodeIndex).getBean(TripCatalog.class).getTrip(tripId) != null;
+    }
+
+    private boolean isSettled(int nodeIndex) {
+        return nodes.get(nodeIndex).getBean(ClusterMembership.class).isSettled();
+    }
+
+    private int owner(String tripId) {
+        return nodes.get(0).getBean(ClusterMembership.class).getOwner(tripId).getIndex();
+    }
+
+    private JsonNode reserve(String url, String tripId, char origin, char destination) throws Exception {
+        final HttpResponse<String> response = post(url, "/booking/tickets", "{\"tripId\":\"" + tripId + "\",\"passengerCount\":1,"
+                + "\"origin\":\"" + origin + "\",\"destination\":\"" + destination + "\",\"priceConfirmation\":true}");
+        assertEquals(response.statusCode(), 200, response.body());
+        return objectMapper.readTree(response.body());
+    }
+
+    private int availableSeatCount(String url, String tripId) throws Exception {
+        final HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(url
+                + "/booking/availability-and-price?numberOfPassengers=1&origin=A&destination=B&countOnly=true&tripId=" + tripId)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(response.statusCode(), 200, response.body());
+        return objectMapper.readTree(response.body()).path("availableSeatCount").asInt();
+    }
+
+    private HttpResponse<String> post(String url, String path, String body) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(URI.create(url + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> delete(String url, String path) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(URI.create(url + path)).DELETE().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void waitFor(BooleanSupplier condition, String message) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, message);
+            Thread.sleep(50);
+        }
+    }
+}
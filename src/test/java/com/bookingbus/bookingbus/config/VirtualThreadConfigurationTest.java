@@ -0,0 +1,27 @@
+package com.bookingbus.bookingbus.config;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+public class VirtualThreadConfigurationTest {
+
+    @Test
+    public void testNewVirtualThreadPerTaskExecutor() throws Exception {
+        if (!VirtualThreadConfiguration.isVirtualThreadSupported()) {
+            assertThrows(IllegalStateException.class, () -> VirtualThreadConfiguration.newVirtualThreadPerTaskExecutor("test-vt-"));
+            return;
+        }
+        ExecutorService executor = VirtualThreadConfiguration.newVirtualThreadPerTaskExecutor("test-vt-");
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+            assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread), "Task should run on a virtual thread");
+            assertTrue(thread.getName().startsWith("test-vt-"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
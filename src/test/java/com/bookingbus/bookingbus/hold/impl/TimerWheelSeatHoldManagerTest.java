@@ -0,0 +1,146 @@
+package com.bookingbus.bookingbus.hold.impl;
+
+import com.bookingbus.bookingbus.hold.SeatHold;
+import com.bookingbus.bookingbus.inventory.SeatInventory;
+import com.bookingbus.bookingbus.inventory.impl.SegmentSeatInventory;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.Trip;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.*;
+
+public class TimerWheelSeatHoldManagerTest {
+
+    private static final long TTL_MILLIS = 60_000;
+    private static final long TICK_MILLIS = 100;
+    private AtomicLong clock;
+    private TimerWheelSeatHoldManager seatHoldManager;
+    private SeatInventory inventory;
+    private Trip trip;
+    private long segmentMask;
+
+    @BeforeMethod
+    public void setUp() {
+        clock = new AtomicLong(1_000_000);
+        seatHoldManager = new TimerWheelSeatHoldManager(TTL_MILLIS, TICK_MILLIS, clock::get, false);
+        SeatLayout seatLayout = new SeatLayout(1, 4);
+        inventory = new SegmentSeatInventory(seatLayout.createSeatNumbers(), 2);
+        trip = new Trip("T1", "ABC", LocalDateTime.now(), seatLayout, inventory);
+        segmentMask = inventory.segmentMask(0, 2);
+    }
+
+    @Test
+    public void testExpireHolds_ReleasesSeatsAfterTtl() {
+        SeatHold seatHold = hold(0, 1);
+        assertEquals(seatHold.getExpiresAtMillis(), clock.get() + TTL_MILLIS);
+
+        clock.addAndGet(TTL_MILLIS - TICK_MILLIS);
+        seatHoldManager.expireHolds();
+        assertEquals(inventory.countAvailableSeats(segmentMask), 2);
+        assertEquals(seatHoldManager.getActiveHoldCount(), 1);
+
+        clock.addAndGet(TICK_MILLIS);
+        seatHoldManager.expireHolds();
+        assertEquals(inventory.countAvailableSeats(segmentMask), 4);
+        assertEquals(seatHoldManager.getActiveHoldCount(), 0);
+        assertThrows(IllegalArgumentException.class, () -> seatHoldManager.confirm(seatHold.getHoldId()));
+    }
+
+    @Test
+    public void testExpireHolds_TtlLongerThanOneWheelRevolution() {
+        seatHoldManager = new TimerWheelSeatHoldManager(TICK_MILLIS * 2000, TICK_MILLIS, clock::get, false);
+        hold(0);
+        for (int tick = 1; tick < 2000; tick++) {
+            clock.addAndGet(TICK_MILLIS);
+            seatHoldManager.expireHolds();
+        }
+        assertEquals(seatHoldManager.getActiveHoldCount(), 1, "Hold must survive the earlier passes over its bucket");
+
+        clock.addAndGet(TICK_MILLIS);
+        seatHoldManager.expireHolds();
+        assertEquals(seatHoldManager.getActiveHoldCount(), 0);
+        assertEquals(inventory.countAvailableSeats(segmentMask), 4);
+    }
+
+    @Test
+    public void testConfirm_KeepsSeatsClaimedAfterDeadline() {
+        SeatHold seatHold = hold(0);
+        seatHoldManager.expireHolds();
+        assertSame(seatHoldManager.confirm(seatHold.getHoldId()), seatHold);
+
+        clock.addAndGet(TTL_MILLIS);
+        seatHoldManager.expireHolds();
+        assertFalse(inventory.isAvailable(0, segmentMask), "Confirmed seats must not be released by the wheel");
+    }
+
+    @Test
+    public void testConfirm_ExpiredBeforeTick() {
+        SeatHold seatHold = hold(0);
+        clock.addAndGet(TTL_MILLIS);
+
+        assertThrows(IllegalArgumentException.class, () -> seatHoldManager.confirm(seatHold.getHoldId()));
+        assertTrue(inventory.isAvailable(0, segmentMask));
+        seatHoldManager.expireHolds();
+        assertTrue(inventory.isAvailable(0, segmentMask));
+    }
+
+    @Test
+    public void testRelease() {
+        SeatHold seatHold = hold(0, 1);
+        seatHoldManager.release(seatHold.getHoldId());
+
+        assertEquals(inventory.countAvailableSeats(segmentMask), 4);
+        assertThrows(IllegalArgumentException.class, () -> seatHoldManager.release(seatHold.getHoldId()));
+        assertThrows(IllegalArgumentException.class, () -> seatHoldManager.confirm(seatHold.getHoldId()));
+    }
+
+    @Test
+    public void testExpireHolds_ManyHolds() {
+        for (int i = 0; i < 200_000; i++) {
+            seatHoldManager.hold(trip, 'A', 'C', segmentMask, new int[]{i % 4}, 0);
+            if (i % 1000 == 999) {
+                clock.addAndGet(TICK_MILLIS);
+                seatHoldManager.expireHolds();
+            }
+        }
+        assertEquals(seatHoldManager.getActiveHoldCount(), 200_000);
+
+        clock.addAndGet(TTL_MILLIS - 10_000);
+        seatHoldManager.expireHolds();
+        assertEquals(seatHoldManager.getActiveHoldCount(), 99_000, "Only the holds of the first 101 ticks have expired");
+
+        clock.addAndGet(TTL_MILLIS);
+        seatHoldManager.expireHolds();
+        assertEquals(seatHoldManager.getActiveHoldCount(), 0);
+    }
+
+    @Test
+    public void testReleaseHolds_OnlyHoldsOfTrip() {
+        SeatInventory otherInventory = new SegmentSeatInventory(trip.getSeatLayout().createSeatNumbers(), 2);
+        Trip otherTrip = new Trip("T2", "ABC", LocalDateTime.now(), trip.getSeatLayout(), otherInventory);
+        assertTrue(otherInventory.claimSeat(3, segmentMask));
+        SeatHold otherHold = seatHoldManager.hold(otherTrip, 'A', 'C', segmentMask, new int[]{3}, 10000);
+        SeatHold seatHold = hold(0, 1);
+        assertTrue(seatHold.getHoldId().startsWith("T1:"));
+        assertEquals(SeatHold.tripIdOf(seatHold.getHoldId()), "T1");
+
+        assertEquals(seatHoldManager.releaseHolds(trip), 1);
+
+        assertEquals(inventory.countAvailableSeats(segmentMask), 4);
+        assertEquals(otherInventory.countAvailableSeats(segmentMask), 3);
+        assertEquals(seatHoldManager.getActiveHoldCount(), 1);
+        assertThrows(IllegalArgumentException.class, () -> seatHoldManager.confirm(seatHold.getHoldId()));
+        assertSame(seatHoldManager.confirm(otherHold.getHoldId()), otherHold);
+    }
+
+    private SeatHold hold(int... seats) {
+        for (int seat : seats) {
+            assertTrue(inventory.claimSeat(seat, segmentMask));
+        }
+        return seatHoldManager.hold(trip, 'A', 'C', segmentMask, seats, 10000);
+    }
+}
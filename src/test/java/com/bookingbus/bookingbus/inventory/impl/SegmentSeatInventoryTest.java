@@ -0,0 +1,120 @@
+package com.bookingbus.bookingbus.inventory.impl;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+public class SegmentSeatInventoryTest {
+
+    private SegmentSeatInventory inventory;
+
+    @BeforeMethod
+    public void setUp() {
+        inventory = new SegmentSeatInventory(new String[]{"A1", "A2", "A3"}, 3);
+    }
+
+    @Test
+    public void testSegmentMask() {
+        assertEquals(inventory.segmentMask(0, 1), 0b001L);
+        assertEquals(inventory.segmentMask(1, 3), 0b110L);
+        assertEquals(inventory.segmentMask(0, 3), 0b111L);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Invalid origin or destination selection.*")
+    public void testSegmentMask_SameStop() {
+        inventory.segmentMask(1, 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSegmentMask_BeyondLastStop() {
+        inventory.segmentMask(0, 4);
+    }
+
+    @Test
+    public void testClaimSeat_PartialRouteResale() {
+        assertTrue(inventory.claimSeat(0, inventory.segmentMask(0, 1)));
+        assertFalse(inventory.isAvailable(0, inventory.segmentMask(0, 2)));
+        assertTrue(inventory.isAvailable(0, inventory.segmentMask(1, 3)));
+        assertEquals(inventory.countAvailableSeats(inventory.segmentMask(0, 1)), 2);
+        assertEquals(inventory.countAvailableSeats(inventory.segmentMask(1, 2)), 3);
+    }
+
+    @Test
+    public void testFindAvailableSeats_RespectsLimit() {
+        assertTrue(inventory.claimSeat(1, inventory.segmentMask(0, 3)));
+        int[] seats = new int[3];
+        assertEquals(inventory.findAvailableSeats(inventory.segmentMask(2, 3), seats, 1), 1);
+        assertEquals(seats[0], 0);
+        assertEquals(inventory.findAvailableSeats(inventory.segmentMask(2, 3), seats, 3), 2);
+        assertEquals(seats[1], 2);
+        assertEquals(inventory.getSeatNumber(seats[1]), "A3");
+    }
+
+    @Test
+    public void testClaimSeats_AllOrNothing() {
+        assertTrue(inventory.claimSeat(1, inventory.segmentMask(1, 2)));
+        int[] seats = new int[3];
+        assertFalse(inventory.claimSeats(inventory.segmentMask(0, 3), seats, 3));
+        assertEquals(inventory.countAvailableSeats(inventory.segmentMask(0, 3)), 2, "Partial claim should be rolled back");
+        assertTrue(inventory.claimSeats(inventory.segmentMask(0, 3), seats, 2));
+        assertEquals(inventory.countAvailableSeats(inventory.segmentMask(0, 3)), 0);
+    }
+
+    @Test
+    public void testReleaseSeat() {
+        assertTrue(inventory.claimSeat(0, inventory.segmentMask(0, 3)));
+        inventory.releaseSeat(0, inventory.segmentMask(1, 2));
+        assertTrue(inventory.isAvailable(0, inventory.segmentMask(1, 2)));
+        assertFalse(inventory.isAvailable(0, inventory.segmentMask(0, 1)));
+        assertFalse(inventory.claimSeat(0, inventory.segmentMask(2, 3)));
+    }
+
+    @Test
+    public void testOccupiedSegmentCount() {
+        assertTrue(inventory.claimSeat(0, inventory.segmentMask(0, 3)));
+        assertTrue(inventory.claimSeat(1, inventory.segmentMask(1, 2)));
+        assertEquals(inventory.getOccupiedSegmentCount(), 4);
+
+        inventory.releaseSeat(0, inventory.segmentMask(1, 2));
+        inventory.releaseSeat(2, inventory.segmentMask(0, 3));
+        assertEquals(inventory.getOccupiedSegmentCount(), 3, "Only segments which were sold are subtracted");
+    }
+
+    @Test
+    public void testClaimSeats_ConcurrentBookingsNeverOversell() throws Exception {
+        String[] seatNumbers = new String[200];
+        for (int i = 0; i < seatNumbers.length; i++) {
+            seatNumbers[i] = "S" + i;
+        }
+        SegmentSeatInventory contended = new SegmentSeatInventory(seatNumbers, 3);
+        long segmentMask = contended.segmentMask(0, 2);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<int[]>> futures = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            futures.add(executor.submit(() -> {
+                int[] seats = new int[3];
+                return contended.claimSeats(segmentMask, seats, 3) ? seats : new int[0];
+            }));
+        }
+        Set<Integer> claimedSeats = new HashSet<>();
+        for (Future<int[]> future : futures) {
+            for (int seat : future.get()) {
+                assertTrue(claimedSeats.add(seat), "Seat " + seat + " was sold twice");
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(claimedSeats.size(), 198);
+        assertEquals(contended.countAvailableSeats(segmentMask), 2);
+    }
+}
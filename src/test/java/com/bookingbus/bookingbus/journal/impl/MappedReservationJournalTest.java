@@ -0,0 +1,252 @@
+package com.bookingbus.bookingbus.journal.impl;
+
+import com.bookingbus.bookingbus.allocation.impl.RowGroupingSeatAllocationStrategy;
+import com.bookingbus.bookingbus.audit.impl.NoOpBookingAuditTrail;
+import com.bookingbus.bookingbus.availability.impl.IncrementalAvailabilityCache;
+import com.bookingbus.bookingbus.cluster.impl.SingleNodeClusterMembership;
+import com.bookingbus.bookingbus.dto.TicketReservationRequestDTO;
+import com.bookingbus.bookingbus.dto.TicketReservationResponseDTO;
+import com.bookingbus.bookingbus.dto.TripTransferDTO;
+import com.bookingbus.bookingbus.hold.impl.TimerWheelSeatHoldManager;
+import com.bookingbus.bookingbus.metrics.impl.MicrometerBookingMetrics;
+import com.bookingbus.bookingbus.pricing.impl.FareMatrixPricingEngine;
+import com.bookingbus.bookingbus.service.impl.BookingServiceImpl;
+import com.bookingbus.bookingbus.ticket.impl.ChunkedTicketIndex;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.impl.InMemoryTripCatalog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.core.io.ClassPathResource;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.*;
+
+public class MappedReservationJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+    private Path directory;
+    private MappedReservationJournal journal;
+    private InMemoryTripCatalog tripCatalog;
+    private BookingServiceImpl bookingService;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal");
+        start();
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testRestore_ReservationsSurviveRestart() {
+        tripCatalog.addTrip("T1", "ABC", LocalDateTime.of(2026, 1, 1, 8, 0), new SeatLayout(1, 3));
+        reserve("T1", 'A', 'B', 2);
+        reserve(null, 'A', 'D', 5);
+        restart();
+        assertEquals(bookingService.getAvailableSeats("T1", 'A', 'B').size(), 1);
+        assertEquals(bookingService.getAvailableSeats("T1", 'B', 'C').size(), 3);
+        assertEquals(tripCatalog.getTrip("T1").getDepartureTime(), LocalDateTime.of(2026, 1, 1, 8, 0));
+        assertEquals(bookingService.getAvailableSeats('B', 'C').size(), 35);
+        assertEquals(reserve(null, 'C', 'D', 1).getTicketNumbers(), List.of(8), "Ticket numbers continue after restart");
+    }
+
+    @Test
+    public void testRestore_FromSnapshotAndLaterSegments() {
+        reserve(null, 'A', 'B', 10);
+        journal.snapshot();
+        reserve(null, 'B', 'C', 4);
+        restart();
+        assertEquals(bookingService.getAvailableSeats('A', 'B').size(), 30);
+        assertEquals(bookingService.getAvailableSeats('B', 'C').size(), 36);
+        assertEquals(bookingService.getAvailableSeats('A', 'C').size(), 30);
+    }
+
+    @Test
+    public void testRestore_RollsSegmentsWhenFull() {
+        for (int i = 0; i < 40; i++) {
+            tripCatalog.addTrip("T" + i, "AB", null, new SeatLayout(1, 40));
+            reserve("T" + i, 'A', 'B', 40);
+        }
+        restart();
+        for (int i = 0; i < 40; i++) {
+            assertTrue(bookingService.getAvailableSeats("T" + i, 'A', 'B').isEmpty(), "Trip T" + i + " should be sold out");
+        }
+    }
+
+    @Test
+    public void testRestore_IgnoresTornRecord() throws IOException {
+        reserve(null, 'A', 'B', 1);
+        reserve(null, 'A', 'B', 1);
+        journal.flush();
+        final Path segment = lastSegment();
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            long end = findEndOfRecords(file);
+            file.seek(end - 1);
+            int lastByte = file.read();
+            file.seek(end - 1);
+            file.write(lastByte ^ 0xff);
+        }
+        restart(false);
+        assertEquals(bookingService.getAvailableSeats('A', 'B').size(), 39, "Only the intact reservation is replayed");
+    }
+
+    @Test
+    public void testRestore_SnapshotsTakenWhileBooking() throws InterruptedException {
+        AtomicBoolean booking = new AtomicBoolean(true);
+        Thread snapshots = new Thread(() -> {
+            while (booking.get()) {
+                journal.snapshot();
+            }
+        });
+        snapshots.start();
+        List<Integer> keptTickets = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            int ticketNumber = reserve(null, 'A', 'C', 1).getTicketNumbers().get(0);
+            if (i % 3 == 0) {
+                bookingService.cancelTicket(ticketNumber);
+            } else {
+                keptTickets.add(ticketNumber);
+            }
+        }
+        booking.set(false);
+        snapshots.join();
+        restart(false);
+        assertEquals(bookingService.getAvailableSeats('A', 'C').size(), 40 - keptTickets.size());
+        for (int ticketNumber : keptTickets) {
+            assertEquals(bookingService.cancelTicket(ticketNumber).getRefundAmount(), 100.0);
+        }
+    }
+
+    @Test
+    public void testRestore_CancellationsReplayedInOrder() {
+        TicketReservationResponseDTO first = reserve(null, 'A', 'C', 2);
+        bookingService.cancelTicket(first.getTicketNumbers().get(0));
+        TicketReservationResponseDTO resale = reserve(null, 'A', 'B', 1);
+        assertEquals(resale.getSeatNumbers(), first.getSeatNumbers().subList(0, 1));
+        restart(false);
+        assertEquals(bookingService.getAvailableSeats('A', 'B').size(), 38);
+        assertEquals(bookingService.getAvailableSeats('B', 'C').size(), 39);
+        assertEquals(bookingService.cancelTicket(first.getTicketNumbers().get(1)).getRefundAmount(), 100.0);
+        assertThrows(IllegalArgumentException.class, () -> bookingService.cancelTicket(first.getTicketNumbers().get(0)));
+    }
+
+    @Test
+    public void testRestore_TicketsCancellableAfterSnapshot() {
+        TicketReservationResponseDTO reservation = reserve(null, 'B', 'D', 3);
+        bookingService.cancelTicket(reservation.getTicketNumbers().get(2));
+        journal.snapshot();
+        restart();
+        assertEquals(bookingService.getAvailableSeats('B', 'D').size(), 38);
+        bookingService.cancelTicket(reservation.getTicketNumbers().get(0));
+        restart();
+        assertEquals(bookingService.getAvailableSeats('B', 'D').size(), 39);
+        assertEquals(bookingService.cancelTicket(reservation.getTicketNumbers().get(1)).getSeatNumber(), reservation.getSeatNumbers().get(1));
+        assertThrows(IllegalArgumentException.class, () -> bookingService.cancelTicket(reservation.getTicketNumbers().get(2)));
+    }
+
+    @Test
+    public void testRestore_RemovedTripNotRecreated() {
+        tripCatalog.addTrip("T1", "ABC", LocalDateTime.of(2026, 1, 1, 8, 0), new SeatLayout(1, 3));
+        TicketReservationResponseDTO reservation = reserve("T1", 'A', 'C', 2);
+        TripTransferDTO transfer = bookingService.exportTrip("T1");
+        bookingService.removeTrip("T1");
+        journal.snapshot();
+        restart();
+        assertNull(tripCatalog.getTrip("T1"));
+        assertThrows(IllegalArgumentException.class, () -> bookingService.cancelTicket(reservation.getTicketNumbers().get(0)));
+        bookingService.importTrip(transfer);
+        restart();
+        assertEquals(bookingService.getAvailableSeats("T1", 'A', 'B').size(), 1);
+        assertEquals(bookingService.cancelTicket(reservation.getTicketNumbers().get(1)).getSeatNumber(), reservation.getSeatNumbers().get(1));
+    }
+
+    @Test
+    public void testRestore_ImportedTripSurvivesRestart() {
+        tripCatalog.addTrip("T1", "ABCD", null, new SeatLayout(2, 2));
+        TicketReservationResponseDTO reservation = reserve("T1", 'B', 'D', 3);
+        bookingService.cancelTicket(reservation.getTicketNumbers().get(2));
+        TripTransferDTO transfer = bookingService.exportTrip("T1");
+        directory = newDirectory();
+        start();
+        bookingService.importTrip(transfer);
+        journal.snapshot();
+        restart();
+        assertEquals(bookingService.getAvailableSeats("T1", 'B', 'C').size(), 2);
+        assertEquals(bookingService.getAvailableSeats("T1", 'A', 'B').size(), 4);
+        assertEquals(bookingService.cancelTicket(reservation.getTicketNumbers().get(0)).getSeatNumber(), reservation.getSeatNumbers().get(0));
+        assertThrows(IllegalArgumentException.class, () -> bookingService.cancelTicket(reservation.getTicketNumbers().get(2)));
+    }
+
+    private TicketReservationResponseDTO reserve(String tripId, char origin, char destination, int passengerCount) {
+        return bookingService.reserveTickets(new TicketReservationRequestDTO(tripId, passengerCount, origin, destination, true));
+    }
+
+    private void restart() {
+        restart(true);
+    }
+
+    private void restart(boolean closeJournal) {
+        if (closeJournal) {
+            journal.close();
+        }
+        start();
+    }
+
+    private void start() {
+        journal = new MappedReservationJournal(directory, SEGMENT_SIZE, 10, 3600);
+        tripCatalog = new InMemoryTripCatalog(journal);
+        IncrementalAvailabilityCache availabilityCache = new IncrementalAvailabilityCache();
+        bookingService = new BookingServiceImpl(tripCatalog, new FareMatrixPricingEngine(new ClassPathResource("fares.csv"), 80, 0), journal,
+                availabilityCache, new MicrometerBookingMetrics(new SimpleMeterRegistry(), tripCatalog, availabilityCache, false),
+                new NoOpBookingAuditTrail(), new TimerWheelSeatHoldManager(Duration.ofMinutes(10), Duration.ofMillis(100)),
+                new RowGroupingSeatAllocationStrategy(), new ChunkedTicketIndex(),
+                new SingleNodeClusterMembership());
+    }
+
+    private Path newDirectory() {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            return Files.createTempDirectory("journal");
+        } catch (IOException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private Path lastSegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).max(Comparator.naturalOrder()).orElseThrow();
+        }
+    }
+
+    private long findEndOfRecords(RandomAccessFile file) throws IOException {
+        long position = 0;
+        while (true) {
+            file.seek(position);
+            int length = file.readInt();
+            if (length == 0) {
+                return position;
+            }
+            position += 8 + length;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.bookingbus.bookingbus.load;
+
+import com.bookingbus.bookingbus.BookingbusApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * Runs {@link BookingTrafficSimulator} against an embedded server, or against the server at
+ * {@code booking.load.base-url} when set. The sale opening run takes its traffic shape from the
+ * {@code booking.load.*} system properties and only runs with {@code -Dgroups=load}; a short mixed run
+ * checks the harness and the absence of overselling on every build.
+ */
+@Slf4j
+public class BookingLoadTest {
+
+    @Test(groups = "load")
+    public void testSaleOpening() throws Exception {
+        final LoadReport report = run(LoadProfile.fromSystemProperties());
+        assertEquals(report.getErrors(), 0);
+    }
+
+    @Test
+    public void testMixedTraffic_NoSeatOversold() throws Exception {
+        final LoadReport report = run(new LoadProfile(1_000, 100, 8, 50, 4, LoadProfile.parseJourneys("AD:4,AB:2,BC:2,CD:2,DA:4,CA:1"),
+                2, 2, 5));
+        assertEquals(report.getRequests(), 1_000);
+        assertEquals(report.getErrors(), 0);
+        assertTrue(report.getTicketsIssued() > 0);
+        assertTrue(report.getWrites().getRejected() > 0, "Trips should sell out");
+    }
+
+    private LoadReport run(LoadProfile profile) throws Exception {
+        final String baseUrl = System.getProperty("booking.load.base-url");
+        if (baseUrl != null) {
+            return simulate(baseUrl, profile);
+        }
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BookingbusApplication.class).run(
+                "--server.port=0", "--logging.level.com.bookingbus=WARN", "--booking.journal.enabled=false",
+                "--booking.audit.enabled=false")) {
+            final int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            return simulate("http://localhost:" + port + "/api/v1/bus", profile);
+        }
+    }
+
+    private LoadReport simulate(String baseUrl, LoadProfile profile) throws Exception {
+        final LoadReport report = new BookingTrafficSimulator(baseUrl, profile).run();
+        log.warn("{}", report);
+        assertEquals(report.getOversoldSeats(), 0, "Seat segments sold more than once");
+        assertEquals(report.getInconsistentJourneys(), 0, "Availability differs from the seats left by the tickets");
+        return report;
+    }
+}
@@ -0,0 +1,295 @@
+package com.bookingbus.bookingbus.load;
+
+import com.bookingbus.bookingbus.service.impl.BookingServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives the booking API over HTTP with a mix of availability checks and reservations, as a number of
+ * clients which each send their next request as soon as the previous one is answered. Every request picks
+ * a journey by weight, a passenger count and a trip, and its latency is kept so exact percentiles can be
+ * reported. Afterwards the seats of every issued ticket are laid on the route segments they cover to find
+ * any segment sold twice, and the availability the server reports for every journey is compared with the
+ * seats left by those tickets.
+ */
+@Slf4j
+public class BookingTrafficSimulator {
+    private static final byte READ = 0;
+    private static final byte WRITE = 1;
+    private static final byte SUCCEEDED = 0;
+    private static final byte REJECTED = 1;
+    private static final byte FAILED = 2;
+    private static final String JSON = "application/json";
+    private final String baseUrl;
+    private final LoadProfile profile;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int totalWeight;
+
+    public BookingTrafficSimulator(String baseUrl, LoadProfile profile) {
+        this.baseUrl = baseUrl;
+        this.profile = profile;
+        this.totalWeight = profile.getJourneys().stream().mapToInt(LoadProfile.Journey::getWeight).sum();
+    }
+
+    /**
+     * Create the trips of the profile, warm the server up with availability checks, then send the measured
+     * requests and check the sold seats
+     *
+     * @return report of the measured requests
+     */
+    public LoadReport run() throws IOException, InterruptedException {
+        final List<String[]> trips = createTrips();
+        log.warn("Simulating {}", profile);
+        send(trips, 0, new long[profile.getWarmupRequests()], new byte[profile.getWarmupRequests()],
+                new byte[profile.getWarmupRequests()], null);
+        final long[] latencies = new long[profile.getRequests()];
+        final byte[] kinds = new byte[profile.getRequests()];
+        final byte[] outcomes = new byte[profile.getRequests()];
+        final Queue<Booking> bookings = new ConcurrentLinkedQueue<>();
+        final long start = System.nanoTime();
+        send(trips, profile.getWritePercent(), latencies, kinds, outcomes, bookings);
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        final Map<String, Trip> tripsById = new HashMap<>();
+        int ticketsIssued = 0;
+        int oversoldSeats = 0;
+        for (Booking booking : bookings) {
+            final Trip trip = tripsById.computeIfAbsent(booking.tripId, this::getTrip);
+            for (String seatNumber : booking.seatNumbers) {
+                oversoldSeats += trip.sell(seatNumber, trip.segmentMask(booking.origin, booking.destination)) ? 0 : 1;
+                ticketsIssued++;
+            }
+        }
+        for (String[] pair : trips) {
+            for (int direction = 0; direction < pair.length; direction++) {
+                final String tripId = pair[direction] != null ? pair[direction]
+                        : direction == 0 ? BookingServiceImpl.UP_JOURNEY_TRIP_ID : BookingServiceImpl.DOWN_JOURNEY_TRIP_ID;
+                tripsById.computeIfAbsent(tripId, this::getTrip);
+            }
+        }
+        int inconsistentJourneys = 0;
+        for (Trip trip : tripsById.values()) {
+            inconsistentJourneys += checkAvailability(trip);
+        }
+        return new LoadReport(seconds, latency(latencies, kinds, outcomes, READ), latency(latencies, kinds, outcomes, WRITE),
+                ticketsIssued, oversoldSeats, inconsistentJourneys);
+    }
+
+    private void send(List<String[]> trips, int writePercent, long[] latencies, byte[] kinds, byte[] outcomes,
+                      Queue<Booking> bookings) throws InterruptedException {
+        final AtomicInteger nextRequest = new AtomicInteger();
+        final Thread[] clients = new Thread[profile.getConcurrency()];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = new Thread(() -> {
+                int request;
+                while ((request = nextRequest.getAndIncrement()) < latencies.length) {
+                    sendRequest(trips, writePercent, request, latencies, kinds, outcomes, bookings);
+                }
+            }, "load-client-" + i);
+            clients[i].start();
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+    }
+
+    private void sendRequest(List<String[]> trips, int writePercent, int request, long[] latencies, byte[] kinds, byte[] outcomes,
+                             Queue<Booking> bookings) {
+        final Random random = ThreadLocalRandom.current();
+        final LoadProfile.Journey journey = pickJourney(random.nextInt(totalWeight));
+        final String[] pair = trips.get(random.nextInt(trips.size()));
+        final String tripId = journey.getOrigin() <= journey.getDestination() ? pair[0] : pair[1];
+        final int passengers = 1 + random.nextInt(profile.getMaxPassengers());
+        final boolean write = random.nextInt(100) < writePercent;
+        final HttpRequest httpRequest = write
+                ? post("/booking/tickets", "{" + (tripId == null ? "" : "\"tripId\":\"" + tripId + "\",") + "\"passengerCount\":" + passengers
+                + ",\"origin\":\"" + journey.getOrigin() + "\",\"destination\":\"" + journey.getDestination() + "\",\"priceConfirmation\":true}")
+                : get(availabilityPath(tripId, passengers, journey.getOrigin(), journey.getDestination()));
+        final long start = System.nanoTime();
+        byte outcome;
+        try {
+            final HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+            latencies[request] = System.nanoTime() - start;
+            outcome = response.statusCode() == 200 ? SUCCEEDED : response.statusCode() < 500 ? REJECTED : FAILED;
+            if (write && outcome == SUCCEEDED && bookings != null) {
+                bookings.add(toBooking(objectMapper.readTree(response.body()), journey));
+            }
+        } catch (IOException exception) {
+            outcome = FAILED;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            outcome = FAILED;
+        }
+        if (outcome == FAILED) {
+            latencies[request] = System.nanoTime() - start;
+        }
+        kinds[request] = write ? WRITE : READ;
+        outcomes[request] = outcome;
+    }
+
+    private LoadProfile.Journey pickJourney(int weight) {
+        for (LoadProfile.Journey journey : profile.getJourneys()) {
+            weight -= journey.getWeight();
+            if (weight < 0) {
+                return journey;
+            }
+        }
+        throw new IllegalStateException("Journey weights changed");
+    }
+
+    /**
+     * Creates a trip in each direction for every trip pair of the profile, or returns a single pair of nulls
+     * so the default trip of each direction is booked
+     */
+    private List<String[]> createTrips() throws IOException, InterruptedException {
+        final List<String[]> trips = new ArrayList<>();
+        if (profile.getTripPairs() == 0) {
+            trips.add(new String[2]);
+            return trips;
+        }
+        final String prefix = "LOAD-" + Long.toString(System.currentTimeMillis(), 36) + "-";
+        for (int i = 0; i < profile.getTripPairs(); i++) {
+            final String[] pair = {prefix + i + "-UP", prefix + i + "-DOWN"};
+            createTrip(pair[0], "ABCD");
+            createTrip(pair[1], "DCBA");
+            trips.add(pair);
+        }
+        return trips;
+    }
+
+    private void createTrip(String tripId, String stops) throws IOException, InterruptedException {
+        final HttpResponse<String> response = httpClient.send(post("/trips", "{\"tripId\":\"" + tripId + "\",\"stops\":\"" + stops
+                + "\",\"seatRows\":" + profile.getSeatRows() + ",\"seatsPerRow\":" + profile.getSeatsPerRow() + "}"), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            throw new IOException("Unable to create trip " + tripId + ": " + response.body());
+        }
+    }
+
+    private Trip getTrip(String tripId) {
+        try {
+            final HttpResponse<String> response = httpClient.send(get("/trips/" + tripId), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Unable to get trip " + tripId + ": " + response.body());
+            }
+            final JsonNode trip = objectMapper.readTree(response.body());
+            return new Trip(tripId, trip.path("stops").asText(), trip.path("seatRows").asInt() * trip.path("seatsPerRow").asInt(), new HashMap<>());
+        } catch (IOException exception) {
+            throw new IllegalStateException("Unable to get trip " + tripId, exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while getting trip " + tripId, exception);
+        }
+    }
+
+    /**
+     * Compares the available seat count reported for every journey of the trip with the seats its tickets
+     * leave free
+     *
+     * @return number of journeys reported differently
+     */
+    private int checkAvailability(Trip trip) throws IOException, InterruptedException {
+        int inconsistent = 0;
+        for (int origin = 0; origin < trip.stops.length(); origin++) {
+            for (int destination = origin + 1; destination < trip.stops.length(); destination++) {
+                final long journeyMask = trip.segmentMask(trip.stops.charAt(origin), trip.stops.charAt(destination));
+                final long soldSeats = trip.soldSegments.values().stream().filter(segments -> (segments & journeyMask) != 0).count();
+                final HttpResponse<String> response = httpClient.send(get(availabilityPath(trip.tripId, 1, trip.stops.charAt(origin),
+                        trip.stops.charAt(destination)) + "&countOnly=true"), HttpResponse.BodyHandlers.ofString());
+                final int available = response.statusCode() == 200 ? objectMapper.readTree(response.body()).path("availableSeatCount").asInt() : 0;
+                if (available != trip.seatCount - soldSeats) {
+                    log.warn("Trip {} from {} to {} reports {} available seats, tickets leave {}", trip.tripId, trip.stops.charAt(origin),
+                            trip.stops.charAt(destination), available, trip.seatCount - soldSeats);
+                    inconsistent++;
+                }
+            }
+        }
+        return inconsistent;
+    }
+
+    private Booking toBooking(JsonNode reservation, LoadProfile.Journey journey) {
+        final List<String> seatNumbers = new ArrayList<>();
+        reservation.path("seatNumbers").forEach(seatNumber -> seatNumbers.add(seatNumber.asText()));
+        return new Booking(reservation.path("tripId").asText(), journey.getOrigin(), journey.getDestination(), seatNumbers);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", JSON)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String availabilityPath(String tripId, int passengers, char origin, char destination) {
+        return "/booking/availability-and-price?numberOfPassengers=" + passengers + "&origin=" + origin + "&destination=" + destination
+                + (tripId == null ? "" : "&tripId=" + tripId);
+    }
+
+    private static LoadReport.Latency latency(long[] latencies, byte[] kinds, byte[] outcomes, byte kind) {
+        int count = 0;
+        final int[] outcomeCounts = new int[3];
+        final long[] selected = new long[latencies.length];
+        for (int i = 0; i < latencies.length; i++) {
+            if (kinds[i] == kind) {
+                selected[count++] = latencies[i];
+                outcomeCounts[outcomes[i]]++;
+            }
+        }
+        final long[] nanos = new long[count];
+        System.arraycopy(selected, 0, nanos, 0, count);
+        return new LoadReport.Latency(nanos, outcomeCounts[SUCCEEDED], outcomeCounts[REJECTED], outcomeCounts[FAILED]);
+    }
+
+    @AllArgsConstructor
+    private static class Booking {
+        private final String tripId;
+        private final char origin;
+        private final char destination;
+        private final List<String> seatNumbers;
+    }
+
+    @AllArgsConstructor
+    private static class Trip {
+        private final String tripId;
+        private final String stops;
+        private final int seatCount;
+        private final Map<String, Long> soldSegments;
+
+        long segmentMask(char origin, char destination) {
+            return (1L << stops.indexOf(destination)) - (1L << stops.indexOf(origin));
+        }
+
+        /**
+         * @return false if a segment of the seat was already sold
+         */
+        boolean sell(String seatNumber, long segmentMask) {
+            final long sold = soldSegments.getOrDefault(seatNumber, 0L);
+            soldSegments.put(seatNumber, sold | segmentMask);
+            return (sold & segmentMask) == 0;
+        }
+    }
+}
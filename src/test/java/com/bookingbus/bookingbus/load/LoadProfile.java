@@ -0,0 +1,100 @@
+package com.bookingbus.bookingbus.load;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shape of the traffic sent by {@link BookingTrafficSimulator}: how many requests, how many clients send them
+ * at once, the share of reservations among availability checks, and how often each journey is requested.
+ * Journeys are written as origin and destination stops with a relative weight, such as {@code AD:50,AB:10};
+ * without any, every journey between the stops A to D is equally likely.
+ */
+@Getter
+@AllArgsConstructor
+public class LoadProfile {
+    private static final String PROPERTY_PREFIX = "booking.load.";
+    private static final String STOPS = "ABCD";
+    private final int requests;
+    private final int warmupRequests;
+    private final int concurrency;
+    private final int writePercent;
+    private final int maxPassengers;
+    private final List<Journey> journeys;
+    private final int tripPairs;
+    private final int seatRows;
+    private final int seatsPerRow;
+
+    /**
+     * Read the profile from {@code booking.load.*} system properties, falling back to a sale opening on the
+     * default trips
+     *
+     * @return load profile
+     */
+    public static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                Integer.getInteger(PROPERTY_PREFIX + "requests", 100_000),
+                Integer.getInteger(PROPERTY_PREFIX + "warmup-requests", 5_000),
+                Integer.getInteger(PROPERTY_PREFIX + "concurrency", 64),
+                Integer.getInteger(PROPERTY_PREFIX + "write-percent", 20),
+                Integer.getInteger(PROPERTY_PREFIX + "max-passengers", 4),
+                parseJourneys(System.getProperty(PROPERTY_PREFIX + "journeys", "")),
+                Integer.getInteger(PROPERTY_PREFIX + "trip-pairs", 0),
+                Integer.getInteger(PROPERTY_PREFIX + "seat-rows", 10),
+                Integer.getInteger(PROPERTY_PREFIX + "seats-per-row", 4));
+    }
+
+    /**
+     * Parse weighted journeys such as {@code AD:50,AB:10}
+     *
+     * @param journeys comma separated origin and destination stops with a weight, or blank for every journey
+     * @return journeys with their weights
+     */
+    public static List<Journey> parseJourneys(String journeys) {
+        final List<Journey> parsed = new ArrayList<>();
+        if (journeys.isBlank()) {
+            for (char origin : STOPS.toCharArray()) {
+                for (char destination : STOPS.toCharArray()) {
+                    if (origin != destination) {
+                        parsed.add(new Journey(origin, destination, 1));
+                    }
+                }
+            }
+            return parsed;
+        }
+        for (String journey : journeys.split(",")) {
+            final String[] parts = journey.trim().split(":");
+            if (parts[0].length() != 2 || parts[0].charAt(0) == parts[0].charAt(1)) {
+                throw new IllegalArgumentException("Invalid journey " + journey);
+            }
+            final int weight = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Invalid journey weight " + journey);
+            }
+            parsed.add(new Journey(parts[0].charAt(0), parts[0].charAt(1), weight));
+        }
+        return parsed;
+    }
+
+    @Override
+    public String toString() {
+        return requests + " requests from " + concurrency + " clients, " + writePercent + "% reservations of 1 to "
+                + maxPassengers + " passengers, " + (tripPairs == 0 ? "default trips" : tripPairs + " trip pairs of "
+                + seatRows * seatsPerRow + " seats") + ", journeys " + journeys;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Journey {
+        private final char origin;
+        private final char destination;
+        private final int weight;
+
+        @Override
+        public String toString() {
+            return "" + origin + destination + ':' + weight;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.bookingbus.bookingbus.load;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Outcome of a simulated traffic run: request counts by result, latency percentiles of availability checks
+ * and reservations, and the checks made on the sold seats afterwards.
+ */
+@Getter
+@AllArgsConstructor
+public class LoadReport {
+    private final double seconds;
+    private final Latency reads;
+    private final Latency writes;
+    private final int ticketsIssued;
+    private final int oversoldSeats;
+    private final int inconsistentJourneys;
+
+    public int getRequests() {
+        return reads.getCount() + writes.getCount();
+    }
+
+    public int getErrors() {
+        return reads.getErrors() + writes.getErrors();
+    }
+
+    public double getThroughput() {
+        return getRequests() / seconds;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d requests in %.2f s (%.0f req/s), %d tickets issued, %d oversold seats, %d inconsistent journeys%n"
+                        + "  availability %s%n  reservations %s", getRequests(), seconds, getThroughput(), ticketsIssued,
+                oversoldSeats, inconsistentJourneys, reads, writes);
+    }
+
+    /**
+     * Latencies of one kind of request with the number of successful, rejected and failed requests. A
+     * rejection is an answer of the application such as a sold out journey, a failure is a server error or a
+     * request which got no answer.
+     */
+    @Getter
+    public static class Latency {
+        private final int count;
+        private final int succeeded;
+        private final int rejected;
+        private final int errors;
+        private final long[] sortedNanos;
+
+        public Latency(long[] nanos, int succeeded, int rejected, int errors) {
+            this.sortedNanos = nanos.clone();
+            Arrays.sort(sortedNanos);
+            this.count = nanos.length;
+            this.succeeded = succeeded;
+            this.rejected = rejected;
+            this.errors = errors;
+        }
+
+        /**
+         * Get a latency percentile by the nearest rank method
+         *
+         * @param percentile percentile between 0 and 100
+         * @return latency in milliseconds, 0 when there were no requests
+         */
+        public double percentileMillis(double percentile) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            final int rank = (int) Math.ceil(percentile / 100 * sortedNanos.length);
+            return sortedNanos[Math.max(rank, 1) - 1] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d requests (%d ok, %d rejected, %d errors) p50 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms",
+                    count, succeeded, rejected, errors, percentileMillis(50), percentileMillis(99), percentileMillis(99.9),
+                    percentileMillis(100));
+        }
+    }
+}
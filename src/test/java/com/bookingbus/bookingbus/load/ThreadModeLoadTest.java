@@ -0,0 +1,83 @@
+package com.bookingbus.bookingbus.load;
+
+import com.bookingbus.bookingbus.BookingbusApplication;
+import com.bookingbus.bookingbus.config.VirtualThreadConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.testng.Assert.*;
+
+/**
+ * Compares the platform thread pool with virtual thread request handling by firing a burst of
+ * concurrent availability requests at an embedded server and reporting throughput, peak live threads
+ * and heap growth. Run with {@code -Dgroups=load}; the virtual thread run is skipped before Java 21.
+ */
+@Slf4j
+@Test(groups = "load")
+public class ThreadModeLoadTest {
+    private static final int REQUESTS = 10_000;
+    private static final int CONCURRENCY = 1_000;
+
+    public void testPlatformThreads() throws Exception {
+        runLoad(false);
+    }
+
+    public void testVirtualThreads() throws Exception {
+        if (!VirtualThreadConfiguration.isVirtualThreadSupported()) {
+            throw new SkipException("Virtual threads require Java 21 or later");
+        }
+        runLoad(true);
+    }
+
+    private void runLoad(boolean virtualThreads) throws Exception {
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BookingbusApplication.class)
+                .properties("server.port=0", "logging.level.com.bookingbus=WARN",
+                        "booking.threads.virtual.enabled=" + virtualThreads)
+                .run()) {
+            final int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            final URI uri = URI.create("http://localhost:" + port
+                    + "/api/v1/bus/booking/availability-and-price?numberOfPassengers=1&origin=A&destination=C");
+            final HttpClient client = HttpClient.newHttpClient();
+            final HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+            System.gc();
+            final long heapBefore = memoryMXBean.getHeapMemoryUsage().getUsed();
+            threadMXBean.resetPeakThreadCount();
+            final long start = System.nanoTime();
+            int succeeded = 0;
+            for (int sent = 0; sent < REQUESTS; sent += CONCURRENCY) {
+                final List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(CONCURRENCY);
+                for (int i = 0; i < CONCURRENCY; i++) {
+                    responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+                }
+                for (CompletableFuture<HttpResponse<Void>> response : responses) {
+                    if (response.join().statusCode() == 200) {
+                        succeeded++;
+                    }
+                }
+            }
+            final double seconds = (System.nanoTime() - start) / 1e9;
+            log.warn("{} threads: {} requests in {} s ({} req/s), peak live threads {}, heap growth {} MB",
+                    virtualThreads ? "Virtual" : "Platform", REQUESTS, String.format("%.2f", seconds),
+                    Math.round(REQUESTS / seconds), threadMXBean.getPeakThreadCount(),
+                    (memoryMXBean.getHeapMemoryUsage().getUsed() - heapBefore) / (1024 * 1024));
+            assertEquals(succeeded, REQUESTS);
+        }
+    }
+}
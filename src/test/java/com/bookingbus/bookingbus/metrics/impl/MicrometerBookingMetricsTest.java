@@ -0,0 +1,87 @@
+package com.bookingbus.bookingbus.metrics.impl;
+
+import com.bookingbus.bookingbus.availability.impl.IncrementalAvailabilityCache;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.Trip;
+import com.bookingbus.bookingbus.trip.impl.InMemoryTripCatalog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.LocalDateTime;
+
+import static org.testng.Assert.*;
+
+public class MicrometerBookingMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private IncrementalAvailabilityCache availabilityCache;
+    private InMemoryTripCatalog tripCatalog;
+    private MicrometerBookingMetrics bookingMetrics;
+    private Trip trip;
+
+    @BeforeMethod
+    public void setUp() {
+        tripCatalog = new InMemoryTripCatalog();
+        trip = tripCatalog.addTrip("T1", "ABC", LocalDateTime.now(), new SeatLayout(1, 2));
+        meterRegistry = new SimpleMeterRegistry();
+        availabilityCache = new IncrementalAvailabilityCache();
+        bookingMetrics = new MicrometerBookingMetrics(meterRegistry, tripCatalog, availabilityCache, false);
+    }
+
+    @Test
+    public void testRecordSeatClaim() {
+        bookingMetrics.recordSeatClaim(trip, 1_000, true);
+        bookingMetrics.recordSeatClaim(trip, 3_000, false);
+
+        assertEquals(meterRegistry.get("booking.seat.claim").timer().count(), 2);
+        assertEquals(meterRegistry.get("booking.seat.conflicts").counter().count(), 1.0);
+    }
+
+    @Test
+    public void testOccupancy() {
+        tripCatalog.addTrip("T2", "ABC", LocalDateTime.now(), new SeatLayout(1, 2));
+        bookingMetrics.recordSeatClaim(trip, 1_000, true);
+        trip.getInventory().claimSeat(0, trip.getInventory().segmentMask(0, 1));
+
+        assertEquals(meterRegistry.get("booking.occupancy").gauge().value(), 0.125);
+        assertNull(meterRegistry.find("booking.trip.occupancy").gauge(), "Per-trip occupancy is off by default");
+    }
+
+    @Test
+    public void testTripOccupancy() {
+        meterRegistry = new SimpleMeterRegistry();
+        bookingMetrics = new MicrometerBookingMetrics(meterRegistry, tripCatalog, availabilityCache, true);
+        bookingMetrics.recordSeatClaim(trip, 1_000, true);
+        trip.getInventory().claimSeat(0, trip.getInventory().segmentMask(0, 1));
+
+        assertEquals(meterRegistry.get("booking.trip.occupancy").tag("trip", "T1").gauge().value(), 0.25);
+
+        bookingMetrics.recordTripRemoval(trip);
+        assertNull(meterRegistry.find("booking.trip.occupancy").gauge());
+    }
+
+    @Test
+    public void testRecordReservationAndRejection() {
+        bookingMetrics.recordReservation(trip, 3);
+        bookingMetrics.recordRejection();
+        bookingMetrics.recordBatchRollback();
+        bookingMetrics.recordCancellation(trip);
+
+        assertEquals(meterRegistry.get("booking.reservations").tag("outcome", "reserved").counter().count(), 1.0);
+        assertEquals(meterRegistry.get("booking.reservations").tag("outcome", "rejected").counter().count(), 1.0);
+        assertEquals(meterRegistry.get("booking.tickets").counter().count(), 3.0);
+        assertEquals(meterRegistry.get("booking.batch.rollbacks").counter().count(), 1.0);
+        assertEquals(meterRegistry.get("booking.cancellations").counter().count(), 1.0);
+    }
+
+    @Test
+    public void testAvailabilityCacheCounters() {
+        availabilityCache.getAvailableSeats(trip, 0, 2);
+        availabilityCache.getAvailableSeats(trip, 0, 2);
+
+        assertEquals(meterRegistry.get("booking.availability.cache.requests").tag("result", "hit").functionCounter().count(), 1.0);
+        assertEquals(meterRegistry.get("booking.availability.cache.requests").tag("result", "miss").functionCounter().count(), 1.0);
+        assertEquals(meterRegistry.get("booking.availability.seats.scanned").functionCounter().count(), 2.0);
+    }
+}
@@ -0,0 +1,80 @@
+package com.bookingbus.bookingbus.pricing.impl;
+
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.Trip;
+import com.bookingbus.bookingbus.trip.impl.InMemoryTripCatalog;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.LocalDateTime;
+
+import static org.testng.Assert.*;
+
+public class FareMatrixPricingEngineTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2026, 1, 1, 8, 0);
+    private InMemoryTripCatalog tripCatalog;
+    private FareMatrixPricingEngine pricingEngine;
+
+    @BeforeMethod
+    public void setUp() {
+        tripCatalog = new InMemoryTripCatalog();
+        pricingEngine = new FareMatrixPricingEngine(new ClassPathResource("fares.csv"), 80, 0);
+    }
+
+    @Test
+    public void testCalculateFare_BothDirections() {
+        Trip up = tripCatalog.addTrip("UP", "ABCD", DEPARTURE, new SeatLayout(4, 10));
+        Trip down = tripCatalog.addTrip("DOWN", "DCBA", DEPARTURE, new SeatLayout(4, 10));
+        assertEquals(pricingEngine.calculateFare(up, 0, 3, 1, 40), 15000);
+        assertEquals(pricingEngine.calculateFare(up, 1, 3, 2, 40), 20000);
+        assertEquals(pricingEngine.calculateFare(down, 0, 2, 1, 40), 10000);
+    }
+
+    @Test
+    public void testOverrideFare_OnlyAffectsTrip() {
+        Trip first = tripCatalog.addTrip("T1", "ABC", DEPARTURE, new SeatLayout(1, 10));
+        Trip second = tripCatalog.addTrip("T2", "ABC", DEPARTURE, new SeatLayout(1, 10));
+        pricingEngine.overrideFare(first, 'A', 'C', 12345);
+        assertEquals(pricingEngine.calculateFare(first, 0, 2, 2, 10), 24690);
+        assertEquals(pricingEngine.calculateFare(first, 0, 1, 1, 10), 5000);
+        assertEquals(pricingEngine.calculateFare(second, 0, 2, 1, 10), 10000);
+    }
+
+    @Test
+    public void testEvict_DropsOverride() {
+        Trip trip = tripCatalog.addTrip("T1", "ABC", DEPARTURE, new SeatLayout(1, 10));
+        pricingEngine.overrideFare(trip, 'A', 'C', 12345);
+        pricingEngine.evict(trip);
+        assertEquals(pricingEngine.calculateFare(trip, 0, 2, 1, 10), 10000);
+    }
+
+    @Test
+    public void testCalculateFare_LoadSurcharge() {
+        FareMatrixPricingEngine surchargeEngine = new FareMatrixPricingEngine(new ClassPathResource("fares.csv"), 75, 20);
+        Trip trip = tripCatalog.addTrip("T1", "AB", DEPARTURE, new SeatLayout(1, 4));
+        assertEquals(surchargeEngine.calculateFare(trip, 0, 1, 1, 2), 5000, "Half full bus has no surcharge");
+        assertEquals(surchargeEngine.calculateFare(trip, 0, 1, 1, 1), 6000, "Bus at 75% load is surcharged");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Invalid route.*")
+    public void testCalculateFare_StopWithoutFare() {
+        Trip trip = tripCatalog.addTrip("T1", "AZ", DEPARTURE, new SeatLayout(1, 4));
+        pricingEngine.calculateFare(trip, 0, 1, 1, 4);
+    }
+
+    @Test
+    public void testFareTable_CustomStops() {
+        FareMatrixPricingEngine customEngine = new FareMatrixPricingEngine(new ByteArrayResource("# fares\nK,M,2500\nM,P,1500\n".getBytes()), 80, 0);
+        Trip trip = tripCatalog.addTrip("T1", "KMP", DEPARTURE, new SeatLayout(1, 4));
+        assertEquals(customEngine.calculateFare(trip, 1, 2, 2, 4), 3000);
+        assertEquals(customEngine.calculateFare(trip, 0, 1, 1, 4), 2500);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class, expectedExceptionsMessageRegExp = ".*Invalid fare table entry.*")
+    public void testFareTable_InvalidEntry() {
+        new FareMatrixPricingEngine(new ByteArrayResource("AB,C,100\n".getBytes()), 80, 0);
+    }
+}
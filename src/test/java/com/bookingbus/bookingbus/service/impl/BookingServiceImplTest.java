@@ -1,16 +1,49 @@
 package com.bookingbus.bookingbus.service.impl;
 
+import com.bookingbus.bookingbus.allocation.impl.RowGroupingSeatAllocationStrategy;
+import com.bookingbus.bookingbus.audit.impl.NoOpBookingAuditTrail;
+import com.bookingbus.bookingbus.availability.impl.IncrementalAvailabilityCache;
+import com.bookingbus.bookingbus.cluster.ClusterMembership;
+import com.bookingbus.bookingbus.cluster.impl.SingleNodeClusterMembership;
 import com.bookingbus.bookingbus.dto.AvailabilityAndPriceResponseDTO;
+import com.bookingbus.bookingbus.dto.BatchReservationRequestDTO;
+import com.bookingbus.bookingbus.dto.BatchReservationResponseDTO;
+import com.bookingbus.bookingbus.dto.HoldConfirmationDTO;
+import com.bookingbus.bookingbus.dto.SeatHoldResponseDTO;
+import com.bookingbus.bookingbus.dto.TicketCancellationResponseDTO;
 import com.bookingbus.bookingbus.dto.TicketReservationRequestDTO;
 import com.bookingbus.bookingbus.dto.TicketReservationResponseDTO;
+import com.bookingbus.bookingbus.dto.TripTransferDTO;
+import com.bookingbus.bookingbus.hold.impl.TimerWheelSeatHoldManager;
+import com.bookingbus.bookingbus.journal.JournalReplayHandler;
+import com.bookingbus.bookingbus.journal.impl.NoOpReservationJournal;
+import com.bookingbus.bookingbus.metrics.impl.MicrometerBookingMetrics;
+import com.bookingbus.bookingbus.pricing.impl.FareMatrixPricingEngine;
+import com.bookingbus.bookingbus.ticket.impl.ChunkedTicketIndex;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.Trip;
+import com.bookingbus.bookingbus.trip.impl.InMemoryTripCatalog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.core.io.ClassPathResource;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import static org.testng.Assert.*;
 
 public class BookingServiceImplTest {
 
     private BookingServiceImpl bookingService;
+    private InMemoryTripCatalog tripCatalog;
+    private FareMatrixPricingEngine pricingEngine;
+    private TimerWheelSeatHoldManager seatHoldManager;
+    private IncrementalAvailabilityCache availabilityCache;
     private static final char A = 'A';
     private static final char B = 'B';
     private static final char C = 'C';
@@ -18,7 +51,19 @@ public class BookingServiceImplTest {
 
     @BeforeMethod
     public void setUp() {
-        bookingService = new BookingServiceImpl();
+        tripCatalog = new InMemoryTripCatalog();
+        pricingEngine = new FareMatrixPricingEngine(new ClassPathResource("fares.csv"), 80, 0);
+        seatHoldManager = new TimerWheelSeatHoldManager(Duration.ofMinutes(10), Duration.ofMillis(100));
+        availabilityCache = new IncrementalAvailabilityCache();
+        bookingService = new BookingServiceImpl(tripCatalog, pricingEngine, new NoOpReservationJournal(), availabilityCache,
+                new MicrometerBookingMetrics(new SimpleMeterRegistry(), tripCatalog, availabilityCache, false),
+                new NoOpBookingAuditTrail(), seatHoldManager, new RowGroupingSeatAllocationStrategy(), new ChunkedTicketIndex(),
+                new SingleNodeClusterMembership());
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        seatHoldManager.close();
     }
 
     @Test
@@ -56,6 +101,17 @@ public class BookingServiceImplTest {
         assertEquals(response.getTotalPrice(), 150.0, "Total price should be 50 * 3");
     }
 
+    @Test
+    public void testReserveTickets_PricedWithoutRebuildingAvailability() {
+        TicketReservationRequestDTO request = new TicketReservationRequestDTO();
+        request.setOrigin(A);
+        request.setDestination(B);
+        request.setPassengerCount(1);
+        bookingService.reserveTickets(request);
+        bookingService.reserveTickets(request);
+        assertEquals(availabilityCache.getMissCount(), 0, "Bookings do not build seat lists");
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Invalid reservation request.*")
     public void testReserveTickets_InvalidPassengerCount() {
         TicketReservationRequestDTO request = new TicketReservationRequestDTO();
@@ -84,6 +140,161 @@ public class BookingServiceImplTest {
         bookingService.reserveTickets(request);
     }
 
+    @Test(expectedExceptions = IllegalArgumentException.class,
+            expectedExceptionsMessageRegExp = ".*Not enough available seats.*")
+    public void testReserveTickets_PassengerCountBeyondSeatCount() {
+        TicketReservationRequestDTO request = new TicketReservationRequestDTO();
+        request.setOrigin(A);
+        request.setDestination(B);
+        request.setPassengerCount(Integer.MAX_VALUE);
+        bookingService.reserveTickets(request);
+    }
+
+    @Test
+    public void testReserveTickets_TicketNumberRangeUsedUp() {
+        final InMemoryTripCatalog catalog = new InMemoryTripCatalog();
+        final IncrementalAvailabilityCache cache = new IncrementalAvailabilityCache();
+        final BookingServiceImpl nearlyFullNode = new BookingServiceImpl(catalog, pricingEngine, new NoOpReservationJournal() {
+            @Override
+            public void restore(JournalReplayHandler handler) {
+                handler.onTicketNumber(ClusterMembership.TICKET_NUMBERS_PER_NODE - 1);
+            }
+        }, cache, new MicrometerBookingMetrics(new SimpleMeterRegistry(), catalog, cache, false), new NoOpBookingAuditTrail(), seatHoldManager,
+                new RowGroupingSeatAllocationStrategy(), new ChunkedTicketIndex(), new SingleNodeClusterMembership());
+        TicketReservationRequestDTO request = new TicketReservationRequestDTO();
+        request.setOrigin(A);
+        request.setDestination(B);
+        request.setPassengerCount(2);
+
+        IllegalArgumentException rejection = expectThrows(IllegalArgumentException.class, () -> nearlyFullNode.reserveTickets(request));
+        assertEquals(rejection.getMessage(), "No ticket numbers left on this node");
+        assertEquals(nearlyFullNode.getAvailableSeats(A, B).size(), 40, "Claimed seats released");
+
+        request.setPassengerCount(1);
+        assertEquals(nearlyFullNode.reserveTickets(request).getTicketNumbers(), List.of(ClusterMembership.TICKET_NUMBERS_PER_NODE));
+        assertThrows(IllegalArgumentException.class, () -> nearlyFullNode.reserveTickets(request));
+    }
+
+    @Test
+    public void testReserveTickets_JournalFailureReleasesSeats() {
+        final InMemoryTripCatalog catalog = new InMemoryTripCatalog();
+        final IncrementalAvailabilityCache cache = new IncrementalAvailabilityCache();
+        final BookingServiceImpl failingNode = new BookingServiceImpl(catalog, pricingEngine, new NoOpReservationJournal() {
+            @Override
+            public void recordTickets(Trip trip, int[] seats, int count, long segmentMask, long[] fares, int firstTicketNumber) {
+                throw new IllegalStateException("Journal record does not fit in a segment");
+            }
+        }, cache, new MicrometerBookingMetrics(new SimpleMeterRegistry(), catalog, cache, false), new NoOpBookingAuditTrail(), seatHoldManager,
+                new RowGroupingSeatAllocationStrategy(), new ChunkedTicketIndex(), new SingleNodeClusterMembership());
+        TicketReservationRequestDTO request = new TicketReservationRequestDTO();
+        request.setOrigin(A);
+        request.setDestination(B);
+        request.setPassengerCount(2);
+
+        assertThrows(IllegalStateException.class, () -> failingNode.reserveTickets(request));
+        assertEquals(failingNode.getAvailableSeats(A, B).size(), 40, "Claimed seats released");
+        expectThrows(IllegalArgumentException.class, () -> failingNode.cancelTicket(1));
+
+        BatchReservationRequestDTO batch = new BatchReservationRequestDTO(List.of(newRequest(A, B, 2), newRequest(A, B, 3)), false);
+        assertThrows(IllegalStateException.class, () -> failingNode.reserveTicketsInBatch(batch));
+        assertEquals(failingNode.getAvailableSeats(A, B).size(), 40, "Claims of the whole batch released");
+    }
+
+    @Test
+    public void testCancelTicket_JournalFailureKeepsTicket() {
+        final InMemoryTripCatalog catalog = new InMemoryTripCatalog();
+        final IncrementalAvailabilityCache cache = new IncrementalAvailabilityCache();
+        final AtomicBoolean journalFailing = new AtomicBoolean();
+        final BookingServiceImpl node = new BookingServiceImpl(catalog, pricingEngine, new NoOpReservationJournal() {
+            @Override
+            public void recordCancellation(Trip trip, int ticketNumber, int seat, long segmentMask) {
+                if (journalFailing.get()) {
+                    throw new IllegalStateException("Journal segment could not be opened");
+                }
+            }
+        }, cache, new MicrometerBookingMetrics(new SimpleMeterRegistry(), catalog, cache, false), new NoOpBookingAuditTrail(), seatHoldManager,
+                new RowGroupingSeatAllocationStrategy(), new ChunkedTicketIndex(), new SingleNodeClusterMembership());
+        int ticketNumber = node.reserveTickets(newRequest(A, B, 1)).getTicketNumbers().get(0);
+
+        journalFailing.set(true);
+        assertThrows(IllegalStateException.class, () -> node.cancelTicket(ticketNumber));
+        assertEquals(node.getAvailableSeats(A, B).size(), 39, "Seat stays sold");
+
+        journalFailing.set(false);
+        node.cancelTicket(ticketNumber);
+        assertEquals(node.getAvailableSeats(A, B).size(), 40);
+    }
+
+    @Test
+    public void testReserveTickets_PartialRouteResale() {
+        TicketReservationRequestDTO request = new TicketReservationRequestDTO();
+        request.setOrigin(A);
+        request.setDestination(B);
+        request.setPassengerCount(40);
+        bookingService.reserveTickets(request);
+        assertTrue(bookingService.getAvailableSeats(A, C).isEmpty(), "A to C should be sold out");
+        assertEquals(bookingService.getAvailableSeats(B, D).size(), 40, "B to D should still be sellable");
+        assertEquals(bookingService.getAvailableSeats(B, A).size(), 40, "Down journey should be unaffected");
+    }
+
+    @Test
+    public void testReserveTickets_SpecificTrip() {
+        tripCatalog.addTrip("T100", "ABC", LocalDateTime.of(2026, 1, 1, 8, 0), new SeatLayout(1, 2));
+        TicketReservationRequestDTO request = new TicketReservationRequestDTO();
+        request.setTripId("T100");
+        request.setOrigin(A);
+        request.setDestination(C);
+        request.setPassengerCount(2);
+        TicketReservationResponseDTO response = bookingService.reserveTickets(request);
+        assertEquals(response.getTripId(), "T100");
+        assertEquals(response.getSeatNumbers().size(), 2);
+        assertTrue(bookingService.getAvailableSeats("T100", B, C).isEmpty(), "Trip T100 should be sold out");
+        assertEquals(bookingService.getAvailableSeats(A, C).size(), 40, "Default up journey should be unaffected");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Invalid trip.*")
+    public void testCheckAvailabilityAndPrice_UnknownTrip() {
+        bookingService.checkAvailabilityAndPrice("UNKNOWN", 1, A, B);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Invalid origin or destination selection.*")
+    public void testGetAvailableSeats_WrongDirectionOnTrip() {
+        bookingService.getAvailableSeats(BookingServiceImpl.UP_JOURNEY_TRIP_ID, C, A);
+    }
+
+    @Test
+    public void testReserveTicketsInBatch_PartialSuccess() {
+        BatchReservationRequestDTO batchRequest = new BatchReservationRequestDTO(
+                List.of(newRequest(A, B, 30), newRequest(A, C, 20), newRequest(B, C, 5)), false);
+        BatchReservationResponseDTO response = bookingService.reserveTicketsInBatch(batchRequest);
+        assertEquals(response.getReservedCount(), Integer.valueOf(2));
+        assertEquals(response.getFailedCount(), Integer.valueOf(1));
+        assertTrue(response.getResults().get(0).isReserved());
+        assertFalse(response.getResults().get(1).isReserved());
+        assertEquals(response.getResults().get(1).getError(), "Not enough available seats");
+        assertEquals(response.getResults().get(2).getReservation().getTicketNumbers(), List.of(31, 32, 33, 34, 35));
+        assertEquals(bookingService.getAvailableSeats(B, C).size(), 35);
+    }
+
+    @Test
+    public void testReserveTicketsInBatch_AllOrNothingRollsBack() {
+        BatchReservationRequestDTO batchRequest = new BatchReservationRequestDTO(
+                List.of(newRequest(A, B, 30), newRequest(D, A, 5), newRequest(A, C, 20)), true);
+        BatchReservationResponseDTO response = bookingService.reserveTicketsInBatch(batchRequest);
+        assertEquals(response.getReservedCount(), Integer.valueOf(0));
+        assertEquals(response.getFailedCount(), Integer.valueOf(3));
+        assertEquals(response.getResults().get(0).getError(), "Batch rolled back");
+        assertEquals(response.getResults().get(2).getError(), "Not enough available seats");
+        assertEquals(bookingService.getAvailableSeats(A, B).size(), 40, "Up journey claims should be rolled back");
+        assertEquals(bookingService.getAvailableSeats(D, A).size(), 40, "Down journey claims should be rolled back");
+        assertEquals(bookingService.reserveTickets(newRequest(A, B, 1)).getTicketNumbers(), List.of(1));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Invalid batch reservation request.*")
+    public void testReserveTicketsInBatch_Empty() {
+        bookingService.reserveTicketsInBatch(new BatchReservationRequestDTO(List.of(), true));
+    }
+
     @Test
     public void testGetAvailableSeats_UpJourney() {
         assertFalse(bookingService.getAvailableSeats(A, B).isEmpty());
@@ -100,16 +311,188 @@ public class BookingServiceImplTest {
     }
 
     @Test
-    public void testCalculatePriceRoutes() throws Exception {
-        double price1 = invokeCalculatePrice(A, B, 2);
-        double price2 = invokeCalculatePrice(A, D, 1);
-        assertEquals(price1, 100.0);
-        assertEquals(price2, 150.0);
+    public void testCalculatePriceRoutes() {
+        assertEquals(bookingService.checkAvailabilityAndPrice(2, A, B).getTotalPrice(), 100.0);
+        assertEquals(bookingService.checkAvailabilityAndPrice(1, A, D).getTotalPrice(), 150.0);
+        assertEquals(bookingService.checkAvailabilityAndPrice(3, D, B).getTotalPrice(), 300.0);
+    }
+
+    @Test
+    public void testReserveTickets_TripFareOverride() {
+        pricingEngine.overrideFare(tripCatalog.getTrip(BookingServiceImpl.UP_JOURNEY_TRIP_ID), A, B, 7550);
+        assertEquals(bookingService.reserveTickets(newRequest(A, B, 2)).getTotalPrice(), 151.0);
+        assertEquals(bookingService.checkAvailabilityAndPrice(2, B, A).getTotalPrice(), 100.0, "Down journey keeps the table fare");
+    }
+
+    @Test
+    public void testRemoveTrip_DropsFareOverride() {
+        Trip trip = tripCatalog.addTrip("T1", "ABC", LocalDateTime.of(2026, 1, 1, 8, 0), new SeatLayout(1, 4));
+        pricingEngine.overrideFare(trip, A, C, 12345);
+        assertEquals(bookingService.checkAvailabilityAndPrice("T1", 1, A, C).getTotalPrice(), 123.45);
+        bookingService.removeTrip("T1");
+
+        tripCatalog.addTrip("T1", "ABC", LocalDateTime.of(2026, 1, 2, 8, 0), new SeatLayout(1, 4));
+        assertEquals(bookingService.checkAvailabilityAndPrice("T1", 1, A, C).getTotalPrice(), 100.0, "A trip reusing the id starts from the table fare");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Invalid route.*")
+    public void testReserveTickets_NoFareReleasesNothing() {
+        tripCatalog.addTrip("T200", "AXB", LocalDateTime.of(2026, 1, 1, 8, 0), new SeatLayout(1, 2));
+        TicketReservationRequestDTO request = newRequest(A, 'X', 1);
+        request.setTripId("T200");
+        try {
+            bookingService.reserveTickets(request);
+        } finally {
+            assertEquals(bookingService.getAvailableSeats("T200", A, 'X').size(), 2, "No seat should be claimed without a fare");
+        }
+    }
+
+    @Test
+    public void testHoldSeats_ConfirmIssuesTicketsAtQuotedPrice() {
+        SeatHoldResponseDTO hold = bookingService.holdSeats(newRequest(A, C, 2));
+        assertEquals(hold.getSeatNumbers().size(), 2);
+        assertEquals(hold.getTotalPrice(), 200.0);
+        assertEquals(bookingService.getAvailableSeats(A, C).size(), 38, "Held seats are not available");
+
+        pricingEngine.overrideFare(tripCatalog.getTrip(BookingServiceImpl.UP_JOURNEY_TRIP_ID), A, C, 50000);
+        TicketReservationResponseDTO reservation = bookingService.confirmHold(hold.getHoldId(), new HoldConfirmationDTO(true));
+        assertEquals(reservation.getSeatNumbers(), hold.getSeatNumbers());
+        assertEquals(reservation.getTotalPrice(), 200.0);
+        assertEquals(reservation.getTicketNumbers(), List.of(1, 2));
+        assertEquals(bookingService.getAvailableSeats(A, C).size(), 38);
+        assertEquals(seatHoldManager.getActiveHoldCount(), 0);
+    }
+
+    @Test
+    public void testHoldSeats_ReleaseReturnsSeats() {
+        SeatHoldResponseDTO hold = bookingService.holdSeats(newRequest(A, B, 40));
+        assertTrue(bookingService.getAvailableSeats(A, D).isEmpty());
+
+        bookingService.releaseHold(hold.getHoldId());
+        assertEquals(bookingService.getAvailableSeats(A, D).size(), 40);
+        assertThrows(IllegalArgumentException.class, () -> bookingService.confirmHold(hold.getHoldId(), new HoldConfirmationDTO(true)));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Price must be confirmed.*")
+    public void testConfirmHold_WithoutPriceConfirmation() {
+        SeatHoldResponseDTO hold = bookingService.holdSeats(newRequest(A, B, 1));
+        try {
+            bookingService.confirmHold(hold.getHoldId(), new HoldConfirmationDTO(false));
+        } finally {
+            assertEquals(seatHoldManager.getActiveHoldCount(), 1, "Hold is kept until the price is confirmed");
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Invalid or expired hold.*")
+    public void testReleaseHold_Unknown() {
+        bookingService.releaseHold("unknown");
+    }
+
+    @Test
+    public void testReserveTickets_ReusesSeatFreedLaterOnRoute() {
+        TicketReservationResponseDTO first = bookingService.reserveTickets(newRequest(A, B, 1));
+        TicketReservationResponseDTO second = bookingService.reserveTickets(newRequest(B, D, 1));
+
+        assertEquals(second.getSeatNumbers(), first.getSeatNumbers());
+        assertEquals(bookingService.getAvailableSeats(A, D).size(), 39);
+    }
+
+    @Test
+    public void testReserveTickets_GroupSeatedInOneRow() {
+        bookingService.reserveTickets(newRequest(A, D, 8));
+        TicketReservationResponseDTO group = bookingService.reserveTickets(newRequest(A, D, 4));
+
+        assertEquals(group.getSeatNumbers(), List.of("B1", "B2", "B3", "B4"));
+    }
+
+    @Test
+    public void testCancelTicket_SeatImmediatelyResellable() {
+        TicketReservationResponseDTO reservation = bookingService.reserveTickets(newRequest(A, C, 3));
+        assertEquals(bookingService.getAvailableSeats(A, C).size(), 37);
+
+        TicketCancellationResponseDTO cancellation = bookingService.cancelTicket(reservation.getTicketNumbers().get(1));
+
+        assertEquals(cancellation.getSeatNumber(), reservation.getSeatNumbers().get(1));
+        assertEquals(cancellation.getOrigin(), Character.valueOf(A));
+        assertEquals(cancellation.getDestination(), Character.valueOf(C));
+        assertEquals(cancellation.getRefundAmount(), 100.0);
+        assertEquals(bookingService.getAvailableSeats(A, C).size(), 38);
+        assertTrue(bookingService.getAvailableSeats(A, B).contains(cancellation.getSeatNumber()));
+        assertFalse(bookingService.getAvailableSeats(A, B).contains(reservation.getSeatNumbers().get(0)));
+    }
+
+    @Test
+    public void testCancelTicket_FreesOnlyTicketSegments() {
+        TicketReservationResponseDTO first = bookingService.reserveTickets(newRequest(A, B, 1));
+        TicketReservationResponseDTO second = bookingService.reserveTickets(newRequest(B, D, 1));
+        assertEquals(second.getSeatNumbers(), first.getSeatNumbers());
+
+        bookingService.cancelTicket(first.getTicketNumbers().get(0));
+
+        assertTrue(bookingService.getAvailableSeats(A, B).contains(first.getSeatNumbers().get(0)));
+        assertFalse(bookingService.getAvailableSeats(B, C).contains(first.getSeatNumbers().get(0)));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Ticket already cancelled.*")
+    public void testCancelTicket_Twice() {
+        TicketReservationResponseDTO reservation = bookingService.reserveTickets(newRequest(A, B, 1));
+        bookingService.cancelTicket(reservation.getTicketNumbers().get(0));
+        bookingService.cancelTicket(reservation.getTicketNumbers().get(0));
     }
 
-    private double invokeCalculatePrice(char origin, char destination, int count) throws Exception {
-        var method = BookingServiceImpl.class.getDeclaredMethod("calculatePrice", char.class, char.class, int.class);
-        method.setAccessible(true);
-        return (double) method.invoke(bookingService, origin, destination, count);
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Invalid ticket number.*")
+    public void testCancelTicket_NotIssued() {
+        bookingService.reserveTickets(newRequest(A, B, 1));
+        bookingService.cancelTicket(2);
+    }
+
+    @Test
+    public void testExportTrip_ReleasesHoldsAndCarriesTickets() {
+        tripCatalog.addTrip("T1", "ABC", null, new SeatLayout(1, 4));
+        SeatHoldResponseDTO hold = bookingService.holdSeats(new TicketReservationRequestDTO("T1", 1, A, C, true));
+        TicketReservationResponseDTO reservation = bookingService.reserveTickets(new TicketReservationRequestDTO("T1", 2, A, B, true));
+        bookingService.cancelTicket(reservation.getTicketNumbers().get(1));
+
+        TripTransferDTO transfer = bookingService.exportTrip("T1");
+
+        assertEquals(transfer.getStops(), "ABC");
+        assertEquals(transfer.getOccupiedSegments().length, 4);
+        assertEquals(Arrays.stream(transfer.getOccupiedSegments()).filter(segments -> segments != 0).count(), 1);
+        assertEquals(transfer.getTickets().size(), 2);
+        assertFalse(transfer.getTickets().get(0).isCancelled());
+        assertTrue(transfer.getTickets().get(1).isCancelled());
+        assertThrows(IllegalArgumentException.class, () -> bookingService.confirmHold(hold.getHoldId(), new HoldConfirmationDTO(true)));
+    }
+
+    @Test
+    public void testImportTrip_TicketsCancellableOnNewNode() {
+        tripCatalog.addTrip("T1", "ABC", LocalDateTime.of(2026, 1, 1, 8, 0), new SeatLayout(1, 4));
+        TicketReservationResponseDTO reservation = bookingService.reserveTickets(new TicketReservationRequestDTO("T1", 3, B, C, true));
+        TripTransferDTO transfer = bookingService.exportTrip("T1");
+        bookingService.removeTrip("T1");
+        assertNull(tripCatalog.getTrip("T1"));
+
+        setUp();
+        bookingService.importTrip(transfer);
+
+        assertEquals(tripCatalog.getTrip("T1").getDepartureTime(), LocalDateTime.of(2026, 1, 1, 8, 0));
+        assertEquals(bookingService.getAvailableSeats("T1", A, B).size(), 4);
+        assertEquals(bookingService.getAvailableSeats("T1", B, C).size(), 1);
+        assertEquals(bookingService.cancelTicket(reservation.getTicketNumbers().get(2)).getSeatNumber(), reservation.getSeatNumbers().get(2));
+        assertEquals(bookingService.getAvailableSeats("T1", B, C).size(), 2);
+        assertThrows(IllegalStateException.class, () -> bookingService.importTrip(transfer));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Invalid trip transfer.*")
+    public void testImportTrip_SeatCountMismatch() {
+        bookingService.importTrip(new TripTransferDTO("T1", "ABC", null, 1, 4, new long[3], List.of()));
+    }
+
+    private TicketReservationRequestDTO newRequest(char origin, char destination, int passengerCount) {
+        TicketReservationRequestDTO request = new TicketReservationRequestDTO();
+        request.setOrigin(origin);
+        request.setDestination(destination);
+        request.setPassengerCount(passengerCount);
+        return request;
     }
-}
\ No newline at end of file
+}
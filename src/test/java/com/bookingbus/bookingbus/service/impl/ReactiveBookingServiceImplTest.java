@@ -0,0 +1,160 @@
+package com.bookingbus.bookingbus.service.impl;
+
+import com.bookingbus.bookingbus.allocation.impl.RowGroupingSeatAllocationStrategy;
+import com.bookingbus.bookingbus.audit.impl.NoOpBookingAuditTrail;
+import com.bookingbus.bookingbus.availability.impl.IncrementalAvailabilityCache;
+import com.bookingbus.bookingbus.cluster.impl.SingleNodeClusterMembership;
+import com.bookingbus.bookingbus.dto.AvailabilityUpdateDTO;
+import com.bookingbus.bookingbus.dto.TicketReservationRequestDTO;
+import com.bookingbus.bookingbus.hold.impl.TimerWheelSeatHoldManager;
+import com.bookingbus.bookingbus.journal.impl.NoOpReservationJournal;
+import com.bookingbus.bookingbus.metrics.impl.MicrometerBookingMetrics;
+import com.bookingbus.bookingbus.pricing.impl.FareMatrixPricingEngine;
+import com.bookingbus.bookingbus.ticket.impl.ChunkedTicketIndex;
+import com.bookingbus.bookingbus.trip.impl.InMemoryTripCatalog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.core.io.ClassPathResource;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.testng.Assert.*;
+
+public class ReactiveBookingServiceImplTest {
+
+    private static final Duration QUIET_PERIOD = Duration.ofMillis(200);
+    private BookingServiceImpl bookingService;
+    private ReactiveBookingServiceImpl reactiveBookingService;
+    private final Queue<Runnable> availabilityTasks = new ConcurrentLinkedQueue<>();
+
+    @BeforeMethod
+    public void setUp() {
+        InMemoryTripCatalog tripCatalog = new InMemoryTripCatalog();
+        IncrementalAvailabilityCache availabilityCache = new IncrementalAvailabilityCache();
+        bookingService = new BookingServiceImpl(tripCatalog, new FareMatrixPricingEngine(new ClassPathResource("fares.csv"), 80, 0),
+                new NoOpReservationJournal(), availabilityCache, new MicrometerBookingMetrics(new SimpleMeterRegistry(), tripCatalog, availabilityCache, false),
+                new NoOpBookingAuditTrail(), new TimerWheelSeatHoldManager(Duration.ofMinutes(10), Duration.ofMillis(100)),
+                new RowGroupingSeatAllocationStrategy(), new ChunkedTicketIndex(),
+                new SingleNodeClusterMembership());
+        reactiveBookingService = new ReactiveBookingServiceImpl(bookingService);
+        availabilityTasks.clear();
+    }
+
+    @Test
+    public void testCheckAvailabilityAndPrice() {
+        StepVerifier.create(reactiveBookingService.checkAvailabilityAndPrice(null, 2, 'A', 'C'))
+                .assertNext(response -> {
+                    assertEquals(response.getAvailableSeatCount(), Integer.valueOf(40));
+                    assertEquals(response.getTotalPrice(), 200.0);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testCheckAvailabilityAndPrice_ErrorSignalled() {
+        StepVerifier.create(reactiveBookingService.checkAvailabilityAndPrice("T404", 2, 'A', 'C'))
+                .expectErrorMessage("Invalid trip")
+                .verify();
+    }
+
+    @Test
+    public void testReserveTickets_DeferredUntilSubscribed() {
+        var reservation = reactiveBookingService.reserveTickets(new TicketReservationRequestDTO(null, 3, 'A', 'B', true));
+        assertEquals(bookingService.getAvailableSeats('A', 'B').size(), 40, "Nothing is reserved before subscription");
+
+        StepVerifier.create(reservation)
+                .assertNext(response -> assertEquals(response.getSeatNumbers().size(), 3))
+                .verifyComplete();
+        assertEquals(bookingService.getAvailableSeats('A', 'B').size(), 37);
+    }
+
+    @Test
+    public void testStreamAvailability_EmitsOnlyChanges() {
+        StepVerifier.create(reactiveBookingService.streamAvailability(null, 'A', 'C'))
+                .assertNext(update -> assertEquals(update.getAvailableSeatCount(), Integer.valueOf(40)))
+                .expectNoEvent(QUIET_PERIOD)
+                .then(() -> bookingService.reserveTickets(new TicketReservationRequestDTO(null, 2, 'B', 'D', true)))
+                // The stream may see the first seat taken before the second
+                .thenConsumeWhile(update -> update.getAvailableSeatCount() > 38)
+                .assertNext(update -> {
+                    assertEquals(update.getAvailableSeatCount(), Integer.valueOf(38));
+                    assertEquals(update.getOrigin(), Character.valueOf('A'));
+                })
+                .then(() -> bookingService.reserveTickets(new TicketReservationRequestDTO(null, 1, 'C', 'D', true)))
+                .expectNoEvent(QUIET_PERIOD)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    public void testStreamAvailability_SameSeatsNotSentAgain() {
+        useManualAvailabilityScheduler();
+
+        StepVerifier.create(reactiveBookingService.streamAvailability(null, 'A', 'B'))
+                .then(this::runAvailabilityTasks)
+                .assertNext(update -> assertEquals(update.getAvailableSeatCount(), Integer.valueOf(40)))
+                .then(() -> {
+                    // Two changes of the route which leave the same seats available
+                    var reservation = bookingService.reserveTickets(new TicketReservationRequestDTO(null, 1, 'A', 'B', true));
+                    bookingService.cancelTicket(reservation.getTicketNumbers().get(0));
+                })
+                .then(this::runAvailabilityTasks)
+                .expectNoEvent(QUIET_PERIOD)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    public void testStreamAvailability_SharedBetweenSubscribers() {
+        useManualAvailabilityScheduler();
+        List<AvailabilityUpdateDTO> first = new ArrayList<>();
+        List<AvailabilityUpdateDTO> second = new ArrayList<>();
+        Disposable firstSubscription = reactiveBookingService.streamAvailability(null, 'A', 'C').subscribe(first::add);
+        Disposable secondSubscription = reactiveBookingService.streamAvailability(null, 'A', 'C').subscribe(second::add);
+        runAvailabilityTasks();
+
+        bookingService.reserveTickets(new TicketReservationRequestDTO(null, 1, 'A', 'B', true));
+        runAvailabilityTasks();
+        firstSubscription.dispose();
+        secondSubscription.dispose();
+
+        assertEquals(first.size(), 2);
+        assertEquals(first.get(1).getAvailableSeatCount(), Integer.valueOf(39));
+        assertEquals(second.size(), 2);
+        assertEquals(second.get(1).getAvailableSeatCount(), Integer.valueOf(39));
+    }
+
+    @Test
+    public void testStreamAvailability_TripRemoved() {
+        StepVerifier.create(reactiveBookingService.streamAvailability("UP", 'A', 'C'))
+                .assertNext(update -> assertEquals(update.getAvailableSeatCount(), Integer.valueOf(40)))
+                .then(() -> bookingService.removeTrip("UP"))
+                .expectErrorMessage("Invalid trip")
+                .verify();
+    }
+
+    @Test
+    public void testStreamAvailability_InvalidTrip() {
+        StepVerifier.create(reactiveBookingService.streamAvailability("T404", 'A', 'C'))
+                .expectErrorMessage("Invalid trip")
+                .verify();
+    }
+
+    private void useManualAvailabilityScheduler() {
+        reactiveBookingService = new ReactiveBookingServiceImpl(bookingService, Schedulers.fromExecutor(availabilityTasks::add));
+    }
+
+    private void runAvailabilityTasks() {
+        for (Runnable task; (task = availabilityTasks.poll()) != null; ) {
+            task.run();
+        }
+    }
+}
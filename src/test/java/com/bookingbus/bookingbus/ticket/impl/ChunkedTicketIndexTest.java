@@ -0,0 +1,164 @@
+package com.bookingbus.bookingbus.ticket.impl;
+
+import com.bookingbus.bookingbus.ticket.TicketRecord;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.*;
+
+public class ChunkedTicketIndexTest {
+
+    private static final String UP = "UP";
+    private static final String DOWN = "DOWN";
+
+    private ChunkedTicketIndex ticketIndex;
+
+    @BeforeMethod
+    public void setUp() {
+        ticketIndex = new ChunkedTicketIndex();
+    }
+
+    @Test
+    public void testCancel_ReturnsIndexedTicket() {
+        ticketIndex.addTicket(1, UP, 7, 0b110L, 12_345, false);
+        ticketIndex.addTicket(2, DOWN, 39, 0b001L, 100, false);
+
+        TicketRecord ticket = ticketIndex.cancel(2);
+        assertEquals(ticket.getTicketNumber(), 2);
+        assertEquals(ticket.getTripId(), DOWN);
+        assertEquals(ticket.getSeat(), 39);
+        assertEquals(ticket.getSegmentMask(), 0b001L);
+        assertEquals(ticket.getFare(), 100);
+        assertTrue(ticket.isCancelled());
+
+        ticket = ticketIndex.cancel(1);
+        assertEquals(ticket.getTripId(), UP);
+        assertEquals(ticket.getSeat(), 7);
+        assertEquals(ticket.getSegmentMask(), 0b110L);
+        assertEquals(ticket.getFare(), 12_345);
+    }
+
+    @Test
+    public void testGetTicket() {
+        ticketIndex.addTicket(1, UP, 7, 0b110L, 12_345, false);
+        ticketIndex.addTicket(2, DOWN, 39, 0b001L, 100, true);
+
+        TicketRecord ticket = ticketIndex.getTicket(1);
+        assertEquals(ticket.getTripId(), UP);
+        assertEquals(ticket.getSeat(), 7);
+        assertEquals(ticket.getSegmentMask(), 0b110L);
+        assertEquals(ticket.getFare(), 12_345);
+        assertFalse(ticket.isCancelled());
+        assertTrue(ticketIndex.getTicket(2).isCancelled());
+        assertNull(ticketIndex.getTicket(3));
+        assertNull(ticketIndex.getTicket(1_000_000));
+        assertNull(ticketIndex.getTicket(-1));
+    }
+
+    @Test
+    public void testGetTickets_OfOneTrip() {
+        ticketIndex.addTicket(1, UP, 0, 0b001L, 100, false);
+        ticketIndex.addTicket(2, DOWN, 1, 0b001L, 100, false);
+        ticketIndex.addTicket(1 << 27, UP, 2, 0b011L, 200, false);
+        ticketIndex.cancel(1);
+
+        List<TicketRecord> tickets = ticketIndex.getTickets(UP);
+        assertEquals(tickets.size(), 2);
+        assertEquals(tickets.get(0).getTicketNumber(), 1);
+        assertTrue(tickets.get(0).isCancelled());
+        assertEquals(tickets.get(1).getTicketNumber(), 1 << 27);
+        assertEquals(tickets.get(1).getSeat(), 2);
+        assertFalse(tickets.get(1).isCancelled());
+        assertTrue(ticketIndex.getTickets("OTHER").isEmpty());
+    }
+
+    @Test
+    public void testAddTicket_ReplacesTicket() {
+        ticketIndex.addTicket(1, UP, 0, 0b001L, 100, false);
+        ticketIndex.cancel(1);
+        ticketIndex.addTicket(1, UP, 0, 0b001L, 100, false);
+
+        assertFalse(ticketIndex.getTicket(1).isCancelled());
+        assertEquals(ticketIndex.cancel(1).getTicketNumber(), 1);
+    }
+
+    @Test
+    public void testCancel_AcrossChunks() {
+        int[] ticketNumbers = {65_535, 65_536, 1_000_000, Integer.MAX_VALUE};
+        for (int i = 0; i < ticketNumbers.length; i++) {
+            ticketIndex.addTicket(ticketNumbers[i], UP, i, 0b111L, i, false);
+        }
+        for (int i = 0; i < ticketNumbers.length; i++) {
+            assertEquals(ticketIndex.cancel(ticketNumbers[i]).getSeat(), i);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Ticket already cancelled.*")
+    public void testCancel_Twice() {
+        ticketIndex.addTicket(1, UP, 0, 0b001L, 100, false);
+        ticketIndex.cancel(1);
+        ticketIndex.cancel(1);
+    }
+
+    @Test
+    public void testRevertCancellation() {
+        ticketIndex.addTicket(1, UP, 3, 0b011L, 100, false);
+        ticketIndex.cancel(1);
+        ticketIndex.revertCancellation(1);
+
+        assertFalse(ticketIndex.getTicket(1).isCancelled());
+        assertEquals(ticketIndex.cancel(1).getSeat(), 3, "Ticket can be cancelled again");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Ticket already cancelled.*")
+    public void testCancel_RestoredAsCancelled() {
+        ticketIndex.addTicket(1, UP, 0, 0b001L, 100, true);
+        ticketIndex.cancel(1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Invalid ticket number.*")
+    public void testCancel_NotIssuedInAllocatedChunk() {
+        ticketIndex.addTicket(1, UP, 0, 0b001L, 100, false);
+        ticketIndex.cancel(2);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Invalid ticket number.*")
+    public void testCancel_NotIssued() {
+        ticketIndex.cancel(1_000_000);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Invalid ticket number.*")
+    public void testCancel_Negative() {
+        ticketIndex.cancel(-1);
+    }
+
+    @Test
+    public void testCancel_ConcurrentCancellationsHaveOneWinner() throws Exception {
+        ticketIndex.addTicket(1, UP, 0, 0b001L, 100, false);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<TicketRecord>> futures = new ArrayList<>();
+        Callable<TicketRecord> cancel = () -> ticketIndex.cancel(1);
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(cancel));
+        }
+        int cancelled = 0;
+        for (Future<TicketRecord> future : futures) {
+            try {
+                future.get();
+                cancelled++;
+            } catch (ExecutionException exception) {
+                assertEquals(exception.getCause().getMessage(), "Ticket already cancelled");
+            }
+        }
+        executor.shutdown();
+        assertEquals(cancelled, 1);
+    }
+}
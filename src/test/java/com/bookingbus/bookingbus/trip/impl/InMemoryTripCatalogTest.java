@@ -0,0 +1,86 @@
+package com.bookingbus.bookingbus.trip.impl;
+
+import com.bookingbus.bookingbus.journal.impl.NoOpReservationJournal;
+import com.bookingbus.bookingbus.trip.SeatLayout;
+import com.bookingbus.bookingbus.trip.Trip;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.LocalDateTime;
+
+import static org.testng.Assert.*;
+
+public class InMemoryTripCatalogTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2026, 1, 1, 8, 0);
+    private InMemoryTripCatalog tripCatalog;
+
+    @BeforeMethod
+    public void setUp() {
+        tripCatalog = new InMemoryTripCatalog();
+    }
+
+    @Test
+    public void testAddTrip() {
+        Trip trip = tripCatalog.addTrip("T1", "ABCDE", DEPARTURE, new SeatLayout(2, 3));
+        assertSame(tripCatalog.getTrip("T1"), trip);
+        assertEquals(trip.getInventory().getSeatCount(), 6);
+        assertEquals(trip.getInventory().getSegmentCount(), 4);
+        assertEquals(trip.getInventory().getSeatNumber(3), "B1");
+        assertEquals(trip.stopOrdinal('C'), 2);
+        assertEquals(trip.stopOrdinal('X'), -1);
+    }
+
+    @Test
+    public void testAddTrip_VisibleOnlyOnceJournalled() {
+        tripCatalog = new InMemoryTripCatalog(new NoOpReservationJournal() {
+            @Override
+            public void recordTrip(Trip trip) {
+                assertNull(tripCatalog.getTrip(trip.getTripId()), "Trip published before it was journalled");
+                if (trip.getTripId().equals("T2")) {
+                    throw new IllegalStateException("Journal segment could not be opened");
+                }
+            }
+        });
+        tripCatalog.addTrip("T1", "ABC", DEPARTURE, new SeatLayout(1, 2));
+        assertNotNull(tripCatalog.getTrip("T1"));
+
+        assertThrows(IllegalStateException.class, () -> tripCatalog.addTrip("T2", "ABC", DEPARTURE, new SeatLayout(1, 2)));
+        assertNull(tripCatalog.getTrip("T2"), "Unjournalled trip left in the catalog");
+    }
+
+    @Test
+    public void testSeatLayout_LargestIndexableBus() {
+        assertEquals(new SeatLayout(16, SeatLayout.MAX_SEATS / 16).getSeatCount(), SeatLayout.MAX_SEATS);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Invalid seat layout.*")
+    public void testSeatLayout_TooManySeatsToIndex() {
+        new SeatLayout(2, SeatLayout.MAX_SEATS / 2 + 1);
+    }
+
+    @Test
+    public void testAddTrip_InventoriesAreIndependent() {
+        Trip first = tripCatalog.addTrip("T1", "AB", DEPARTURE, new SeatLayout(1, 2));
+        Trip second = tripCatalog.addTrip("T2", "AB", DEPARTURE, new SeatLayout(1, 2));
+        assertTrue(first.getInventory().claimSeat(0, first.getInventory().segmentMask(0, 1)));
+        assertTrue(second.getInventory().isAvailable(0, second.getInventory().segmentMask(0, 1)));
+        assertEquals(tripCatalog.getTrips().size(), 2);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*already exists.*")
+    public void testAddTrip_Duplicate() {
+        tripCatalog.addTrip("T1", "AB", DEPARTURE, new SeatLayout(1, 2));
+        tripCatalog.addTrip("T1", "AB", DEPARTURE, new SeatLayout(1, 2));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*Invalid route.*")
+    public void testAddTrip_RepeatedStop() {
+        tripCatalog.addTrip("T1", "ABA", DEPARTURE, new SeatLayout(1, 2));
+    }
+
+    @Test
+    public void testGetTrip_Unknown() {
+        assertNull(tripCatalog.getTrip("UNKNOWN"));
+    }
+}